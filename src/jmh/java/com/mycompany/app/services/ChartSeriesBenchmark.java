@@ -0,0 +1,113 @@
+package com.mycompany.app.services;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mycompany.app.models.Downsampler;
+import com.mycompany.app.models.HistoricalData;
+
+import javafx.scene.chart.XYChart;
+
+/**
+ * Cost of turning a series into chart nodes, as `CryptoDetailView.updateChartData`
+ * does, with and without downsampling to the chart width first.
+ *
+ * `price*` builds the LineChart series, `volume*` the BarChart series (which
+ * also formats a category label per point). `*Full` converts every sample,
+ * `*Downsampled` first reduces the series with LTTB or per-bucket min/max.
+ * `max_history_daily` is a synthetic daily series since 2013 (about 4,700
+ * points), the size CoinGecko returns for `days=max` on older coins.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChartSeriesBenchmark {
+    private static final String MAX_HISTORY = "max_history_daily";
+    private static final DateTimeFormatter LABELS = DateTimeFormatter.ofPattern("MMM d").withZone(ZoneId.systemDefault());
+
+    @Param({ "market_chart_90d_hourly", "market_chart_365d_daily", MAX_HISTORY })
+    public String fixture;
+
+    // Chart width in pixels
+    @Param({ "800" })
+    public int width;
+
+    private HistoricalData series;
+
+    @Setup
+    public void setUp() throws IOException {
+        series = MAX_HISTORY.equals(fixture)
+                ? maxHistory()
+                : new MarketChartParser(new ObjectMapper()).parse(Fixtures.stream(Fixtures.load(fixture)));
+    }
+
+    private static HistoricalData maxHistory() {
+        long day = 86_400_000L;
+        long start = Instant.parse("2013-04-28T00:00:00Z").toEpochMilli();
+        int days = (int) ((System.currentTimeMillis() - start) / day);
+        HistoricalData.Builder builder = new HistoricalData.Builder(days);
+        java.util.Random random = new java.util.Random(7);
+        double price = 135.0;
+        for (int i = 0; i < days; i++) {
+            price = Math.max(1.0, price * (1 + random.nextGaussian() * 0.03));
+            builder.add(start + i * day, price, price * 1e7 * (0.5 + random.nextDouble()));
+        }
+        return builder.build();
+    }
+
+    @Benchmark
+    public XYChart.Series<Number, Number> priceFull() {
+        return priceSeries(series);
+    }
+
+    @Benchmark
+    public XYChart.Series<Number, Number> priceDownsampled() {
+        return priceSeries(Downsampler.lttb(series, width));
+    }
+
+    @Benchmark
+    public XYChart.Series<String, Number> volumeFull() {
+        return volumeSeries(series);
+    }
+
+    @Benchmark
+    public XYChart.Series<String, Number> volumeDownsampled() {
+        return volumeSeries(Downsampler.minMax(series, width / 8));
+    }
+
+    private static XYChart.Series<Number, Number> priceSeries(HistoricalData data) {
+        XYChart.Series<Number, Number> result = new XYChart.Series<>();
+        for (int i = 0; i < data.size(); i++) {
+            result.getData().add(new XYChart.Data<>(data.getTime(i), data.getPrice(i)));
+        }
+        return result;
+    }
+
+    private static XYChart.Series<String, Number> volumeSeries(HistoricalData data) {
+        XYChart.Series<String, Number> result = new XYChart.Series<>();
+        for (int i = 0; i < data.size(); i++) {
+            String label = LABELS.format(Instant.ofEpochMilli(data.getTime(i)));
+            result.getData().add(new XYChart.Data<>(label, data.getVolume(i)));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,41 @@
+package com.mycompany.app.services;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Loads the response payloads under src/jmh/resources/fixtures.
+ *
+ * The fixtures mirror real CoinGecko and SerpAPI responses in shape and size:
+ * - market_chart_1d_5min: 288 points (1 day at 5-minute granularity)
+ * - market_chart_90d_hourly: 2160 points (90 days hourly)
+ * - market_chart_365d_daily: 366 points (1 year daily)
+ * - coins_markets_250: one full /coins/markets page (250 coins, all fields)
+ * - simple_price_250: /simple/price for the same 250 ids
+ * - serpapi_news: a Google News search result page with metadata
+ */
+final class Fixtures {
+    private Fixtures() {
+    }
+
+    static byte[] load(String name) {
+        String path = "/fixtures/" + name + ".json";
+        try (InputStream in = Fixtures.class.getResourceAsStream(path)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing benchmark fixture " + path);
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Fresh stream over a payload, standing in for an HTTP response body
+     */
+    static InputStream stream(byte[] payload) {
+        return new ByteArrayInputStream(payload);
+    }
+}
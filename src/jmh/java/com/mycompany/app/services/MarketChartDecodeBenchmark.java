@@ -0,0 +1,62 @@
+package com.mycompany.app.services;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mycompany.app.models.HistoricalData;
+
+/**
+ * Decode throughput of `market_chart` responses at the sizes the app requests.
+ *
+ * `streaming` is the production path (`CryptoService.parseMarketChartJson`
+ * reading the response stream); `tree` is the JsonNode reference decoder over
+ * an already buffered String, i.e. the behaviour before streaming was added.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MarketChartDecodeBenchmark {
+
+    @Param({ "market_chart_1d_5min", "market_chart_90d_hourly", "market_chart_365d_daily" })
+    public String fixture;
+
+    private byte[] payload;
+    private CryptoService service;
+    private MarketChartParser treeParser;
+
+    @Setup
+    public void setUp() {
+        payload = Fixtures.load(fixture);
+        service = new CryptoService(HttpClient.newHttpClient(), new CryptoCache(), new Properties());
+        treeParser = new MarketChartParser(new ObjectMapper());
+    }
+
+    @Benchmark
+    public HistoricalData streaming() throws IOException {
+        return service.parseMarketChartJson(Fixtures.stream(payload));
+    }
+
+    @Benchmark
+    public HistoricalData tree() throws IOException {
+        return treeParser.parseTree(new String(payload, StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,78 @@
+package com.mycompany.app.services;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mycompany.app.models.Crypto;
+import com.mycompany.app.models.News;
+
+/**
+ * Decode throughput of the remaining API payloads: a 250-coin `/coins/markets`
+ * page, a 250-id `/simple/price` poll and a SerpAPI news page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseDecodeBenchmark {
+
+    private byte[] coinsPayload;
+    private byte[] pricePayload;
+    private byte[] newsPayload;
+    private List<String> priceIds;
+
+    private CryptoService cryptoService;
+    private PricePollingService pricePollingService;
+    private NewsService newsService;
+
+    @Setup
+    public void setUp() throws IOException {
+        coinsPayload = Fixtures.load("coins_markets_250");
+        pricePayload = Fixtures.load("simple_price_250");
+        newsPayload = Fixtures.load("serpapi_news");
+
+        priceIds = new ArrayList<>();
+        Iterator<String> ids = new ObjectMapper().readTree(pricePayload).fieldNames();
+        ids.forEachRemaining(priceIds::add);
+
+        cryptoService = new CryptoService(HttpClient.newHttpClient(), new CryptoCache(), new Properties());
+        pricePollingService = new PricePollingService();
+        newsService = new NewsService(HttpClient.newHttpClient(), "benchmark");
+    }
+
+    @Benchmark
+    public List<Crypto> coinsMarkets() throws IOException {
+        return cryptoService.parseCoinsJson(Fixtures.stream(coinsPayload));
+    }
+
+    @Benchmark
+    public Double simplePrice() throws IOException {
+        PriceBoard board = new PriceBoard(priceIds);
+        pricePollingService.parsePriceResponse(Fixtures.stream(pricePayload), board);
+        return board.price(0);
+    }
+
+    @Benchmark
+    public List<News> newsResults() {
+        return newsService.parseNewsResults(Fixtures.stream(newsPayload));
+    }
+}
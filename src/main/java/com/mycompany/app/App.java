@@ -7,6 +7,7 @@ import com.mycompany.app.views.MainView;
 import com.mycompany.app.views.CryptoDetailView;
 import com.mycompany.app.views.NewsView;
 import com.mycompany.app.views.CryptoListView;
+import com.mycompany.app.views.UiDispatcher;
 import com.mycompany.app.controllers.MainController;
 import com.mycompany.app.controllers.CryptoDetailController;
 import com.mycompany.app.controllers.NewsController;
@@ -15,9 +16,9 @@ import com.mycompany.app.services.CryptoService;
 import com.mycompany.app.services.PricePollingService;
 import com.mycompany.app.services.NewsService;
 import com.mycompany.app.models.Crypto;
+import com.mycompany.app.config.ApiConfig;
 
 import java.util.List;
-import java.util.Map;
 
 /**
  * Crypto Dashboard Application
@@ -27,7 +28,7 @@ public class App extends Application {
     public void start(Stage primaryStage) {
         // Initialize services
         CryptoService cryptoService = new CryptoService();
-        NewsService newsService = new NewsService();
+        NewsService newsService = new NewsService(cryptoService);
         PricePollingService pricePollingService = new PricePollingService();
         
         // Initialize controllers
@@ -43,12 +44,19 @@ public class App extends Application {
         );
 
         // Initialize views
-        CryptoDetailView detailView = new CryptoDetailView();
+        // `chart.renderer=canvas` draws the charts on a Canvas instead of
+        // LineChart/BarChart nodes
+        boolean canvasCharts = "canvas".equalsIgnoreCase(ApiConfig.getProperty("chart.renderer", "javafx"));
+        CryptoDetailView detailView = new CryptoDetailView(canvasCharts);
         NewsView newsView = new NewsView(mainController::handleNewsToggleChange);
         CryptoListView cryptoListView = new CryptoListView();
 
         MainView mainView = new MainView(cryptoListView, detailView, newsView);
 
+        // Updates from background threads reach the UI through this, at most
+        // once per frame and only the latest per key
+        UiDispatcher ui = UiDispatcher.fx();
+
         // Wire controllers to views
         cryptoListController.setView(cryptoListView);
         detailController.setView(detailView);
@@ -75,23 +83,24 @@ public class App extends Application {
         cryptoService.setDataLoadedCallback(new com.mycompany.app.services.ICryptoService.DataLoadedCallback() {
             @Override
             public void onDataLoaded(String cryptoId, boolean success) {
-                javafx.application.Platform.runLater(() -> {
-                    if (success) {
-                        cryptoListView.setCryptoEnabled(cryptoId, true);
-                        
-                        // Auto-select Bitcoin when its data is loaded (first time only)
-                        if (!bitcoinAutoSelected[0] && "bitcoin".equalsIgnoreCase(cryptoId)) {
-                            bitcoinAutoSelected[0] = true;
-                            List<Crypto> cryptos = cryptoService.getTopCryptos();
-                            if (cryptos != null) {
-                                cryptos.stream()
-                                    .filter(c -> "bitcoin".equalsIgnoreCase(c.getId()))
-                                    .findFirst()
-                                    .ifPresent(bitcoin -> {
-                                        cryptoListController.selectCryptoById(bitcoin.getId());
-                                        mainController.selectCrypto(bitcoin);
-                                    });
-                            }
+                if (!success) {
+                    return;
+                }
+                ui.post("loaded:" + cryptoId, () -> {
+                    cryptoListView.setCryptoEnabled(cryptoId, true);
+                    
+                    // Auto-select Bitcoin when its data is loaded (first time only)
+                    if (!bitcoinAutoSelected[0] && "bitcoin".equalsIgnoreCase(cryptoId)) {
+                        bitcoinAutoSelected[0] = true;
+                        List<Crypto> cryptos = cryptoService.getTopCryptos();
+                        if (cryptos != null) {
+                            cryptos.stream()
+                                .filter(c -> "bitcoin".equalsIgnoreCase(c.getId()))
+                                .findFirst()
+                                .ifPresent(bitcoin -> {
+                                    cryptoListController.selectCryptoById(bitcoin.getId());
+                                    mainController.selectCrypto(bitcoin);
+                                });
                         }
                     }
                 });
@@ -99,13 +108,13 @@ public class App extends Application {
             
             @Override
             public void onIntervalDataLoaded(String cryptoId, String interval, boolean success) {
-                javafx.application.Platform.runLater(() -> {
-                    // Enable interval button only when all cryptos have loaded this interval
-                    // cryptoId is null when all cryptos have loaded the interval
-                    if (success && cryptoId == null) {
-                        detailView.setIntervalEnabled(interval, true);
-                    }
-                });
+                if (!success) {
+                    return;
+                }
+                // Enable the interval button once the displayed crypto has it
+                // (cryptoId is null when all cryptos have loaded the interval)
+                ui.post("interval:" + cryptoId + ":" + interval,
+                        () -> detailController.onIntervalDataLoaded(cryptoId, interval));
             }
         });
         
@@ -113,17 +122,22 @@ public class App extends Application {
         detailView.setOnRefreshRequested(() -> {
             // Hide refresh button while refreshing
             detailView.setRefreshButtonVisible(false);
-            new Thread(() -> {
+            // Orchestrating threads stay outside the io pool: they block on
+            // the fetches they submit to it
+            Thread refreshThread = new Thread(() -> {
                 try {
-                    // Refresh all data - clear cache and reload
+                    // Fetch only the points newer than what is cached; the
+                    // current charts stay visible while this runs
                     System.out.println("Refreshing all cryptocurrency data...");
-                    cryptoService.clearCache();
-                    cryptoService.preloadAllData();
-                    // Refresh button will be shown again when preloading completes (monitored below)
+                    cryptoService.refreshAllData();
                 } catch (Exception e) {
                     System.err.println("Error during data refresh: " + e.getMessage());
+                } finally {
+                    ui.post("refresh-button", () -> detailView.setRefreshButtonVisible(true));
                 }
-            }).start();
+            }, "data-refresh");
+            refreshThread.setDaemon(true);
+            refreshThread.start();
         });
 
         // Preload all historical data in background thread to avoid blocking UI
@@ -136,20 +150,31 @@ public class App extends Application {
                 List<Crypto> cryptos = cryptoService.getTopCryptos();
                 if (cryptos != null && !cryptos.isEmpty()) {
                     // Set up price update callback before starting polling
-                    pricePollingService.setPriceUpdateCallback((prices, changes) -> {
-                        javafx.application.Platform.runLater(() -> {
-                            // Update prices in sidebar
-                            for (Map.Entry<String, Double> entry : prices.entrySet()) {
-                                String cryptoId = entry.getKey();
-                                Double price = entry.getValue();
-                                Double change = changes.get(cryptoId);
-                                if (price != null && change != null) {
-                                    cryptoListView.updatePrice(cryptoId, price, change);
-                                    detailView.updatePrice(cryptoId, price, change);
-                                }
+                    // Version of the board last shown; only touched on the
+                    // JavaFX thread
+                    final long[] shownPriceVersion = {0};
+                    pricePollingService.setPriceUpdateCallback(board ->
+                        // Coalesced per frame; pushes only the coins that
+                        // changed since the last frame that showed prices
+                        ui.post("prices", () -> {
+                            // Only copy under the board's lock, so the poller
+                            // is not held up while the views update
+                            int[] slots = new int[board.size()];
+                            double[] prices = new double[board.size()];
+                            double[] changes = new double[board.size()];
+                            int[] count = {0};
+                            shownPriceVersion[0] = board.forEachChangedSince(shownPriceVersion[0],
+                                (slot, cryptoId, price, change) -> {
+                                    slots[count[0]] = slot;
+                                    prices[count[0]] = price;
+                                    changes[count[0]++] = change;
+                                });
+                            for (int i = 0; i < count[0]; i++) {
+                                String cryptoId = board.idAt(slots[i]);
+                                cryptoListView.updatePrice(cryptoId, prices[i], changes[i]);
+                                detailView.updatePrice(cryptoId, prices[i], changes[i]);
                             }
-                        });
-                    });
+                        }));
                     
                     // Start polling
                     pricePollingService.startPolling(cryptos);
@@ -157,13 +182,14 @@ public class App extends Application {
             } catch (Exception e) {
                 System.err.println("Error during data preloading: " + e.getMessage());
             }
-        });
+        }, "data-preload");
+        preloadThread.setDaemon(true);
         preloadThread.start();
         
         // Monitor preloading completion to show refresh button
         // Refresh button should be visible only when all data is loaded (no failed loads)
         // This allows user to refresh to get latest data
-        new Thread(() -> {
+        Thread monitorThread = new Thread(() -> {
             try {
                 // Wait for preloading to complete
                 preloadThread.join();
@@ -175,13 +201,13 @@ public class App extends Application {
                 int failedCount = cryptoService.getFailedLoadsCount();
                 
                 // Show refresh button only when all data is loaded (no failed loads)
-                javafx.application.Platform.runLater(() -> {
-                    detailView.setRefreshButtonVisible(failedCount == 0);
-                });
+                ui.post("refresh-button", () -> detailView.setRefreshButtonVisible(failedCount == 0));
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
             }
-        }).start();
+        }, "preload-monitor");
+        monitorThread.setDaemon(true);
+        monitorThread.start();
         
         // Create the main layout
         javafx.scene.layout.StackPane root = new javafx.scene.layout.StackPane();
@@ -195,9 +221,11 @@ public class App extends Application {
         primaryStage.setTitle("Crypto Dashboard");
         primaryStage.setScene(scene);
         
-        // Stop price polling when the application is closed
+        // Stop price polling and flush the history store when the
+        // application is closed
         primaryStage.setOnCloseRequest(event -> {
             pricePollingService.stopPolling();
+            cryptoService.close();
         });
         
         primaryStage.show();
@@ -6,6 +6,9 @@ import java.util.Properties;
 
 /**
  * Configuration class for managing API keys and URLs
+ *
+ * The only place `application.properties` is read; components configured
+ * from a {@link Properties} object take {@link #getProperties()}.
  */
 public class ApiConfig {
     private static final String CONFIG_FILE = "/application.properties";
@@ -43,4 +46,38 @@ public class ApiConfig {
     public static String getSerpApiUrl() {
         return properties.getProperty("serp.api.url", "https://serpapi.com/search");
     }
+
+    /**
+     * A copy of every setting, for components configured from a
+     * {@link Properties} object (tests pass their own instead)
+     */
+    public static Properties getProperties() {
+        Properties copy = new Properties();
+        copy.putAll(properties);
+        return copy;
+    }
+
+    /**
+     * String setting, or {@code defaultValue} when it is absent or blank
+     */
+    public static String getProperty(String key, String defaultValue) {
+        String value = properties.getProperty(key);
+        return value == null || value.isBlank() ? defaultValue : value.trim();
+    }
+
+    /**
+     * Integer setting, or {@code defaultValue} when it is absent or not a number
+     */
+    public static int getIntProperty(String key, int defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Ignoring invalid " + key + ": " + value);
+            return defaultValue;
+        }
+    }
 }
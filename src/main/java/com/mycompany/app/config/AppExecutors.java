@@ -0,0 +1,128 @@
+package com.mycompany.app.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor topology for background work, so blocking HTTP calls never run on
+ * {@code ForkJoinPool.commonPool()}:
+ *
+ * - io: blocking network and disk calls. Sized well above the core count,
+ *   since its threads mostly wait; the rate limiters bound actual request
+ *   throughput.
+ * - compute: CPU-bound work such as downsampling and analytics, one thread
+ *   per core.
+ * - scheduler: timers (delayed retries, periodic jobs). Tasks scheduled here
+ *   must only hand work off to another pool.
+ *
+ * All threads are named daemon threads. The shared instance is sized from
+ * `executor.io.threads` and `executor.compute.threads`; tests can create
+ * their own instance with explicit sizes.
+ */
+public final class AppExecutors {
+    private static final int DEFAULT_IO_THREADS = 16;
+    private static final long IDLE_KEEP_ALIVE_SECONDS = 30;
+
+    private static volatile AppExecutors shared;
+
+    private final ThreadPoolExecutor io;
+    private final ThreadPoolExecutor compute;
+    private final ScheduledThreadPoolExecutor scheduler;
+
+    /**
+     * @param ioThreads      maximum threads for blocking I/O
+     * @param computeThreads threads for CPU-bound work
+     */
+    public AppExecutors(int ioThreads, int computeThreads) {
+        if (ioThreads < 1 || computeThreads < 1) {
+            throw new IllegalArgumentException("thread counts must be at least 1");
+        }
+        this.io = newPool(ioThreads, "io");
+        this.compute = newPool(computeThreads, "compute");
+        this.scheduler = new ScheduledThreadPoolExecutor(1, namedDaemon("scheduler"));
+        this.scheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * The process-wide executors, created from configuration on first use
+     */
+    public static AppExecutors shared() {
+        AppExecutors instance = shared;
+        if (instance == null) {
+            synchronized (AppExecutors.class) {
+                instance = shared;
+                if (instance == null) {
+                    int cores = Runtime.getRuntime().availableProcessors();
+                    instance = new AppExecutors(
+                            Math.max(1, ApiConfig.getIntProperty("executor.io.threads", DEFAULT_IO_THREADS)),
+                            Math.max(1, ApiConfig.getIntProperty("executor.compute.threads", cores)));
+                    shared = instance;
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Executor for blocking network and disk calls
+     */
+    public ExecutorService io() {
+        return io;
+    }
+
+    /**
+     * Executor for CPU-bound work
+     */
+    public ExecutorService compute() {
+        return compute;
+    }
+
+    /**
+     * Timer for delayed and periodic tasks
+     */
+    public ScheduledExecutorService scheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Stop all pools, interrupting running tasks
+     */
+    public void shutdown() {
+        io.shutdownNow();
+        compute.shutdownNow();
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Fixed-size pool whose threads are created on demand and retire after
+     * idling, so an idle app holds no threads
+     */
+    private static ThreadPoolExecutor newPool(int threads, String prefix) {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads,
+                IDLE_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), namedDaemon(prefix));
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    /**
+     * Thread factory producing daemon threads named {@code prefix-1},
+     * {@code prefix-2}, ...
+     */
+    public static ThreadFactory namedDaemon(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory delegate = Executors.defaultThreadFactory();
+        return r -> {
+            Thread t = delegate.newThread(r);
+            t.setName(prefix + "-" + counter.incrementAndGet());
+            t.setDaemon(true); // Allow JVM to exit even if work is queued
+            return t;
+        };
+    }
+}
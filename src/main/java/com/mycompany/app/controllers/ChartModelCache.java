@@ -0,0 +1,143 @@
+package com.mycompany.app.controllers;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import com.mycompany.app.models.HistoricalData;
+import com.mycompany.app.services.CryptoCache;
+import com.mycompany.app.services.ICryptoService;
+import com.mycompany.app.views.ChartRenderModel;
+
+/**
+ * Prepared chart render models keyed by coin, interval and chart mode.
+ *
+ * When the service stores a series, the models for it and for the intervals
+ * sliced from it are dropped and rebuilt on {@code executor}, away from the
+ * JavaFX thread, for both the price and the volume chart. Rebuilds read the
+ * cached series with {@link ICryptoService#peekHistoricalData}, so they never
+ * start a fetch or count as cache lookups. Switching coins, intervals or
+ * modes then usually finds a ready model. A model is only
+ * returned if it still matches the data it is asked for, so a stale model is
+ * never shown even if a rebuild has not finished yet.
+ *
+ * Holds at most {@value #MAX_ENTRIES} models, dropping the least recently
+ * used first.
+ */
+public final class ChartModelCache {
+    static final int MAX_ENTRIES = 200;
+    private static final int DEFAULT_WIDTH = 800;
+
+    private final ICryptoService cryptoService;
+    private final Executor executor;
+    private final String[] intervalDays;
+
+    // Access-ordered for LRU eviction; guarded by this
+    private final LinkedHashMap<Key, ChartRenderModel> models = new LinkedHashMap<>(64, 0.75f, true);
+    // Width of the last request, used for models built ahead of time
+    private volatile int width = DEFAULT_WIDTH;
+
+    /**
+     * @param executor     where models are rebuilt after a series is stored
+     * @param intervalDays the `days` values the chart can show
+     */
+    public ChartModelCache(ICryptoService cryptoService, Executor executor, String... intervalDays) {
+        this.cryptoService = cryptoService;
+        this.executor = executor;
+        this.intervalDays = intervalDays.clone();
+        cryptoService.addHistoricalDataListener(this::onSeriesStored);
+    }
+
+    /**
+     * Model for {@code data}: the cached one if it was built from the same
+     * series at the same width, otherwise one built now and cached.
+     */
+    public ChartRenderModel get(String cryptoId, String days, boolean volume, int width, HistoricalData data) {
+        this.width = width;
+        Key key = new Key(cryptoId, days, volume);
+        synchronized (this) {
+            ChartRenderModel model = models.get(key);
+            if (model != null && model.matches(data, width)) {
+                return model;
+            }
+        }
+        ChartRenderModel model = ChartRenderModel.build(data, days, volume, width);
+        put(key, model);
+        return model;
+    }
+
+    /**
+     * Number of cached models. For tests and monitoring.
+     */
+    public synchronized int size() {
+        return models.size();
+    }
+
+    private void onSeriesStored(String cryptoId, String storedDays) {
+        List<String> affected = new ArrayList<>();
+        for (String days : intervalDays) {
+            if (days.equals(storedDays) || CryptoCache.sourceInterval(days).equals(storedDays)) {
+                affected.add(days);
+            }
+        }
+        if (affected.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            for (String days : affected) {
+                models.remove(new Key(cryptoId, days, false));
+                models.remove(new Key(cryptoId, days, true));
+            }
+        }
+        executor.execute(() -> rebuild(cryptoId, affected));
+    }
+
+    private void rebuild(String cryptoId, List<String> affected) {
+        int w = width;
+        for (String days : affected) {
+            HistoricalData data = cryptoService.peekHistoricalData(cryptoId, days);
+            if (data == null || data.isEmpty()) {
+                continue;
+            }
+            put(new Key(cryptoId, days, false), ChartRenderModel.build(data, days, false, w));
+            put(new Key(cryptoId, days, true), ChartRenderModel.build(data, days, true, w));
+        }
+    }
+
+    private synchronized void put(Key key, ChartRenderModel model) {
+        models.put(key, model);
+        Iterator<Map.Entry<Key, ChartRenderModel>> it = models.entrySet().iterator();
+        while (models.size() > MAX_ENTRIES && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private static final class Key {
+        final String cryptoId;
+        final String days;
+        final boolean volume;
+
+        Key(String cryptoId, String days, boolean volume) {
+            this.cryptoId = cryptoId;
+            this.days = days;
+            this.volume = volume;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return volume == other.volume && cryptoId.equals(other.cryptoId) && days.equals(other.days);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * cryptoId.hashCode() + days.hashCode()) + (volume ? 1 : 0);
+        }
+    }
+}
@@ -1,24 +1,62 @@
 package com.mycompany.app.controllers;
 
+import java.util.concurrent.Executor;
+
+import com.mycompany.app.config.AppExecutors;
 import com.mycompany.app.models.Crypto;
 import com.mycompany.app.models.HistoricalData;
 import com.mycompany.app.services.ICryptoService;
 import com.mycompany.app.views.CryptoDetailView;
+import com.mycompany.app.views.UiDispatcher;
 
 /**
  * Controller for the crypto detail view
  * Manages historical data fetching and chart updates
+ *
+ * The coin and interval on screen are reported to the service as its fetch
+ * focus, so their data is loaded before the rest of the preload. Interval
+ * buttons are enabled per coin as its series arrive and stay enabled once a
+ * series is cached: a stale series is shown right away while the service
+ * refreshes it, and the chart is redrawn when the refresh lands. Charts are
+ * drawn from render models prepared by a {@link ChartModelCache}.
+ *
+ * Looking up a cached series may read it from the disk store, so button
+ * state and interval selections are resolved on the I/O pool and applied
+ * back on the JavaFX thread; a selection superseded in the meantime is
+ * dropped.
  */
 public class CryptoDetailController {
+    private static final String[] INTERVALS = { "1D", "1W", "1M", "3M", "1Y" };
+    // UI slots for resolved button state and interval selections
+    private static final String BUTTONS_SLOT = "detail-buttons";
+    private static final String SELECT_SLOT = "detail-select";
+    private static final String LOADED_SLOT_PREFIX = "detail-loaded:";
+
     private final ICryptoService cryptoService;
+    private final ChartModelCache chartModels;
+    private final Executor io;
     private CryptoDetailView view;
     private Crypto currentCrypto;
+    // Interval the user picked last; kept while the chart falls back to 1D
+    // so the chart can switch to it once its data arrives
+    private String wantedInterval = "1D";
+    // Bumped on every selection, so only the latest one is applied
+    private int selection;
+    // Bumped whenever a loaded series enables an interval, so button state
+    // resolved before that does not disable it again
+    private int enabledCount;
 
     public CryptoDetailController(ICryptoService cryptoService) {
         if (cryptoService == null) {
             throw new IllegalArgumentException("cryptoService cannot be null");
         }
         this.cryptoService = cryptoService;
+        String[] days = new String[INTERVALS.length];
+        for (int i = 0; i < INTERVALS.length; i++) {
+            days[i] = convertIntervalToDays(INTERVALS[i]);
+        }
+        this.chartModels = new ChartModelCache(cryptoService, AppExecutors.shared().compute(), days);
+        this.io = AppExecutors.shared().io();
     }
 
     /**
@@ -33,9 +71,89 @@ public class CryptoDetailController {
      */
     public void showCrypto(Crypto crypto) {
         this.currentCrypto = crypto;
+        String wanted = wantedInterval;
+        if (crypto != null) {
+            cryptoService.setFocus(crypto.getId(), convertIntervalToDays(wanted));
+        }
         if (view != null) {
+            if (crypto != null) {
+                updateIntervalButtons(crypto.getId());
+            }
+            // May fall back to 1D if the wanted interval isn't loaded yet
             view.displayCrypto(crypto);
         }
+        if (crypto != null && !wanted.equals(wantedInterval)) {
+            wantedInterval = wanted;
+            cryptoService.setFocus(crypto.getId(), convertIntervalToDays(wanted));
+        }
+    }
+
+    /**
+     * Called when a series has been loaded: `cryptoId` is null when the
+     * interval is now loaded for every preloaded coin. Enables the interval
+     * for the displayed coin and switches the chart to it if the user asked
+     * for it before it was available, or redraws it if it is already shown.
+     */
+    public void onIntervalDataLoaded(String cryptoId, String interval) {
+        if (view == null || currentCrypto == null) {
+            return;
+        }
+        if (cryptoId != null && !cryptoId.equals(currentCrypto.getId())) {
+            return;
+        }
+        if (cryptoId != null) {
+            enableInterval(interval);
+            return;
+        }
+        // Coins loaded on demand are not part of the "every coin" signal
+        String id = currentCrypto.getId();
+        String days = convertIntervalToDays(interval);
+        io.execute(() -> {
+            if (cryptoService.containsHistoricalData(id, days)) {
+                UiDispatcher.fx().post(LOADED_SLOT_PREFIX + interval, () -> {
+                    if (currentCrypto != null && id.equals(currentCrypto.getId())) {
+                        enableInterval(interval);
+                    }
+                });
+            }
+        });
+    }
+
+    private void enableInterval(String interval) {
+        enabledCount++;
+        view.setIntervalEnabled(interval, true);
+        if (interval.equals(wantedInterval)) {
+            if (interval.equals(view.getSelectedInterval())) {
+                selectTimeInterval(interval);
+            } else {
+                view.selectIntervalIfEnabled(interval);
+            }
+        }
+    }
+
+    /**
+     * Enable exactly the intervals that are cached for a coin, fresh or not
+     */
+    private void updateIntervalButtons(String cryptoId) {
+        int enabledBefore = enabledCount;
+        io.execute(() -> {
+            boolean[] loaded = new boolean[INTERVALS.length];
+            for (int i = 0; i < INTERVALS.length; i++) {
+                loaded[i] = INTERVALS[i].equals("1D")
+                        || cryptoService.containsHistoricalData(cryptoId, convertIntervalToDays(INTERVALS[i]));
+            }
+            UiDispatcher.fx().post(BUTTONS_SLOT, () -> {
+                if (view == null || currentCrypto == null || !cryptoId.equals(currentCrypto.getId())) {
+                    return;
+                }
+                boolean raced = enabledBefore != enabledCount;
+                for (int i = 0; i < INTERVALS.length; i++) {
+                    if (loaded[i] || !raced) {
+                        view.setIntervalEnabled(INTERVALS[i], loaded[i]);
+                    }
+                }
+            });
+        });
     }
 
     /**
@@ -47,7 +165,10 @@ public class CryptoDetailController {
 
     /**
      * Handle time interval selection
-     * Checks if data is available, falls back to 1D if not
+     * Checks if data is available, falls back to 1D if not. Cached data is
+     * shown even if stale; setting the focus has the service refresh it.
+     * The cached series is read on the I/O pool and shown once it is back
+     * on the JavaFX thread, unless another selection was made meanwhile.
      */
     public void selectTimeInterval(String interval) {
         if (currentCrypto == null || view == null) {
@@ -56,23 +177,38 @@ public class CryptoDetailController {
 
         // Convert interval to days parameter
         String days = convertIntervalToDays(interval);
-        
-        // Check if data is available in cache
-        if (!cryptoService.hasHistoricalData(currentCrypto.getId(), days)) {
+        wantedInterval = interval;
+        cryptoService.setFocus(currentCrypto.getId(), days);
+
+        int generation = ++selection;
+        Crypto crypto = currentCrypto;
+        io.execute(() -> {
+            HistoricalData data = cryptoService.peekHistoricalData(crypto.getId(), days);
+            UiDispatcher.fx().post(SELECT_SLOT, () -> {
+                if (generation == selection && crypto == currentCrypto && view != null) {
+                    showInterval(interval, days, data);
+                }
+            });
+        });
+    }
+
+    private void showInterval(String interval, String days, HistoricalData data) {
+        if (data == null) {
             // Data not available - fall back to 1D if not already on 1D
             if (!interval.equals("1D")) {
                 System.out.println("Data for " + interval + " not available for " + currentCrypto.getName() + ", falling back to 1D");
                 view.selectIntervalIfEnabled("1D");
+                // Still fetch this interval first and show it once loaded
+                wantedInterval = interval;
+                cryptoService.setFocus(currentCrypto.getId(), days);
             }
             return;
         }
         
-        // Fetch historical data from cache
-        HistoricalData data = loadHistoricalData(currentCrypto.getId(), days);
-        
-        // Update view with data
-        if (data != null && data.getPoints() != null && !data.getPoints().isEmpty()) {
-            view.updateChartData(data);
+        // Update view with data, reusing the prepared render model if any
+        if (!data.isEmpty()) {
+            view.showChart(chartModels.get(currentCrypto.getId(), days, view.isShowingVolume(),
+                    view.getChartWidth(), data));
         } else {
             // Data fetch failed - fall back to 1D if not already on 1D
             if (!interval.equals("1D")) {
@@ -85,7 +221,7 @@ public class CryptoDetailController {
     /**
      * Convert interval string (1D, 1W, etc.) to days parameter for API
      */
-    private String convertIntervalToDays(String interval) {
+    private static String convertIntervalToDays(String interval) {
         return switch (interval) {
             case "1D" -> "1";
             case "1W" -> "7";
@@ -1,9 +1,12 @@
 package com.mycompany.app.controllers;
 
+import com.mycompany.app.config.AppExecutors;
 import com.mycompany.app.models.Crypto;
 import com.mycompany.app.services.ICryptoService;
 import com.mycompany.app.views.CryptoListView;
+import com.mycompany.app.views.UiDispatcher;
 
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 
 /**
@@ -12,14 +15,24 @@ import java.util.function.Consumer;
  */
 public class CryptoListController {
     private final ICryptoService cryptoService;
+    // Runs the (possibly blocking) service calls off the UI thread
+    private final Executor executor;
     private CryptoListView view;
     private Consumer<Crypto> onCryptoSelected;
 
     public CryptoListController(ICryptoService cryptoService) {
+        this(cryptoService, AppExecutors.shared().io());
+    }
+
+    public CryptoListController(ICryptoService cryptoService, Executor executor) {
         if (cryptoService == null) {
             throw new IllegalArgumentException("cryptoService cannot be null");
         }
+        if (executor == null) {
+            throw new IllegalArgumentException("executor cannot be null");
+        }
         this.cryptoService = cryptoService;
+        this.executor = executor;
     }
 
     public void setView(CryptoListView view) {
@@ -59,13 +72,13 @@ public class CryptoListController {
      * then optionally call a callback with the loaded list
      */
     public void loadTopCryptos(Consumer<java.util.List<Crypto>> onLoaded) {
-        java.util.concurrent.CompletableFuture.supplyAsync(() -> cryptoService.getTopCryptos())
+        java.util.concurrent.CompletableFuture.supplyAsync(() -> cryptoService.getTopCryptos(), executor)
                 .thenAccept(list -> {
                     System.out.println(
                             "CryptoListController received " + (list == null ? "null" : list.size()) + " cryptos");
                     if (view != null) {
-                        javafx.application.Platform.runLater(() -> {
-                            view.displayCryptos(list);
+                        UiDispatcher.fx().post("crypto-list", () -> {
+                            view.displayCryptos(list, cryptoService.getPreloadCount());
                             if (onLoaded != null && list != null) {
                                 onLoaded.accept(list);
                             }
@@ -3,19 +3,49 @@ package com.mycompany.app.controllers;
 import com.mycompany.app.models.News;
 import com.mycompany.app.services.INewsService;
 import com.mycompany.app.views.NewsView;
-import javafx.application.Platform;
+import com.mycompany.app.views.UiDispatcher;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
+import java.util.Set;
 
 /**
  * Controller for the news view
  * Manages news fetching and filtering asynchronously to avoid blocking the UI
+ *
+ * A feed (general news or one cryptocurrency) is loaded a page at a time:
+ * the first page when the feed is selected, each further page when the view
+ * is scrolled near its end, until a short page marks the end of the results.
+ * A later page that only repeats articles already shown adds nothing to
+ * scroll through, so the page after it is requested right away, up to
+ * {@value #MAX_DUPLICATE_PAGES} such pages in a row.
+ * Pages are requested without blocking, so the calls are made straight from
+ * the JavaFX thread and only the results are posted back to it.
  */
 public class NewsController {
+    // UI slot shared by the loading state and the first page, so a page
+    // arriving within the same frame replaces the loading state
+    private static final String NEWS_SLOT = "news";
+    // UI slot for appended pages
+    private static final String MORE_SLOT = "news-more";
+    // Consecutive all-duplicate pages skipped before the feed is treated as
+    // exhausted
+    static final int MAX_DUPLICATE_PAGES = 3;
+
     private final INewsService newsService;
     private NewsView view;
 
+    // State of the feed on screen; only touched on the JavaFX thread.
+    // The generation changes whenever another feed is requested.
+    private int feedGeneration;
+    private String feedCrypto;
+    private int nextStart;
+    private boolean pageLoading;
+    private boolean feedExhausted;
+    private int duplicatePages;
+    private final Set<String> seenLinks = new HashSet<>();
+
     public NewsController(INewsService newsService) {
         if (newsService == null) {
             throw new IllegalArgumentException("newsService cannot be null");
@@ -28,46 +58,110 @@ public class NewsController {
      */
     public void setView(NewsView view) {
         this.view = view;
+        if (view != null) {
+            view.setOnLoadMore(this::loadMoreNews);
+        }
     }
 
     /**
      * Load general cryptocurrency news asynchronously
      */
     public void loadGeneralNews() {
-        if (view != null) {
-            Platform.runLater(() -> view.showLoading());
-        }
-        CompletableFuture.supplyAsync(() -> newsService.getGeneralNews())
-            .thenAccept(news -> {
-                if (view != null) {
-                    Platform.runLater(() -> view.updateNews(news));
-                }
-            })
-            .exceptionally(ex -> {
-                System.err.println("Failed to load general news: " + ex.getMessage());
-                return null;
-            });
+        startFeed(null);
     }
 
     /**
      * Load news for a specific cryptocurrency asynchronously
      */
     public void loadNewsForCrypto(String cryptoName) {
+        startFeed(cryptoName);
+    }
+
+    /**
+     * Load the next page of the current feed and append it, unless a page is
+     * already loading or the feed has no more results. Called by the view
+     * when it is scrolled near the end.
+     */
+    public void loadMoreNews() {
+        if (feedGeneration == 0 || pageLoading || feedExhausted) {
+            return;
+        }
+        if (view != null) {
+            UiDispatcher.fx().post(MORE_SLOT, () -> view.setLoadingMore(true));
+        }
+        fetchPage(feedGeneration, feedCrypto, nextStart);
+    }
+
+    /**
+     * Show the loading state and request the first page of a feed; any page
+     * still on its way for the previous feed is dropped when it arrives
+     */
+    private void startFeed(String cryptoName) {
+        feedGeneration++;
+        feedCrypto = cryptoName;
+        nextStart = 0;
+        feedExhausted = false;
+        duplicatePages = 0;
+        seenLinks.clear();
         if (view != null) {
-            Platform.runLater(() -> view.showLoading());
+            UiDispatcher.fx().post(NEWS_SLOT, view::showLoading);
         }
-        CompletableFuture.supplyAsync(() -> newsService.getNewsForCrypto(cryptoName))
-            .thenAccept(news -> {
-                if (view != null) {
-                    Platform.runLater(() -> view.updateNews(news));
+        fetchPage(feedGeneration, cryptoName, 0);
+    }
+
+    private void fetchPage(int generation, String cryptoName, int start) {
+        pageLoading = true;
+        newsService.getNewsPageAsync(cryptoName, start)
+            .whenComplete((news, ex) -> {
+                if (ex != null) {
+                    System.err.println("Failed to load news" + (cryptoName != null ? " for " + cryptoName : "")
+                            + ": " + ex.getMessage());
                 }
-            })
-            .exceptionally(ex -> {
-                System.err.println("Failed to load news for " + cryptoName + ": " + ex.getMessage());
-                return null;
+                List<News> page = news != null ? news : List.of();
+                UiDispatcher.fx().post(start == 0 ? NEWS_SLOT : MORE_SLOT,
+                        () -> onPageLoaded(generation, start, page, ex == null));
             });
     }
 
+    /**
+     * Apply a loaded page on the JavaFX thread, if its feed is still shown
+     */
+    private void onPageLoaded(int generation, int start, List<News> page, boolean succeeded) {
+        if (generation != feedGeneration) {
+            return;
+        }
+        pageLoading = false;
+        // A short page is the last one; a failed page stops the feed until
+        // it is reloaded
+        feedExhausted = !succeeded || page.size() < INewsService.PAGE_SIZE;
+        nextStart = start + page.size();
+        // Later pages may repeat articles already shown
+        List<News> fresh = new ArrayList<>(page.size());
+        for (News news : page) {
+            if (seenLinks.add(news.getLink())) {
+                fresh.add(news);
+            }
+        }
+        if (start > 0 && fresh.isEmpty() && !feedExhausted) {
+            // Nothing new to scroll to, so the view would not ask for more
+            if (++duplicatePages < MAX_DUPLICATE_PAGES) {
+                fetchPage(generation, feedCrypto, nextStart);
+                return;
+            }
+            feedExhausted = true;
+        } else if (!fresh.isEmpty()) {
+            duplicatePages = 0;
+        }
+        if (view == null) {
+            return;
+        }
+        if (start == 0) {
+            view.updateNews(fresh);
+        } else {
+            view.appendNews(fresh);
+        }
+    }
+
     /**
      * Synchronous version for testing - loads general news and returns it
      */
@@ -0,0 +1,147 @@
+package com.mycompany.app.models;
+
+/**
+ * Reduces a series to about as many samples as a chart has pixels, before
+ * the samples are turned into chart nodes.
+ *
+ * - {@link #lttb} (Largest-Triangle-Three-Buckets) for prices: the first and
+ *   last samples are kept and every bucket in between contributes the sample
+ *   that forms the largest triangle with the previously kept sample and the
+ *   average of the next bucket. This keeps peaks and the overall shape of
+ *   the line, where keeping every k-th sample flattens them.
+ * - {@link #minMax} for volumes: every bucket contributes its lowest and
+ *   highest sample, in time order, so volume spikes always survive.
+ *
+ * Samples whose value is NaN are skipped. The result is a new series holding
+ * the selected samples (all three columns), or the input itself when it
+ * already fits.
+ */
+public final class Downsampler {
+    private Downsampler() {
+    }
+
+    /**
+     * Reduce the price column to at most {@code threshold} samples with LTTB.
+     * Thresholds below 3 keep every sample.
+     */
+    public static HistoricalData lttb(HistoricalData data, int threshold) {
+        if (data == null || data.isEmpty()) {
+            return data;
+        }
+        int[] valid = validIndices(data, true);
+        int n = valid.length;
+        if (threshold < 3 || n <= threshold) {
+            return select(data, valid, n);
+        }
+
+        int[] kept = new int[threshold];
+        kept[0] = valid[0];
+        // Times relative to the first sample keep the products small
+        long origin = data.getTime(valid[0]);
+        double bucketSize = (double) (n - 2) / (threshold - 2);
+        int previous = 0;
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            // Average of the next bucket (the last sample for the last bucket)
+            int avgStart = (int) ((bucket + 1) * bucketSize) + 1;
+            int avgEnd = Math.min((int) ((bucket + 2) * bucketSize) + 1, n);
+            double avgX = 0;
+            double avgY = 0;
+            for (int j = avgStart; j < avgEnd; j++) {
+                avgX += data.getTime(valid[j]) - origin;
+                avgY += data.getPrice(valid[j]);
+            }
+            int avgCount = avgEnd - avgStart;
+            avgX /= avgCount;
+            avgY /= avgCount;
+
+            // Sample of this bucket with the largest triangle
+            int start = (int) (bucket * bucketSize) + 1;
+            int end = (int) ((bucket + 1) * bucketSize) + 1;
+            double ax = data.getTime(valid[previous]) - origin;
+            double ay = data.getPrice(valid[previous]);
+            double maxArea = -1;
+            int chosen = start;
+            for (int j = start; j < end; j++) {
+                double x = data.getTime(valid[j]) - origin;
+                double y = data.getPrice(valid[j]);
+                double area = Math.abs((ax - avgX) * (y - ay) - (ax - x) * (avgY - ay));
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = j;
+                }
+            }
+            kept[bucket + 1] = valid[chosen];
+            previous = chosen;
+        }
+        kept[threshold - 1] = valid[n - 1];
+        return select(data, kept, threshold);
+    }
+
+    /**
+     * Reduce the volume column to the lowest and highest sample of each of
+     * {@code buckets} equal-sized buckets (at most twice as many samples).
+     */
+    public static HistoricalData minMax(HistoricalData data, int buckets) {
+        if (data == null || data.isEmpty()) {
+            return data;
+        }
+        int[] valid = validIndices(data, false);
+        int n = valid.length;
+        if (buckets < 1 || n <= 2 * buckets) {
+            return select(data, valid, n);
+        }
+
+        int[] kept = new int[2 * buckets];
+        int count = 0;
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            int start = (int) ((long) bucket * n / buckets);
+            int end = (int) ((long) (bucket + 1) * n / buckets);
+            int min = start;
+            int max = start;
+            for (int j = start + 1; j < end; j++) {
+                double v = data.getVolume(valid[j]);
+                if (v < data.getVolume(valid[min])) {
+                    min = j;
+                }
+                if (v > data.getVolume(valid[max])) {
+                    max = j;
+                }
+            }
+            kept[count++] = valid[Math.min(min, max)];
+            if (min != max) {
+                kept[count++] = valid[Math.max(min, max)];
+            }
+        }
+        return select(data, kept, count);
+    }
+
+    /**
+     * Indices of the samples whose price (or volume) is not NaN
+     */
+    private static int[] validIndices(HistoricalData data, boolean price) {
+        int[] valid = new int[data.size()];
+        int count = 0;
+        for (int i = 0; i < data.size(); i++) {
+            double v = price ? data.getPrice(i) : data.getVolume(i);
+            if (!Double.isNaN(v)) {
+                valid[count++] = i;
+            }
+        }
+        return count == valid.length ? valid : java.util.Arrays.copyOf(valid, count);
+    }
+
+    /**
+     * The samples at the first {@code count} ascending {@code indices}
+     */
+    private static HistoricalData select(HistoricalData data, int[] indices, int count) {
+        if (count == data.size()) {
+            return data;
+        }
+        HistoricalData.Builder builder = new HistoricalData.Builder(count);
+        for (int i = 0; i < count; i++) {
+            int index = indices[i];
+            builder.add(data.getTime(index), data.getPrice(index), data.getVolume(index));
+        }
+        return builder.build();
+    }
+}
@@ -1,14 +1,254 @@
 package com.mycompany.app.models;
 
-import java.util.Collections;
+import java.time.Instant;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.RandomAccess;
 
+/**
+ * Time series of price and volume samples stored column-wise.
+ *
+ * Timestamps are kept as epoch milliseconds in a {@code long[]} and prices and
+ * volumes in {@code double[]} columns, so a series costs three arrays instead of
+ * one object (plus an {@code Instant} and two boxed doubles) per point. Missing
+ * values are stored as {@code Double.NaN}.
+ *
+ * Instances are immutable. {@link #getPoints()} offers a read-only
+ * {@code ChartPoint} view for callers that still work with point objects; the
+ * points are created on access and are not retained.
+ */
 public class HistoricalData {
-    private final List<ChartPoint> points;
+    private static final long[] NO_TIMES = new long[0];
+    private static final double[] NO_VALUES = new double[0];
 
+    private final long[] times;
+    private final double[] prices;
+    private final double[] volumes;
+    private final List<ChartPoint> pointsView = new PointsView();
+
+    /**
+     * Build a series from point objects. Null prices or volumes become NaN.
+     */
     public HistoricalData(List<ChartPoint> points) {
-        this.points = points == null ? Collections.emptyList() : Collections.unmodifiableList(points);
+        if (points == null || points.isEmpty()) {
+            this.times = NO_TIMES;
+            this.prices = NO_VALUES;
+            this.volumes = NO_VALUES;
+            return;
+        }
+        int n = points.size();
+        this.times = new long[n];
+        this.prices = new double[n];
+        this.volumes = new double[n];
+        for (int i = 0; i < n; i++) {
+            ChartPoint p = points.get(i);
+            times[i] = p.getEpochMilli();
+            prices[i] = p.getPrice() != null ? p.getPrice() : Double.NaN;
+            volumes[i] = p.getVolume() != null ? p.getVolume() : Double.NaN;
+        }
+    }
+
+    /**
+     * Wrap already populated columns. The arrays are used as-is (not copied), so
+     * callers must not modify them afterwards.
+     *
+     * @throws IllegalArgumentException if the arrays are null or differ in length
+     */
+    public HistoricalData(long[] times, double[] prices, double[] volumes) {
+        if (times == null || prices == null || volumes == null) {
+            throw new IllegalArgumentException("columns cannot be null");
+        }
+        if (times.length != prices.length || times.length != volumes.length) {
+            throw new IllegalArgumentException("columns must have the same length");
+        }
+        this.times = times;
+        this.prices = prices;
+        this.volumes = volumes;
+    }
+
+    /**
+     * Number of samples in the series
+     */
+    public int size() { return times.length; }
+
+    public boolean isEmpty() { return times.length == 0; }
+
+    /**
+     * Timestamp of the sample at {@code index} in epoch milliseconds
+     */
+    public long getTime(int index) { return times[index]; }
+
+    /**
+     * Price of the sample at {@code index}, or NaN when missing
+     */
+    public double getPrice(int index) { return prices[index]; }
+
+    /**
+     * Volume of the sample at {@code index}, or NaN when missing
+     */
+    public double getVolume(int index) { return volumes[index]; }
+
+    /**
+     * Copy of the timestamp column (epoch milliseconds)
+     */
+    public long[] getTimes() { return Arrays.copyOf(times, times.length); }
+
+    /**
+     * Copy of the price column
+     */
+    public double[] getPrices() { return Arrays.copyOf(prices, prices.length); }
+
+    /**
+     * Copy of the volume column
+     */
+    public double[] getVolumes() { return Arrays.copyOf(volumes, volumes.length); }
+
+    /**
+     * Splice newer samples onto the end of this series and drop the head that
+     * has slid out of the window.
+     *
+     * Samples of {@code tail} at or before this series' last timestamp are
+     * ignored, and consecutive tail samples closer than {@code minStepMillis}
+     * are thinned out, so a finer-grained tail does not change the series'
+     * resolution. Samples before {@code windowStartMillis} are dropped.
+     *
+     * @return a new series; this series is not modified
+     */
+    public HistoricalData appendTail(HistoricalData tail, long minStepMillis, long windowStartMillis) {
+        int first = 0;
+        while (first < times.length && times[first] < windowStartMillis) {
+            first++;
+        }
+        int tailSize = tail != null ? tail.size() : 0;
+        Builder builder = new Builder(times.length - first + tailSize);
+        for (int i = first; i < times.length; i++) {
+            builder.add(times[i], prices[i], volumes[i]);
+        }
+
+        long lastTime = times.length > 0 ? times[times.length - 1] : Long.MIN_VALUE;
+        for (int i = 0; i < tailSize; i++) {
+            long t = tail.times[i];
+            if (t < windowStartMillis || t <= lastTime
+                    || (lastTime != Long.MIN_VALUE && t - lastTime < minStepMillis)) {
+                continue;
+            }
+            builder.add(t, tail.prices[i], tail.volumes[i]);
+            lastTime = t;
+        }
+        return builder.build();
     }
 
-    public List<ChartPoint> getPoints() { return points; }
-}
\ No newline at end of file
+    /**
+     * Index of the first sample at or after {@code timeMillis}, or
+     * {@link #size()} when every sample is earlier. Timestamps are ascending,
+     * so this is a binary search.
+     */
+    public int indexAtOrAfter(long timeMillis) {
+        int low = 0;
+        int high = times.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (times[mid] < timeMillis) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Samples with timestamps in [{@code fromMillis}, {@code toMillis}),
+     * located by binary search.
+     *
+     * @return a new series (this one when the range covers every sample)
+     */
+    public HistoricalData slice(long fromMillis, long toMillis) {
+        int from = indexAtOrAfter(fromMillis);
+        int to = toMillis == Long.MAX_VALUE ? times.length : indexAtOrAfter(toMillis);
+        if (from == 0 && to == times.length) {
+            return this;
+        }
+        if (from >= to) {
+            return new HistoricalData(NO_TIMES, NO_VALUES, NO_VALUES);
+        }
+        return new HistoricalData(Arrays.copyOfRange(times, from, to),
+                Arrays.copyOfRange(prices, from, to), Arrays.copyOfRange(volumes, from, to));
+    }
+
+    /**
+     * Read-only point view of the series, kept for callers written against the
+     * original {@code List<ChartPoint>} representation.
+     */
+    public List<ChartPoint> getPoints() { return pointsView; }
+
+    private class PointsView extends AbstractList<ChartPoint> implements RandomAccess {
+        @Override
+        public ChartPoint get(int index) {
+            double price = prices[index];
+            double volume = volumes[index];
+            return new ChartPoint(Instant.ofEpochMilli(times[index]),
+                    Double.isNaN(price) ? null : price,
+                    Double.isNaN(volume) ? null : volume);
+        }
+
+        @Override
+        public int size() {
+            return times.length;
+        }
+    }
+
+    /**
+     * Incrementally collects samples into growable primitive columns. Used by
+     * parsers that do not know the final series length up front.
+     */
+    public static class Builder {
+        private long[] times;
+        private double[] prices;
+        private double[] volumes;
+        private int size;
+
+        public Builder() {
+            this(64);
+        }
+
+        public Builder(int expectedSize) {
+            int capacity = Math.max(1, expectedSize);
+            times = new long[capacity];
+            prices = new double[capacity];
+            volumes = new double[capacity];
+        }
+
+        /**
+         * Append one sample. Use NaN for a missing price or volume.
+         */
+        public Builder add(long time, double price, double volume) {
+            if (size == times.length) {
+                int capacity = times.length * 2;
+                times = Arrays.copyOf(times, capacity);
+                prices = Arrays.copyOf(prices, capacity);
+                volumes = Arrays.copyOf(volumes, capacity);
+            }
+            times[size] = time;
+            prices[size] = price;
+            volumes[size] = volume;
+            size++;
+            return this;
+        }
+
+        public int size() { return size; }
+
+        public HistoricalData build() {
+            if (size == 0) {
+                return new HistoricalData(null);
+            }
+            if (size == times.length) {
+                return new HistoricalData(times, prices, volumes);
+            }
+            return new HistoricalData(Arrays.copyOf(times, size),
+                    Arrays.copyOf(prices, size),
+                    Arrays.copyOf(volumes, size));
+        }
+    }
+}
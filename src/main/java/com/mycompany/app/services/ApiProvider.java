@@ -0,0 +1,130 @@
+package com.mycompany.app.services;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Properties;
+
+/**
+ * Endpoint settings of one API provider: base URL, how the API key is sent
+ * and how long a request may take.
+ *
+ * - CoinGecko: `coingecko.api.url`, with `coingecko.api.key` sent in the
+ *   header named by `coingecko.api.keyHeader` (default
+ *   `x-cg-demo-api-key`), timeout `http.coingecko.timeoutMs` (default 30000).
+ * - SerpAPI: `serp.api.url`, with the key sent as the `api_key` query
+ *   parameter, timeout `http.serpapi.timeoutMs` (default 20000).
+ *
+ * The key is left out when it is blank. Every request accepts gzip and
+ * deflate bodies, which {@link ResponseBodies} inflates. Immutable.
+ */
+final class ApiProvider {
+    private static final String DEFAULT_COINGECKO_URL = "https://api.coingecko.com/api/v3";
+    private static final String DEFAULT_SERPAPI_URL = "https://serpapi.com/search";
+    private static final int DEFAULT_COINGECKO_TIMEOUT_MS = 30_000;
+    private static final int DEFAULT_SERPAPI_TIMEOUT_MS = 20_000;
+
+    private final String name;
+    private final String baseUrl;
+    private final String apiKey;
+    // Header carrying the key, or null when it goes in the query
+    private final String keyHeader;
+    // Query parameter carrying the key, or null when it goes in a header
+    private final String keyParam;
+    private final Duration timeout;
+
+    ApiProvider(String name, String baseUrl, String apiKey, String keyHeader, String keyParam, Duration timeout) {
+        this.name = name;
+        this.baseUrl = baseUrl;
+        this.apiKey = apiKey != null ? apiKey.trim() : "";
+        this.keyHeader = keyHeader;
+        this.keyParam = keyParam;
+        this.timeout = timeout;
+    }
+
+    static ApiProvider coinGecko(Properties props) {
+        return new ApiProvider(RateLimiter.COINGECKO,
+                setting(props, "coingecko.api.url", DEFAULT_COINGECKO_URL),
+                props.getProperty("coingecko.api.key", ""),
+                setting(props, "coingecko.api.keyHeader", "x-cg-demo-api-key"),
+                null,
+                timeout(props, "http.coingecko.timeoutMs", DEFAULT_COINGECKO_TIMEOUT_MS));
+    }
+
+    /**
+     * @param apiKey key to send, which callers may take from somewhere other than {@code props}
+     */
+    static ApiProvider serpApi(Properties props, String apiKey) {
+        return new ApiProvider(RateLimiter.SERPAPI,
+                setting(props, "serp.api.url", DEFAULT_SERPAPI_URL),
+                apiKey,
+                null,
+                "api_key",
+                timeout(props, "http.serpapi.timeoutMs", DEFAULT_SERPAPI_TIMEOUT_MS));
+    }
+
+    /**
+     * Provider name, as used for its rate limiter and retry policy
+     */
+    String name() {
+        return name;
+    }
+
+    Duration timeout() {
+        return timeout;
+    }
+
+    /**
+     * GET request for {@code path} below the base URL with the given query
+     * parameters, passed as name/value pairs. Values are URL-encoded.
+     */
+    HttpRequest get(String path, Object... params) {
+        if (params.length % 2 != 0) {
+            throw new IllegalArgumentException("query parameters must be name/value pairs");
+        }
+        StringBuilder url = new StringBuilder(baseUrl.length() + path.length() + 16 * params.length)
+                .append(baseUrl).append(path);
+        char separator = '?';
+        for (int i = 0; i < params.length; i += 2) {
+            appendParam(url, separator, String.valueOf(params[i]), String.valueOf(params[i + 1]));
+            separator = '&';
+        }
+        boolean sendKey = !apiKey.isEmpty();
+        if (sendKey && keyParam != null) {
+            appendParam(url, separator, keyParam, apiKey);
+        }
+
+        HttpRequest.Builder request = HttpRequest.newBuilder()
+                .uri(URI.create(url.toString()))
+                .timeout(timeout)
+                .header("Accept-Encoding", ResponseBodies.ACCEPT_ENCODING)
+                .GET();
+        if (sendKey && keyHeader != null) {
+            request.header(keyHeader, apiKey);
+        }
+        return request.build();
+    }
+
+    private static void appendParam(StringBuilder url, char separator, String name, String value) {
+        url.append(separator).append(name).append('=').append(URLEncoder.encode(value, StandardCharsets.UTF_8));
+    }
+
+    private static String setting(Properties props, String key, String defaultValue) {
+        String value = props.getProperty(key);
+        return value == null || value.isBlank() ? defaultValue : value.trim();
+    }
+
+    private static Duration timeout(Properties props, String key, int defaultMillis) {
+        String value = props.getProperty(key, "").trim();
+        if (!value.isEmpty()) {
+            try {
+                return Duration.ofMillis(Math.max(1, Integer.parseInt(value)));
+            } catch (NumberFormatException e) {
+                System.err.println("Ignoring invalid " + key + ": " + value);
+            }
+        }
+        return Duration.ofMillis(defaultMillis);
+    }
+}
@@ -3,22 +3,114 @@ package com.mycompany.app.services;
 import com.mycompany.app.models.Crypto;
 import com.mycompany.app.models.HistoricalData;
 
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+import java.util.function.LongSupplier;
 
 /**
  * Cache for cryptocurrency data to avoid excessive API calls
  * Stores top cryptos list and historical data for each crypto and time interval
- * Thread-safe implementation using volatile and synchronized blocks for topCryptos,
- * and ConcurrentHashMap for historical data.
+ * Thread-safe implementation using volatile and synchronized blocks for topCryptos
+ * and for the historical data index.
+ * Historical series are held as columnar {@link HistoricalData} (primitive
+ * timestamp/price/volume arrays), so a cached series costs a few arrays
+ * rather than one object per point.
+ *
+ * Historical entries are bounded two ways:
+ * - Each entry remembers when it was written and goes stale after a
+ *   per-interval time-to-live (1-day data much sooner than 1-year data).
+ *   Stale entries are reported as misses but stay available through
+ *   {@link #peekHistoricalData} until evicted.
+ * - The estimated size of all entries is kept under a byte budget by evicting
+ *   the least recently used entries first.
+ *
+ * An optional {@link HistoricalDataStore} acts as a persistence tier: series
+ * are written through to disk and memory misses are served from disk, so a
+ * restarted app does not have to download history again. Evicted entries
+ * remain on disk. A series extended by {@link #appendHistoricalData} only
+ * has its new tail appended to disk rather than being rewritten.
+ *
+ * Intervals that CoinGecko serves at the same resolution as a longer one are
+ * derived rather than stored: a request for 7, 30 or any other number of
+ * days up to 90 is answered by slicing the cached 90-day (hourly) series, and
+ * 91 to 365 days by slicing the 365-day (daily) series (see
+ * {@link #sourceInterval}). The slice is located by binary search on the
+ * timestamps and ends at the source's last sample; it is as fresh as its
+ * source. A series stored under the requested interval itself is only used
+ * when the source is not cached.
  */
 public class CryptoCache {
+    // Default memory budget for historical series (estimated bytes)
+    public static final long DEFAULT_MAX_BYTES = 32L * 1024 * 1024;
+    // TTL used for intervals without an explicit entry in the TTL table
+    private static final Duration DEFAULT_TTL = Duration.ofHours(1);
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+    // Longest window CoinGecko returns at hourly resolution
+    private static final int HOURLY_DAYS = 90;
+    // Longest daily window fetched by the app
+    private static final int DAILY_DAYS = 365;
+
     private volatile List<Crypto> topCryptos;
-    private final Map<String, Map<String, HistoricalData>> historicalDataCache;
     private final Object lock = new Object();
 
+    // Access-ordered, so iteration starts at the least recently used entry.
+    // Guarded by historyLock.
+    private final LinkedHashMap<SeriesKey, Entry> historicalDataCache = new LinkedHashMap<>(64, 0.75f, true);
+    private final Object historyLock = new Object();
+    private final Map<String, Long> ttlMillis = new ConcurrentHashMap<>();
+    private final long maxBytes;
+    private final LongSupplier clock;
+    // Persistence tier; null when the cache is memory-only
+    private final HistoricalDataStore store;
+    // Called with (cryptoId, days) after a series is stored
+    private final List<BiConsumer<String, String>> updateListeners = new CopyOnWriteArrayList<>();
+
+    // Guarded by historyLock
+    private long totalBytes;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * Memory-only cache with the default memory budget
+     */
     public CryptoCache() {
-        this.historicalDataCache = new ConcurrentHashMap<>();
+        this(null);
+    }
+
+    /**
+     * Cache backed by an on-disk store (may be null for memory-only)
+     */
+    public CryptoCache(HistoricalDataStore store) {
+        this(store, DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * Cache backed by an optional store, holding at most {@code maxBytes}
+     * (estimated) of historical series in memory
+     */
+    public CryptoCache(HistoricalDataStore store, long maxBytes) {
+        this(store, maxBytes, System::currentTimeMillis);
+    }
+
+    /**
+     * Full constructor; the clock is injectable for tests.
+     */
+    CryptoCache(HistoricalDataStore store, long maxBytes, LongSupplier clock) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes must be positive");
+        }
+        this.store = store;
+        this.maxBytes = maxBytes;
+        this.clock = clock;
+        ttlMillis.put("1", Duration.ofMinutes(5).toMillis());
+        ttlMillis.put("7", Duration.ofMinutes(30).toMillis());
+        ttlMillis.put("30", Duration.ofHours(2).toMillis());
+        ttlMillis.put("90", Duration.ofHours(6).toMillis());
+        ttlMillis.put("365", Duration.ofHours(24).toMillis());
     }
 
     /**
@@ -49,60 +141,358 @@ public class CryptoCache {
     }
 
     /**
-     * Store historical data for a specific crypto and time interval
+     * Set how long historical data for an interval stays fresh
+     *
+     * @param days interval key, e.g. "1" or "365"
+     * @param ttl  time-to-live measured from when the entry was written
+     */
+    public void setTimeToLive(String days, Duration ttl) {
+        if (days == null || ttl == null || ttl.isNegative()) {
+            throw new IllegalArgumentException("days and a non-negative ttl are required");
+        }
+        ttlMillis.put(days, ttl.toMillis());
+    }
+
+    /**
+     * Time-to-live applied to historical data for an interval
+     */
+    public Duration getTimeToLive(String days) {
+        Long ttl = days != null ? ttlMillis.get(days) : null;
+        return ttl != null ? Duration.ofMillis(ttl) : DEFAULT_TTL;
+    }
+
+    /**
+     * Store historical data for a specific crypto and time interval.
+     * The series is also written through to the disk store, if any.
      */
     public void putHistoricalData(String cryptoId, String days, HistoricalData data) {
         if (cryptoId == null || days == null || data == null) {
             return;
         }
-        historicalDataCache.computeIfAbsent(cryptoId, k -> new ConcurrentHashMap<>())
-                           .put(days, data);
+        synchronized (historyLock) {
+            insert(new SeriesKey(cryptoId, days), new Entry(data, clock.getAsLong()));
+        }
+        if (store != null) {
+            store.write(cryptoId, days, data);
+        }
+        notifyListeners(cryptoId, days);
     }
 
     /**
-     * Get cached historical data for a specific crypto and time interval
+     * Store a series that extends the cached one: {@code data} (the whole
+     * updated series) replaces the entry in memory, while only {@code tail},
+     * the samples after the previous last timestamp, is appended to the disk
+     * store. {@code tail} may be empty, in which case only the entry's age is
+     * reset.
+     */
+    public void appendHistoricalData(String cryptoId, String days, HistoricalData data, HistoricalData tail) {
+        if (cryptoId == null || days == null || data == null) {
+            return;
+        }
+        synchronized (historyLock) {
+            insert(new SeriesKey(cryptoId, days), new Entry(data, clock.getAsLong()));
+        }
+        if (store != null && tail != null) {
+            store.append(cryptoId, days, tail);
+        }
+        notifyListeners(cryptoId, days);
+    }
+
+    private void notifyListeners(String cryptoId, String days) {
+        for (BiConsumer<String, String> listener : updateListeners) {
+            listener.accept(cryptoId, days);
+        }
+    }
+
+    /**
+     * Register a listener called with the coin and interval key after every
+     * {@link #putHistoricalData} and {@link #appendHistoricalData}, on the
+     * storing thread. Intervals derived from
+     * the stored one (see {@link #sourceInterval}) have changed as well.
+     */
+    public void addUpdateListener(BiConsumer<String, String> listener) {
+        if (listener != null) {
+            updateListeners.add(listener);
+        }
+    }
+
+    /**
+     * Get fresh historical data for a specific crypto and time interval, or
+     * null if there is none or it has outlived its TTL.
+     * On a memory miss the disk store is consulted and a hit is kept in memory.
      */
     public HistoricalData getHistoricalData(String cryptoId, String days) {
+        HistoricalData data = find(cryptoId, days, true);
+        synchronized (historyLock) {
+            if (data != null) {
+                hitCount++;
+            } else {
+                missCount++;
+            }
+        }
+        return data;
+    }
+
+    /**
+     * Check if fresh historical data is cached for a specific crypto and time
+     * interval, either in memory or in the disk store. Does not count as a hit
+     * or miss.
+     */
+    public boolean hasHistoricalData(String cryptoId, String days) {
+        return find(cryptoId, days, true) != null;
+    }
+
+    /**
+     * Get cached historical data regardless of its age, or null if there is
+     * none. Used to refresh a stale series incrementally.
+     */
+    public HistoricalData peekHistoricalData(String cryptoId, String days) {
+        return find(cryptoId, days, false);
+    }
+
+    /**
+     * The interval whose series contains a {@code days} window at the same
+     * resolution. CoinGecko returns 5-minute samples for 1 day, hourly samples
+     * for 2 to 90 days and daily samples beyond, so a window of 2 to 90 days
+     * is a slice of the "90" series and one of 91 to 365 days a slice of the
+     * "365" series. Other values (1 day, longer ranges, "max") are their own
+     * source.
+     */
+    public static String sourceInterval(String days) {
+        int n;
+        try {
+            n = Integer.parseInt(days.trim());
+        } catch (NumberFormatException e) {
+            return days;
+        }
+        if (n >= 2 && n <= HOURLY_DAYS) {
+            return String.valueOf(HOURLY_DAYS);
+        }
+        if (n > HOURLY_DAYS && n <= DAILY_DAYS) {
+            return String.valueOf(DAILY_DAYS);
+        }
+        return days;
+    }
+
+    /**
+     * The last {@code days} days of {@code source}, ending at its last sample.
+     * Returns {@code source} itself when {@code days} is not a number.
+     */
+    public static HistoricalData window(HistoricalData source, String days) {
+        if (source == null || source.isEmpty()) {
+            return source;
+        }
+        long n;
+        try {
+            n = Long.parseLong(days.trim());
+        } catch (NumberFormatException e) {
+            return source;
+        }
+        long end = source.getTime(source.size() - 1);
+        return source.slice(end - n * DAY_MILLIS, Long.MAX_VALUE);
+    }
+
+    /**
+     * Data answering a request for {@code days}: a window of the source
+     * interval's series when {@code days} is derived from one and it is
+     * cached, otherwise the series stored under {@code days}
+     */
+    private HistoricalData find(String cryptoId, String days, boolean freshOnly) {
         if (cryptoId == null || days == null) {
             return null;
         }
-        Map<String, HistoricalData> cryptoData = historicalDataCache.get(cryptoId);
-        if (cryptoData == null) {
-            return null;
+        String source = sourceInterval(days);
+        if (!source.equals(days)) {
+            Entry entry = lookup(cryptoId, source);
+            if (entry != null && (!freshOnly || isFresh(entry, source))) {
+                return window(entry.data, days);
+            }
         }
-        return cryptoData.get(days);
+        Entry entry = lookup(cryptoId, days);
+        return entry != null && (!freshOnly || isFresh(entry, days)) ? entry.data : null;
     }
 
     /**
-     * Check if historical data is cached for a specific crypto and time interval
+     * Find an entry in memory, falling back to the disk store
      */
-    public boolean hasHistoricalData(String cryptoId, String days) {
+    private Entry lookup(String cryptoId, String days) {
         if (cryptoId == null || days == null) {
-            return false;
+            return null;
+        }
+        SeriesKey key = new SeriesKey(cryptoId, days);
+        synchronized (historyLock) {
+            Entry entry = historicalDataCache.get(key);
+            if (entry != null || store == null) {
+                return entry;
+            }
+        }
+        // Read outside the lock so a slow disk does not stall other lookups
+        HistoricalDataStore.StoredSeries stored = store.read(cryptoId, days);
+        if (stored == null) {
+            return null;
+        }
+        synchronized (historyLock) {
+            Entry current = historicalDataCache.get(key);
+            if (current != null) {
+                return current;
+            }
+            // Keep in memory without writing it back to disk; the entry keeps
+            // the age it had on disk. Appended segments may reach back past
+            // the window until the store compacts them.
+            Entry entry = new Entry(window(stored.getData(), days), stored.getWrittenAt());
+            insert(key, entry);
+            return entry;
         }
-        Map<String, HistoricalData> cryptoData = historicalDataCache.get(cryptoId);
-        return cryptoData != null && cryptoData.containsKey(days);
+    }
+
+    private boolean isFresh(Entry entry, String days) {
+        return clock.getAsLong() - entry.writtenAt < getTimeToLive(days).toMillis();
     }
 
     /**
-     * Clear all cached data
+     * Add or replace an entry and evict least recently used entries until the
+     * cache fits its budget. The newest entry is never evicted, even if it is
+     * larger than the budget on its own. Caller holds historyLock.
+     */
+    private void insert(SeriesKey key, Entry entry) {
+        Entry previous = historicalDataCache.put(key, entry);
+        if (previous != null) {
+            totalBytes -= previous.bytes;
+        }
+        totalBytes += entry.bytes;
+
+        Iterator<Map.Entry<SeriesKey, Entry>> it = historicalDataCache.entrySet().iterator();
+        while (totalBytes > maxBytes && it.hasNext()) {
+            Map.Entry<SeriesKey, Entry> eldest = it.next();
+            if (eldest.getKey().equals(key)) {
+                break;
+            }
+            totalBytes -= eldest.getValue().bytes;
+            it.remove();
+            evictionCount++;
+        }
+    }
+
+    /**
+     * Clear all cached data, including the disk store
      */
     public void clear() {
         synchronized (lock) {
             topCryptos = null;
         }
-        // ConcurrentHashMap handles its own synchronization
-        historicalDataCache.clear();
+        synchronized (historyLock) {
+            historicalDataCache.clear();
+            totalBytes = 0;
+        }
+        if (store != null) {
+            store.clear();
+        }
+    }
+
+    /**
+     * Flush pending disk writes and close the store, if any. The memory tier
+     * keeps working; later writes only stay in memory.
+     */
+    public void close() {
+        if (store != null) {
+            store.close();
+        }
     }
 
     /**
-     * Get the number of cached historical data entries
+     * Get the number of historical data entries held in memory
      * Useful for testing and monitoring
      */
     public int getHistoricalDataCount() {
-        return historicalDataCache.values().stream()
-                .mapToInt(Map::size)
-                .sum();
+        synchronized (historyLock) {
+            return historicalDataCache.size();
+        }
+    }
+
+    /**
+     * Estimated bytes of historical data held in memory
+     */
+    public long getHistoricalDataBytes() {
+        synchronized (historyLock) {
+            return totalBytes;
+        }
     }
-}
 
+    /**
+     * Memory budget for historical data, in estimated bytes
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Number of {@link #getHistoricalData} calls that returned fresh data
+     */
+    public long getHitCount() {
+        synchronized (historyLock) {
+            return hitCount;
+        }
+    }
+
+    /**
+     * Number of {@link #getHistoricalData} calls that found no data or only
+     * stale data
+     */
+    public long getMissCount() {
+        synchronized (historyLock) {
+            return missCount;
+        }
+    }
+
+    /**
+     * Number of entries dropped from memory to stay within the byte budget
+     */
+    public long getEvictionCount() {
+        synchronized (historyLock) {
+            return evictionCount;
+        }
+    }
+
+    /**
+     * Rough heap footprint of a series: three primitive columns (8 bytes per
+     * value) plus array and object headers.
+     */
+    static long estimateBytes(HistoricalData data) {
+        return 3L * 16 + (long) data.size() * 24 + 64;
+    }
+
+    private static final class SeriesKey {
+        final String cryptoId;
+        final String days;
+
+        SeriesKey(String cryptoId, String days) {
+            this.cryptoId = cryptoId;
+            this.days = days;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof SeriesKey)) return false;
+            SeriesKey other = (SeriesKey) o;
+            return cryptoId.equals(other.cryptoId) && days.equals(other.days);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * cryptoId.hashCode() + days.hashCode();
+        }
+    }
+
+    private static final class Entry {
+        final HistoricalData data;
+        final long writtenAt;
+        final long bytes;
+
+        Entry(HistoricalData data, long writtenAt) {
+            this.data = data;
+            this.writtenAt = writtenAt;
+            this.bytes = estimateBytes(data);
+        }
+    }
+}
@@ -2,23 +2,24 @@ package com.mycompany.app.services;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.nio.charset.StandardCharsets;
 import java.text.DecimalFormat;
-import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.mycompany.app.models.ChartPoint;
+import com.mycompany.app.config.ApiConfig;
+import com.mycompany.app.config.AppExecutors;
 import com.mycompany.app.models.Crypto;
 import com.mycompany.app.models.HistoricalData;
 
@@ -27,48 +28,98 @@ import com.mycompany.app.models.HistoricalData;
  * and caching results for use by the UI. This class encapsulates both synchronous
  * and asynchronous operations:
  *
- * - Retrieving the top N cryptocurrencies by market cap (`getTopCryptos`).
+ * - Retrieving the top N cryptocurrencies by market cap (`getTopCryptos`),
+ *   N from `market.topN`, fetched as parallel pages of up to 250 coins.
  * - Fetching historical time series data for a single currency (`getHistoricalDataForCrypto`).
- * - Preloading historical data for the top cryptocurrencies in parallel
- *   (`preloadAllData`) with batched retries for resiliency.
+ * - The same lookups without blocking (`IAsyncCryptoService`); the blocking
+ *   methods wait on the asynchronous ones.
+ * - Preloading historical data for the first `preload.count` of them in
+ *   parallel (`preloadAllData`) with batched retries for resiliency. Fetches
+ *   are queued in a `FetchScheduler` so the coin and interval on screen
+ *   (`setFocus`) are loaded first and the rest fills in behind them. Other
+ *   coins are loaded when they are focused.
+ * - Refreshing cached series incrementally (`refreshAllData`) by fetching only
+ *   the samples after the last cached timestamp.
  *
  * Design notes and responsibilities:
  * - Uses a `CryptoCache` instance to avoid repeated network calls.
- * - Uses `HttpClient` for HTTP requests; the client can be injected for testing.
- * - Read-only properties are loaded from `application.properties` when present.
- * - Provides configurable retry delays (useful for tests) via `setRetryDelays`.
+ * - Sends through the shared `HttpTransport`, with retries scheduled on a
+ *   timer rather than sleeping; an `HttpClient` can be injected for testing.
+ * - Read-only properties come from `ApiConfig` unless passed in.
+ * - Retries follow the CoinGecko `RetryPolicy` (jittered backoff honouring
+ *   `Retry-After`); tests may replace it via `setRetryPolicy`.
  * - Not thread-safe for mutation of configuration, but read operations and
  *   parallel preload use careful synchronization and concurrent collections.
  */
-public class CryptoService implements ICryptoService {
-    // Default API endpoint; override via properties if necessary.
-    private static final String DEFAULT_API_URL = "https://api.coingecko.com/api/v3";
-    // How many top coins to fetch for the main list.
-    private static final int TOP_N = 5;
-    // Path inside resources for properties used by the service.
-    private static final String PROPERTIES_PATH = "/application.properties";
-
-    // Http client used for all outgoing requests. Injected to support testing.
-    private final HttpClient httpClient;
+public class CryptoService implements ICryptoService, IAsyncCryptoService {
+    // How many top coins to fetch for the main list unless `market.topN` is set.
+    private static final int DEFAULT_TOP_N = 250;
+    // Largest page `/coins/markets` serves.
+    private static final int MARKETS_PAGE_SIZE = 250;
+    // Coins whose history is preloaded unless `preload.count` is set.
+    private static final int DEFAULT_PRELOAD_COUNT = 10;
+    // Intervals shown by the UI and their `days` values. Only the ones that
+    // are their own `CryptoCache.sourceInterval` are fetched; the others are
+    // sliced from a cached longer series.
+    private static final String[] INTERVAL_NAMES = { "1D", "1W", "1M", "3M", "1Y" };
+    private static final String[] INTERVAL_DAYS = { "1", "7", "30", "90", "365" };
+    // Single-flight key for the top list.
+    private static final String TOP_CRYPTOS_KEY = "top";
+    // Preload/refresh fetches running at once unless `fetch.maxInFlight` is set.
+    private static final int DEFAULT_FETCH_CONCURRENCY = 4;
+    // Longest range CoinGecko serves at hourly resolution.
+    private static final long HOURLY_DAYS = 90;
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+    // Transport used for all outgoing requests; wraps an injected client in tests.
+    private final HttpTransport transport;
+    // CoinGecko base URL, key header and request timeout.
+    private final ApiProvider coinGecko;
     // Jackson mapper for JSON parsing.
     private final ObjectMapper mapper = new ObjectMapper();
-    // Loaded properties from resources (may be empty if not present).
+    // Streaming decoder for market_chart responses.
+    private final MarketChartParser marketChartParser = new MarketChartParser(mapper);
+    // Configuration (may be empty).
     private final Properties props;
     // Local cache to store top list and historical data to limit API calls.
     private final CryptoCache cache;
-
-    // Configurable retry delays (milliseconds). Default values are conservative to
-    // cope with rate-limiting; tests may override these via `setRetryDelays`.
-    private int[] retryDelays = { 10000, 20000, 30000, 30000 };
-    // Delay used between batches when retrying failed requests during preload.
-    private int delayBetweenCalls = 5000;
+    // In-flight fetches keyed by (id, days) and for the top list, so concurrent
+    // cache misses on the same key send one request.
+    private final SingleFlight<List<String>, HistoricalData> historicalFlight = new SingleFlight<>();
+    private final SingleFlight<String, List<Crypto>> topCryptosFlight = new SingleFlight<>();
+    // CoinGecko limiter shared with every other CoinGecko caller in the process.
+    private RateLimiter rateLimiter = RateLimiter.forProvider(RateLimiter.COINGECKO);
+    // Pools used by the fetch pipeline: bodies are decoded on the io pool and
+    // retries are scheduled on the timer.
+    private AppExecutors executors = AppExecutors.shared();
+    // Non-blocking send/decode/retry pipeline; rebuilt when the limiter or
+    // executors are replaced.
+    private HttpFetcher fetcher;
+
+    // Orders preload/refresh fetches by the user's current selection.
+    private final FetchScheduler fetchScheduler;
+    // Size of the top list and how many of its coins are preloaded.
+    private final int topN;
+    private final int preloadCount;
+    // Coins covered by the running or last preload; others load on focus.
+    private volatile Set<String> preloadIds = Set.of();
+    // (id, days) series being loaded because their coin was focused.
+    private final Set<List<String>> onDemandLoads = ConcurrentHashMap.newKeySet();
+
+    // Backoff, attempt budget and deadline for every CoinGecko call made by
+    // this service; tests may override it via `setRetryPolicy`.
+    private RetryPolicy retryPolicy = RetryPolicy.forProvider(RateLimiter.COINGECKO);
 
     /**
-     * Default constructor used by the application. Creates a new HttpClient and
-     * a new in-memory `CryptoCache`, and attempts to load properties.
+     * Default constructor used by the application. Sends through the shared
+     * `HttpTransport` and uses a `CryptoCache` backed by the on-disk history
+     * store (unless disabled via `cache.store.enabled`).
      */
     public CryptoService() {
-        this(HttpClient.newHttpClient(), new CryptoCache(), loadDefaultProperties());
+        this(ApiConfig.getProperties());
+    }
+
+    private CryptoService(Properties props) {
+        this(HttpTransport.shared(), createCache(props), props);
     }
 
     /**
@@ -76,7 +127,7 @@ public class CryptoService implements ICryptoService {
      * This is useful in tests to pre-populate the cache or verify cache behavior.
      */
     public CryptoService(CryptoCache cache) {
-        this(HttpClient.newHttpClient(), cache, loadDefaultProperties());
+        this(HttpTransport.shared(), cache, ApiConfig.getProperties());
     }
 
     /**
@@ -84,7 +135,7 @@ public class CryptoService implements ICryptoService {
      * to provide a mock HTTP client.
      */
     public CryptoService(HttpClient httpClient, CryptoCache cache) {
-        this(httpClient, cache, loadDefaultProperties());
+        this(httpClient, cache, ApiConfig.getProperties());
     }
     
     /**
@@ -95,51 +146,86 @@ public class CryptoService implements ICryptoService {
      * @param props      Optional properties to configure endpoints and API keys.
      */
     public CryptoService(HttpClient httpClient, CryptoCache cache, Properties props) {
-        if (httpClient == null) {
-            throw new IllegalArgumentException("httpClient cannot be null");
-        }
+        this(new HttpTransport(httpClient), cache, props);
+    }
+
+    private CryptoService(HttpTransport transport, CryptoCache cache, Properties props) {
         if (cache == null) {
             throw new IllegalArgumentException("cache cannot be null");
         }
-        this.httpClient = httpClient;
+        this.transport = transport;
         this.cache = cache;
-        this.props = props != null ? props : loadDefaultProperties();
+        this.props = props != null ? props : ApiConfig.getProperties();
+        this.coinGecko = ApiProvider.coinGecko(this.props);
+        this.fetcher = new HttpFetcher(transport, coinGecko, rateLimiter, executors);
+        this.fetchScheduler = new FetchScheduler(
+                positiveInt(this.props, "fetch.maxInFlight", DEFAULT_FETCH_CONCURRENCY));
+        this.topN = positiveInt(this.props, "market.topN", DEFAULT_TOP_N);
+        this.preloadCount = positiveInt(this.props, "preload.count", DEFAULT_PRELOAD_COUNT);
     }
     
     /**
-     * Replace the retry delays used by the service. Intended for tests only.
-     *
-     * @param delays non-empty array of millisecond delays used between retries
+     * Replace the retry policy used by the service. Intended for tests only.
      */
-    void setRetryDelays(int[] delays) {
-        if (delays != null && delays.length > 0) {
-            this.retryDelays = delays;
+    void setRetryPolicy(RetryPolicy retryPolicy) {
+        if (retryPolicy != null) {
+            this.retryPolicy = retryPolicy;
         }
     }
     
     /**
-     * Configure the delay placed between batched retry calls (milliseconds).
-     * Minimum value is 0.
+     * Replace the rate limiter. Intended for tests only.
      */
-    void setDelayBetweenCalls(int delay) {
-        this.delayBetweenCalls = Math.max(0, delay);
+    void setRateLimiter(RateLimiter rateLimiter) {
+        if (rateLimiter != null) {
+            this.rateLimiter = rateLimiter;
+            this.fetcher = new HttpFetcher(transport, coinGecko, rateLimiter, executors);
+        }
     }
-    
+
+    /**
+     * Replace the executors used by the fetch pipeline. Intended for tests only.
+     */
+    void setExecutors(AppExecutors executors) {
+        if (executors != null) {
+            this.executors = executors;
+            this.fetcher = new HttpFetcher(transport, coinGecko, rateLimiter, executors);
+        }
+    }
+
     /**
-     * Load properties from `/application.properties` on the classpath. If the
-     * file cannot be found or read, an empty Properties instance is returned.
+     * Build the application cache: disk-backed unless disabled, with the
+     * memory budget taken from `cache.memory.maxBytes` when set.
      */
-    private static Properties loadDefaultProperties() {
-        Properties p = new Properties();
-        try (InputStream is = CryptoService.class.getResourceAsStream(PROPERTIES_PATH)) {
-            if (is != null) {
-                p.load(is);
+    private static CryptoCache createCache(Properties props) {
+        long maxBytes = CryptoCache.DEFAULT_MAX_BYTES;
+        String configured = props.getProperty("cache.memory.maxBytes", "").trim();
+        if (!configured.isEmpty()) {
+            try {
+                maxBytes = Math.max(1L, Long.parseLong(configured));
+            } catch (NumberFormatException e) {
+                System.err.println("Ignoring invalid cache.memory.maxBytes: " + configured);
+            }
+        }
+        return new CryptoCache(HistoricalDataStore.fromProperties(props), maxBytes);
+    }
+
+    /**
+     * A positive integer property such as `fetch.maxInFlight` (how many
+     * preload/refresh fetches may run at once; the rest wait in the fetch
+     * scheduler, where they can still be reordered), or {@code defaultValue}
+     * when it is absent or invalid.
+     */
+    private static int positiveInt(Properties props, String key, int defaultValue) {
+        String configured = props.getProperty(key, "").trim();
+        if (!configured.isEmpty()) {
+            try {
+                return Math.max(1, Integer.parseInt(configured));
+            } catch (NumberFormatException e) {
+                System.err.println("Ignoring invalid " + key + ": " + configured);
             }
-        } catch (IOException e) {
-            // Don't fail hard if properties are absent; log for debugging.
-            System.err.println("Failed to load properties: " + e.getMessage());
         }
-        return p;
+        return defaultValue;
     }
 
     /**
@@ -147,125 +233,110 @@ public class CryptoService implements ICryptoService {
      * the local cache and returns cached data if present. If not cached, it will
      * fetch the list from CoinGecko and populate the cache.
      *
-     * This method uses a simple synchronized block to ensure only one thread
-     * performs the initial network fetch and cache population.
+     * Blocking form of {@link #getTopCryptosAsync()}.
      *
      * @return List of `Crypto` objects. May be empty if the API call fails.
      */
     @Override
     public List<Crypto> getTopCryptos() {
+        return getTopCryptosAsync().join();
+    }
+
+    /**
+     * Retrieve the top cryptocurrencies without blocking. Concurrent callers
+     * that miss the cache share one in-flight fetch, so only one request is
+     * sent and the cache is populated once.
+     */
+    @Override
+    public CompletableFuture<List<Crypto>> getTopCryptosAsync() {
         if (cache.hasTopCryptos()) {
             System.out.println("Returning top cryptos from cache");
-            return cache.getTopCryptos();
+            return CompletableFuture.completedFuture(cache.getTopCryptos());
         }
 
-        // Double-checked locking: only one thread should perform the network fetch
-        synchronized (this) {
+        // Concurrent misses share a single network fetch
+        return topCryptosFlight.executeAsync(TOP_CRYPTOS_KEY, () -> {
             if (cache.hasTopCryptos()) {
-                System.out.println("Returning top cryptos from cache (synced)");
-                return cache.getTopCryptos();
+                System.out.println("Returning top cryptos from cache (coalesced)");
+                return CompletableFuture.completedFuture(cache.getTopCryptos());
             }
 
             // Cache miss: perform a single network fetch and populate cache
             // so subsequent callers can retrieve data without extra API calls.
             System.out.println("Fetching top cryptos from API...");
-            List<Crypto> cryptos = fetchTopCryptosFromAPI();
-            System.out.println("Fetched " + (cryptos == null ? "null" : cryptos.size()) + " cryptos from API");
-
-            if (cryptos != null && !cryptos.isEmpty()) {
-                // Only store non-empty results
-                cache.setTopCryptos(cryptos);
-            }
-
-            return cryptos;
-        }
+            return fetchTopCryptosFromAPI().thenApply(cryptos -> {
+                System.out.println("Fetched " + cryptos.size() + " cryptos from API");
+                if (!cryptos.isEmpty()) {
+                    // Only store non-empty results
+                    cache.setTopCryptos(cryptos);
+                }
+                return cryptos;
+            });
+        }).thenApply(ArrayList::new); // Each caller gets its own list, as with a cache hit
     }
 
     /**
-     * Internal helper that performs the HTTP request to fetch the top coins and
-     * translates the JSON response into domain objects.
+     * Internal helper that performs the HTTP requests to fetch the top coins
+     * and translates the JSON responses into domain objects.
      *
-     * The method implements a retry loop: on transient errors (network issues or
-     * rate-limiting responses) it will wait and retry using configured delays.
-     * Non-2xx final responses produce an empty list.
+     * The list is requested as pages of up to {@value #MARKETS_PAGE_SIZE}
+     * coins, all sent at once (the rate limiter still spaces them). Pages are
+     * joined in order; a coin that moved across a page boundary between
+     * requests is kept once. Transient errors (network issues, rate-limiting
+     * or server errors) are retried under the retry policy. When a page
+     * still fails, the pages before it are returned, so the future completes
+     * with an empty list only if the first page fails.
      */
-    private List<Crypto> fetchTopCryptosFromAPI() {
-        String baseUrl = props.getProperty("coingecko.api.url", DEFAULT_API_URL);
-        int maxRetries = retryDelays.length + 1;
-
-        for (int attempt = 0; attempt < maxRetries; attempt++) {
-            try {
-                // Build CoinGecko markets endpoint URL with query parameters
-                // (currency, ordering, page size and additional options).
-                String url = String.format(
-                    "%s/coins/markets?vs_currency=usd&order=market_cap_desc&per_page=%d&page=1&sparkline=false&price_change_percentage=24h",
-                    baseUrl, TOP_N);
-
-                HttpRequest.Builder reqBuilder = HttpRequest.newBuilder()
-                        .uri(URI.create(url))
-                        .GET();
-
-                // Optional API key header — present only in some environments
-                String apiKey = props.getProperty("coingecko.api.key");
-                if (apiKey != null && !apiKey.isBlank()) {
-                    reqBuilder.header("x-cg-demo-api-key", apiKey);
-                }
-
-                // Build the HTTP request and execute it using the injected HttpClient.
-                // This call is blocking; higher-level methods manage retry/backoff.
-                HttpRequest request = reqBuilder.build();
-                HttpResponse<String> response = httpClient.send(request,
-                    HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
-
-                // Successful response: parse and return results
-                if (response.statusCode() >= 200 && response.statusCode() < 300) {
-                    return parseCoinsJson(response.body());
-                } else {
-                    // For non-success responses, either retry or return empty list
-                    if (attempt < maxRetries - 1) {
-                        int delay = retryDelays[attempt];
-                        String statusMsg = response.statusCode() == 429 ? "Rate limit exceeded"
-                                : "API returned status " + response.statusCode();
-                        System.out.println(statusMsg + " for top cryptos. Waiting " + (delay / 1000)
-                                + " seconds before retry " + (attempt + 2) + "/" + maxRetries);
-                        Thread.sleep(delay);
-                        continue;
-                    } else {
-                        System.err.println("CoinGecko API returned non-2xx: " + response.statusCode());
-                        return new ArrayList<>();
-                    }
+    private CompletableFuture<List<Crypto>> fetchTopCryptosFromAPI() {
+        int pages = (topN + MARKETS_PAGE_SIZE - 1) / MARKETS_PAGE_SIZE;
+        int perPage = Math.min(topN, MARKETS_PAGE_SIZE);
+        List<CompletableFuture<List<Crypto>>> requests = new ArrayList<>(pages);
+        for (int page = 1; page <= pages; page++) {
+            requests.add(fetchMarketsPage(page, perPage));
+        }
+        return CompletableFuture.allOf(requests.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+            Map<String, Crypto> byId = new LinkedHashMap<>();
+            for (int page = 0; page < pages; page++) {
+                List<Crypto> coins = requests.get(page).join();
+                if (coins == null) {
+                    System.err.println("Top list truncated: page " + (page + 1) + " of " + pages + " failed");
+                    break;
                 }
-            } catch (IOException | InterruptedException e) {
-                // On network errors, honor retry policy and handle interrupts
-                if (attempt < maxRetries - 1) {
-                    int delay = retryDelays[attempt];
-                    System.out.println("Network error for top cryptos (" + e.getMessage() + "). Waiting "
-                            + (delay / 1000) + " seconds before retry " + (attempt + 2) + "/" + maxRetries);
-                    try {
-                        Thread.sleep(delay);
-                    } catch (InterruptedException ie) {
-                        // Restore interrupt status and abort
-                        Thread.currentThread().interrupt();
-                        return new ArrayList<>();
-                    }
-                    continue;
-                } else {
-                    System.err.println("Failed to fetch CoinGecko data: " + e.getMessage());
-                    return new ArrayList<>();
+                for (Crypto coin : coins) {
+                    byId.putIfAbsent(coin.getId(), coin);
                 }
             }
-        }
-        return new ArrayList<>();
+            List<Crypto> list = new ArrayList<>(byId.values());
+            return list.size() > topN ? new ArrayList<>(list.subList(0, topN)) : list;
+        });
+    }
+
+    /**
+     * One page of `/coins/markets`, or null once the retry policy gives up
+     */
+    private CompletableFuture<List<Crypto>> fetchMarketsPage(int page, int perPage) {
+        // CoinGecko markets endpoint with query parameters (currency,
+        // ordering, page size and additional options).
+        HttpRequest request = coinGecko.get("/coins/markets", "vs_currency", "usd", "order", "market_cap_desc",
+                "per_page", perPage, "page", page, "sparkline", "false", "price_change_percentage", "24h");
+
+        return fetcher.fetch(request, RateLimiter.Priority.INTERACTIVE,
+                        this::parseCoinsJson, retryPolicy, "top cryptos page " + page)
+                .exceptionally(ex -> {
+                    System.err.println("Failed to fetch CoinGecko data: " + HttpFetcher.unwrap(ex).getMessage());
+                    return null;
+                });
     }
 
     /**
      * Parse JSON array returned by the `/coins/markets` endpoint into a list of
      * `Crypto` domain objects. Missing fields are handled gracefully by
-     * providing sensible defaults.
+     * providing sensible defaults. The body is read straight from the response
+     * stream. Package-private so the decode benchmarks can call it.
      */
-    private List<Crypto> parseCoinsJson(String json) throws IOException {
+    List<Crypto> parseCoinsJson(InputStream body) throws IOException {
         List<Crypto> list = new ArrayList<>();
-        JsonNode arr = mapper.readTree(json);
+        JsonNode arr = mapper.readTree(body);
         if (!arr.isArray()) {
             System.err.println("parseCoinsJson: Root node is not an array");
             return new ArrayList<>();
@@ -290,7 +361,6 @@ public class CryptoService implements ICryptoService {
 
             list.add(new Crypto(id, name, symbol, price, changePct, marketCap, volume, circulatingStr));
         }
-        System.out.println("Parsed " + list.size() + " coins from JSON");
         return list;
     }
 
@@ -302,108 +372,157 @@ public class CryptoService implements ICryptoService {
         return cache.hasHistoricalData(id, days);
     }
 
+    @Override
+    public boolean containsHistoricalData(String id, String days) {
+        return peekHistoricalData(id, days) != null;
+    }
+
+    @Override
+    public HistoricalData peekHistoricalData(String id, String days) {
+        if (id == null || id.isBlank() || days == null || days.isBlank()) {
+            return null;
+        }
+        return cache.peekHistoricalData(id, days);
+    }
+
+    /**
+     * Queued preload/refresh fetches for this coin move to the front, the
+     * given interval first, followed by the interval for other coins. The
+     * coin's 1-day series and the series for `days` are fetched now if they
+     * are cached but stale, or, for a coin outside the preload, not cached at
+     * all; either is reported through the data loaded callback like a
+     * preloaded series. Missing series of preloaded coins are left to the
+     * preload.
+     */
+    @Override
+    public void setFocus(String id, String days) {
+        // Fetch jobs exist only for source intervals
+        String source = days != null ? CryptoCache.sourceInterval(days) : null;
+        fetchScheduler.setFocus(id, source);
+        if (id != null && !id.isBlank()) {
+            boolean staleOnly = preloadIds.contains(id);
+            loadOnDemand(id, "1", staleOnly);
+            if (source != null) {
+                loadOnDemand(id, source, staleOnly);
+            }
+        }
+    }
+
+    @Override
+    public int getPreloadCount() {
+        return preloadCount;
+    }
+
+    /**
+     * Queue a fetch for a focused coin's series unless it is fresh in the
+     * cache or already on its way. With {@code staleOnly}, a series that is
+     * not cached at all is left alone. A stale series is only topped up with
+     * its missing tail.
+     */
+    private void loadOnDemand(String id, String days, boolean staleOnly) {
+        List<String> key = List.of(id, days);
+        if (cache.hasHistoricalData(id, days)
+                || (staleOnly && cache.peekHistoricalData(id, days) == null)
+                || !onDemandLoads.add(key)) {
+            return;
+        }
+        FetchTask task = new FetchTask(id, id, days, intervalName(days));
+        scheduleTask(task, false).whenComplete((data, ex) -> {
+            onDemandLoads.remove(key);
+            if (ex == null) {
+                recordSuccess(task, data, false, null);
+            } else {
+                System.err.println("✗ " + task.intervalName + " for " + id + ": "
+                        + HttpFetcher.unwrap(ex).getMessage());
+            }
+        });
+    }
+
+    /**
+     * UI name of a fetched interval (e.g. "3M" for "90")
+     */
+    private static String intervalName(String days) {
+        for (int i = 0; i < INTERVAL_DAYS.length; i++) {
+            if (INTERVAL_DAYS[i].equals(days)) {
+                return INTERVAL_NAMES[i];
+            }
+        }
+        return days;
+    }
+
     /**
      * Get historical time series for a given cryptocurrency and time window.
      *
      * Behavior:
      * - Validates inputs, uses default of 1 day if `days` is not provided.
-     * - Returns cached data if present.
+     * - Returns cached data if present and still within its TTL; windows of
+     *   2-90 and 91-365 days are sliced from the 90- and 365-day series.
+     * - Concurrent misses for the same series share one in-flight fetch.
      * - Otherwise fetches from the API and caches the result if valid.
      *
+     * Blocking form of {@link #getHistoricalDataForCryptoAsync}.
+     *
      * @param id   Coin identifier used by CoinGecko (e.g. "bitcoin")
      * @param days Number of days of history to load (string form, e.g. "1")
      * @return `HistoricalData` instance; may contain null/empty points on failure.
      */
     @Override
     public HistoricalData getHistoricalDataForCrypto(String id, String days) {
+        return getHistoricalDataForCryptoAsync(id, days).join();
+    }
+
+    @Override
+    public CompletableFuture<HistoricalData> getHistoricalDataForCryptoAsync(String id, String days) {
         // Validate inputs and set sensible defaults. `days` defaults to "1"
         // (a single-day timeseries) when not provided by the caller.
         if (id == null || id.isBlank())
-            return new HistoricalData(null);
+            return CompletableFuture.completedFuture(new HistoricalData(null));
         if (days == null || days.isBlank())
             days = "1";
 
-        if (cache.hasHistoricalData(id, days)) {
-            return cache.getHistoricalData(id, days);
+        HistoricalData cached = cache.getHistoricalData(id, days);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
         }
 
-        System.out.println("Loading historical data for " + id + " (days=" + days + ") from API...");
-        HistoricalData data = fetchHistoricalDataFromAPI(id, days);
-
-        if (data != null && data.getPoints() != null && !data.getPoints().isEmpty()) {
-            cache.putHistoricalData(id, days, data);
-            System.out.println("Successfully loaded and cached data for " + id + " (days=" + days + ")");
-        } else {
-            System.err.println("Failed to load data for " + id + " (days=" + days + ")");
-        }
+        // Fetch the series this interval is sliced from (e.g. 90 days for
+        // 7, 14 or 30), so later requests for other windows hit the cache.
+        // Concurrent misses on the same series share one fetch; other series
+        // are fetched in parallel
+        final String requested = days;
+        final String interval = CryptoCache.sourceInterval(days);
+        return historicalFlight.executeAsync(List.of(id, interval), () -> {
+            // A flight for this series may have completed just before ours
+            if (cache.hasHistoricalData(id, interval)) {
+                return CompletableFuture.completedFuture(cache.getHistoricalData(id, interval));
+            }
 
-        return data;
+            System.out.println("Loading historical data for " + id + " (days=" + interval + ") from API...");
+            return fetchHistoricalDataFromAPI(id, interval).thenApply(data -> {
+                if (!data.isEmpty()) {
+                    cache.putHistoricalData(id, interval, data);
+                    System.out.println("Successfully loaded and cached data for " + id + " (days=" + interval + ")");
+                } else {
+                    System.err.println("Failed to load data for " + id + " (days=" + interval + ")");
+                }
+                return data;
+            });
+        }).thenApply(data -> CryptoCache.window(data, requested));
     }
 
     /**
-     * Helper for fetching market chart data with retry logic similar to the
-     * top coins fetcher. Returns a HistoricalData object, which may be empty on
-     * failure.
+     * Helper for fetching market chart data under the same retry policy as the
+     * top coins fetcher. Completes with an empty HistoricalData on failure.
      */
-    private HistoricalData fetchHistoricalDataFromAPI(String id, String days) {
-        String baseUrl = props.getProperty("coingecko.api.url", DEFAULT_API_URL);
-        int maxRetries = retryDelays.length + 1;
-
-        for (int attempt = 0; attempt < maxRetries; attempt++) {
-            try {
-                // Build market_chart endpoint URL which returns time series data
-                String url = String.format("%s/coins/%s/market_chart?vs_currency=usd&days=%s", baseUrl, id, days);
-
-                HttpRequest.Builder reqBuilder = HttpRequest.newBuilder()
-                        .uri(URI.create(url))
-                        .GET();
-
-                String apiKey = props.getProperty("coingecko.api.key");
-                if (apiKey != null && !apiKey.isBlank()) {
-                    reqBuilder.header("x-cg-demo-api-key", apiKey);
-                }
-
-                HttpRequest request = reqBuilder.build();
-                HttpResponse<String> response = httpClient.send(request,
-                        HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
-
-                if (response.statusCode() >= 200 && response.statusCode() < 300) {
-                    return parseMarketChartJson(response.body());
-                } else {
-                    if (attempt < maxRetries - 1) {
-                        int delay = retryDelays[attempt];
-                        String statusMsg = response.statusCode() == 429 ? "Rate limit exceeded"
-                                : "API returned status " + response.statusCode();
-                        System.out.println(statusMsg + " for " + id + ". Waiting " + (delay / 1000)
-                                + " seconds before retry " + (attempt + 2) + "/" + maxRetries);
-                        Thread.sleep(delay);
-                        continue;
-                    } else {
-                        System.err.println("Failed to fetch market_chart for " + id + " after " + maxRetries
-                                + " attempts. Last status: " + response.statusCode());
-                        return new HistoricalData(null);
-                    }
-                }
-            } catch (IOException | InterruptedException e) {
-                if (attempt < maxRetries - 1) {
-                    int delay = retryDelays[attempt];
-                    System.out.println("Network error for " + id + " (" + e.getMessage() + "). Waiting "
-                            + (delay / 1000) + " seconds before retry " + (attempt + 2) + "/" + maxRetries);
-                    try {
-                        Thread.sleep(delay);
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        return new HistoricalData(null);
-                    }
-                    continue;
-                } else {
-                    System.err.println("Failed to fetch market_chart for " + id + " after " + maxRetries + " attempts: "
-                            + e.getMessage());
+    private CompletableFuture<HistoricalData> fetchHistoricalDataFromAPI(String id, String days) {
+        // market_chart endpoint, which returns time series data
+        return fetcher.fetch(marketChartRequest(id, days), RateLimiter.Priority.INTERACTIVE,
+                        this::parseMarketChartJson, retryPolicy, id)
+                .exceptionally(ex -> {
+                    System.err.println("Failed to fetch market_chart for " + id + ": "
+                            + HttpFetcher.unwrap(ex).getMessage());
                     return new HistoricalData(null);
-                }
-            }
-        }
-        return new HistoricalData(null);
+                });
     }
 
     // Callback invoked when single-interval data is loaded (used by the UI)
@@ -435,272 +554,358 @@ public class CryptoService implements ICryptoService {
         this.dataLoadedCallback = callback;
     }
 
+    @Override
+    public void addHistoricalDataListener(ICryptoService.HistoricalDataListener listener) {
+        if (listener != null) {
+            cache.addUpdateListener(listener::onHistoricalDataStored);
+        }
+    }
+
     /**
      * Preload historical data for the top cryptocurrencies in parallel. This
      * method:
      *
-     * 1. Retrieves the top cryptos (from cache or API).
-     * 2. Builds a list of fetch tasks covering several intervals (1,7,30,90,365).
-     * 3. Executes the tasks in parallel using `CompletableFuture`.
+     * 1. Retrieves the top cryptos (from cache or API) and keeps the first
+     *    `preload.count`; the others are loaded when the user focuses them.
+     * 2. Builds a list of fetch tasks for the intervals that are fetched
+     *    (1, 90, 365); 7 and 30 days are sliced from the 90-day series.
+     * 3. Queues every fetch with the fetch scheduler, which runs a few at a
+     *    time, focused coin and interval first; the requests are sent
+     *    asynchronously and only occupy io threads while their responses are
+     *    decoded.
      * 4. Caches successful results and collects failures for batched retries.
      *
      * The method reports progress to `dataLoadedCallback` and updates
      * `intervalLoadCounts` to signal when a full interval has completed for
-     * all cryptos. The implementation is resilient and performs batch retries
-     * for failed calls.
+     * all cryptos. Failed calls are retried afterwards under the retry policy.
      */
     @Override
     public void preloadAllData() {
         System.out.println("Preloading cryptocurrency data (parallel mode)...");
+        loadAllData(false);
+        System.out.println("All data preloading complete!");
+    }
 
-        List<Crypto> cryptos = getTopCryptos();
+    /**
+     * Bring every cached series up to date without discarding it. Each
+     * (coin, interval) that is already cached only downloads the samples after
+     * its last timestamp, which are spliced onto the series while the head is
+     * trimmed to keep the window; only those samples are appended to the disk
+     * store. Series that are not cached at all, or whose gap is too long to
+     * fill at their resolution, are fetched in full. Runs through the same
+     * parallel/retry pipeline and callbacks as `preloadAllData`.
+     */
+    @Override
+    public void refreshAllData() {
+        System.out.println("Refreshing cryptocurrency data incrementally...");
+        loadAllData(true);
+        System.out.println("Data refresh complete!");
+    }
+
+    /**
+     * Shared body of `preloadAllData` and `refreshAllData`. When
+     * {@code refresh} is false, series that are still fresh in the cache are
+     * reported as loaded without an API call.
+     */
+    private void loadAllData(boolean refresh) {
+        failedLoads.clear();
+
+        List<Crypto> top = getTopCryptos();
+        List<Crypto> cryptos = top.size() > preloadCount ? top.subList(0, preloadCount) : top;
+        Set<String> ids = new HashSet<>();
+        for (Crypto crypto : cryptos) {
+            ids.add(crypto.getId());
+        }
+        preloadIds = ids;
         totalCryptoCount = cryptos.size();
-        System.out.println("Loaded " + cryptos.size() + " cryptocurrencies");
+        System.out.println("Loaded " + top.size() + " cryptocurrencies, preloading " + cryptos.size());
 
         // Initialize counts per interval
         intervalLoadCounts.clear();
-        String[] intervalNames = { "1D", "1W", "1M", "3M", "1Y" };
-        for (String name : intervalNames) {
+        ConcurrentHashMap<String, AtomicInteger> intervalSuccessCounts = new ConcurrentHashMap<>();
+        for (String name : INTERVAL_NAMES) {
             intervalLoadCounts.put(name, 0);
+            intervalSuccessCounts.put(name, new AtomicInteger(0));
         }
 
-        // Days values corresponding to the interval names above
-        String[] intervals = { "1", "7", "30", "90", "365" };
-
-        // Build a full task list for every coin x interval combination
+        // Build a task list for every coin x source interval combination;
+        // derived intervals (1W, 1M) are served from the 3M series
         List<FetchTask> allTasks = new ArrayList<>();
         for (Crypto crypto : cryptos) {
-            for (int i = 0; i < intervals.length; i++) {
-                allTasks.add(new FetchTask(crypto.getId(), crypto.getName(), intervals[i], intervalNames[i]));
+            for (int i = 0; i < INTERVAL_DAYS.length; i++) {
+                if (CryptoCache.sourceInterval(INTERVAL_DAYS[i]).equals(INTERVAL_DAYS[i])) {
+                    allTasks.add(new FetchTask(crypto.getId(), crypto.getName(), INTERVAL_DAYS[i], INTERVAL_NAMES[i]));
+                }
             }
         }
 
-        System.out.println("Starting " + allTasks.size() + " parallel API calls...");
+        System.out.println("Scheduling " + allTasks.size() + " API calls...");
         long startTime = System.currentTimeMillis();
 
-        // Launch all tasks asynchronously
-        List<CompletableFuture<FetchResult>> futures = new ArrayList<>();
+        // Queue every task with the fetch scheduler, which starts them in the
+        // order of the user's current selection. Each result is recorded as
+        // soon as it arrives so the UI can use a series without waiting for
+        // the rest.
+        List<FetchResult> failedResults = java.util.Collections.synchronizedList(new ArrayList<>());
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
         for (FetchTask task : allTasks) {
-            // Submit an asynchronous supplier task to the default executor
-            // (typically the ForkJoinPool.commonPool()). Each task performs
-            // a single HTTP fetch without retry; failures are handled later.
-            CompletableFuture<FetchResult> future = CompletableFuture.supplyAsync(() -> {
-                try {
-                    HistoricalData data = fetchHistoricalDataFromAPINoRetry(task.cryptoId, task.days);
-                    boolean success = data != null && data.getPoints() != null && !data.getPoints().isEmpty();
-                    return new FetchResult(task, data, success);
-                } catch (Exception e) {
-                    System.err.println("Error fetching " + task.intervalName + " for " + task.cryptoName + ": " + e.getMessage());
-                    return new FetchResult(task, null, false);
-                }
-            });
-            futures.add(future);
-        }
-
-        // Wait for all parallel requests to complete
-        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
-
-        List<FetchTask> failedTasks = new ArrayList<>();
-        ConcurrentHashMap<String, AtomicInteger> intervalSuccessCounts = new ConcurrentHashMap<>();
-        for (String name : intervalNames) {
-            intervalSuccessCounts.put(name, new AtomicInteger(0));
-        }
-
-        // Process results: cache successes, collect failures
-        for (CompletableFuture<FetchResult> future : futures) {
-            try {
-                FetchResult result = future.get();
+            // Series already held in memory or in the disk store are reported
+            // as loaded without another API call.
+            HistoricalData cached = refresh ? null : cache.getHistoricalData(task.cryptoId, task.days);
+            if (cached != null) {
+                recordSuccess(task, cached, true, intervalSuccessCounts);
+                continue;
+            }
+            // Each task performs a single non-blocking HTTP fetch without
+            // retry; failures are handled later.
+            futures.add(fetchResult(task, refresh).thenAccept(result -> {
                 if (result.success) {
-                    cache.putHistoricalData(result.task.cryptoId, result.task.days, result.data);
-                    System.out.println("✓ " + result.task.intervalName + " for " + result.task.cryptoName);
-                    intervalSuccessCounts.get(result.task.intervalName).incrementAndGet();
-                    
-                    // Notify UI of single-day data loads on the JavaFX thread
-                    if (result.task.days.equals("1") && dataLoadedCallback != null) {
-                        final String cryptoId = result.task.cryptoId;
-                        javafx.application.Platform.runLater(() -> {
-                            dataLoadedCallback.onDataLoaded(cryptoId, true);
-                        });
-                    }
+                    recordSuccess(result.task, result.data, false, intervalSuccessCounts);
                 } else {
                     System.err.println("✗ " + result.task.intervalName + " for " + result.task.cryptoName + " - will retry");
-                    failedTasks.add(result.task);
+                    failedResults.add(result);
                 }
-            } catch (Exception e) {
-                System.err.println("Error processing result: " + e.getMessage());
-            }
+            }));
         }
 
+        // Wait for all scheduled requests to complete
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+
         long elapsed = System.currentTimeMillis() - startTime;
-        System.out.println("Parallel phase complete in " + elapsed + "ms. Success: " + (allTasks.size() - failedTasks.size()) + "/" + allTasks.size());
-
-        // Update interval-level counts and notify when an entire interval completes
-        for (String intervalName : intervalNames) {
-            int count = intervalSuccessCounts.get(intervalName).get();
-            intervalLoadCounts.put(intervalName, count);
-            if (count == totalCryptoCount && dataLoadedCallback != null) {
-                final String interval = intervalName;
-                javafx.application.Platform.runLater(() -> {
-                    dataLoadedCallback.onIntervalDataLoaded(null, interval, true);
-                });
-            }
-        }
+        System.out.println("First pass complete in " + elapsed + "ms. Success: " + (allTasks.size() - failedResults.size()) + "/" + allTasks.size());
 
-        // If there were failures, attempt batched retries
-        if (!failedTasks.isEmpty()) {
-            System.out.println("Retrying " + failedTasks.size() + " failed calls in batches...");
-            // Use the configured delay between calls so tests can control timing
-            // (tests set this to 0 for faster execution). This avoids hardcoding
-            // the delay and prevents the `delayBetweenCalls` field from being
-            // effectively unused.
-            retryInBatches(failedTasks, intervalSuccessCounts, 5, this.delayBetweenCalls);
+        // If there were failures, retry them with backoff
+        if (!failedResults.isEmpty()) {
+            System.out.println("Retrying " + failedResults.size() + " failed calls...");
+            retryFailed(new ArrayList<>(failedResults), refresh, intervalSuccessCounts);
         }
-
-        System.out.println("All data preloading complete!");
     }
 
     /**
-     * Retry failed fetches in small batches with a limited number of attempts.
-     * The method updates success counts and records any permanently failed tasks
-     * in `failedLoads` for later inspection.
-     */
-    private void retryInBatches(List<FetchTask> failedTasks, ConcurrentHashMap<String, AtomicInteger> intervalSuccessCounts, 
-                                 int batchSize, int delayBetweenBatchesMs) {
-        List<FetchTask> remaining = new ArrayList<>(failedTasks);
-        int retryAttempt = 0;
-        int maxRetryAttempts = 3;
-
-        while (!remaining.isEmpty() && retryAttempt < maxRetryAttempts) {
-            retryAttempt++;
-            System.out.println("Retry attempt " + retryAttempt + "/" + maxRetryAttempts + " for " + remaining.size() + " tasks...");
-            
-            List<FetchTask> stillFailed = new ArrayList<>();
-            
-            // Process remaining failed tasks in controlled-size batches to
-            // avoid creating too many concurrent requests.
-            for (int i = 0; i < remaining.size(); i += batchSize) {
-                int end = Math.min(i + batchSize, remaining.size());
-                List<FetchTask> batch = remaining.subList(i, end);
-                
-                System.out.println("Processing batch of " + batch.size() + " calls...");
-                
-                List<CompletableFuture<FetchResult>> batchFutures = new ArrayList<>();
-                for (FetchTask task : batch) {
-                    CompletableFuture<FetchResult> future = CompletableFuture.supplyAsync(() -> {
-                        try {
-                            HistoricalData data = fetchHistoricalDataFromAPINoRetry(task.cryptoId, task.days);
-                            boolean success = data != null && data.getPoints() != null && !data.getPoints().isEmpty();
-                            return new FetchResult(task, data, success);
-                        } catch (Exception e) {
-                            return new FetchResult(task, null, false);
-                        }
-                    });
-                    batchFutures.add(future);
-                }
-                
-                CompletableFuture.allOf(batchFutures.toArray(new CompletableFuture[0])).join();
-                
-                for (CompletableFuture<FetchResult> future : batchFutures) {
-                    try {
-                        FetchResult result = future.get();
-                        if (result.success) {
-                            cache.putHistoricalData(result.task.cryptoId, result.task.days, result.data);
-                            System.out.println("✓ Retry success: " + result.task.intervalName + " for " + result.task.cryptoName);
-                            intervalSuccessCounts.get(result.task.intervalName).incrementAndGet();
-                            
-                            if (result.task.days.equals("1") && dataLoadedCallback != null) {
-                                final String cryptoId = result.task.cryptoId;
-                                javafx.application.Platform.runLater(() -> {
-                                    dataLoadedCallback.onDataLoaded(cryptoId, true);
-                                });
-                            }
-                            
-                            int count = intervalSuccessCounts.get(result.task.intervalName).get();
-                            intervalLoadCounts.put(result.task.intervalName, count);
-                            if (count == totalCryptoCount && dataLoadedCallback != null) {
-                                final String interval = result.task.intervalName;
-                                javafx.application.Platform.runLater(() -> {
-                                    dataLoadedCallback.onIntervalDataLoaded(null, interval, true);
-                                });
-                            }
-                        } else {
-                            stillFailed.add(result.task);
-                        }
-                    } catch (Exception e) {
-                        // Keep task in failed list if something goes wrong while processing
-                    }
-                }
-                
-                if (end < remaining.size()) {
-                    try {
-                        Thread.sleep(delayBetweenBatchesMs);
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                        return;
-                    }
-                }
+     * Notify the UI about a loaded series for every interval it serves
+     * (the 3M series also serves 1W and 1M): `onIntervalDataLoaded` for the
+     * coin, `onDataLoaded` when it is the 1-day series, and
+     * every preloaded coin. {@code intervalSuccessCounts} is null for series
+     * loaded on demand, which do not count towards that. The series is
+     * already in the cache: fetches store what they load (see
+     * {@link #fetchForTask}). May be called from several threads at once;
+     * callbacks run on the calling thread.
+     */
+    private void recordSuccess(FetchTask task, HistoricalData data, boolean fromCache,
+                               ConcurrentHashMap<String, AtomicInteger> intervalSuccessCounts) {
+        System.out.println("✓ " + task.intervalName + " for " + task.cryptoName + (fromCache ? " (cached)" : ""));
+        String cryptoId = task.cryptoId;
+        if (task.days.equals("1") && dataLoadedCallback != null) {
+            dataLoadedCallback.onDataLoaded(cryptoId, true);
+        }
+
+        for (int i = 0; i < INTERVAL_DAYS.length; i++) {
+            if (!CryptoCache.sourceInterval(INTERVAL_DAYS[i]).equals(task.days)) {
+                continue;
             }
-            
-            remaining = stillFailed;
-            
-            if (!remaining.isEmpty() && retryAttempt < maxRetryAttempts) {
-                try {
-                    System.out.println("Waiting 5s before next retry attempt...");
-                    Thread.sleep(5000);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    return;
-                }
+            String interval = INTERVAL_NAMES[i];
+            int count = -1;
+            if (intervalSuccessCounts != null) {
+                count = intervalSuccessCounts.get(interval).incrementAndGet();
+                intervalLoadCounts.put(interval, count);
+            }
+            if (dataLoadedCallback == null) {
+                continue;
+            }
+            dataLoadedCallback.onIntervalDataLoaded(cryptoId, interval, true);
+            if (count == totalCryptoCount) {
+                dataLoadedCallback.onIntervalDataLoaded(null, interval, true);
             }
         }
-        
-        for (FetchTask task : remaining) {
-            failedLoads.add(new FailedDataLoad(task.cryptoId, task.days, task.intervalName));
+    }
+
+    /**
+     * Retry failed fetches under the retry policy. Each task continues from its
+     * failed first attempt with its own jittered backoff, and the next attempt
+     * is started by the timer rather than a sleeping thread; the attempt then
+     * waits its turn in the fetch scheduler like a first attempt. The method
+     * updates success counts and records any permanently failed tasks in
+     * `failedLoads` for later inspection.
+     */
+    private void retryFailed(List<FetchResult> failedResults, boolean refresh,
+                             ConcurrentHashMap<String, AtomicInteger> intervalSuccessCounts) {
+        List<CompletableFuture<Void>> retries = new ArrayList<>();
+        for (FetchResult failed : failedResults) {
+            FetchTask task = failed.task;
+            CompletableFuture<HistoricalData> retry = retryPolicy.retry(failed.error, () -> scheduleTask(task, refresh),
+                    executors.scheduler(), task.intervalName + " for " + task.cryptoName);
+            retries.add(retry.handle((data, ex) -> {
+                if (ex != null) {
+                    failedLoads.add(new FailedDataLoad(task.cryptoId, task.days, task.intervalName));
+                    System.err.println("✗ Gave up on " + task.intervalName + " for " + task.cryptoName + ": "
+                            + HttpFetcher.unwrap(ex).getMessage());
+                    return null;
+                }
+                System.out.println("✓ Retry success: " + task.intervalName + " for " + task.cryptoName);
+                recordSuccess(task, data, false, intervalSuccessCounts);
+                return null;
+            }));
         }
-        
-        if (!remaining.isEmpty()) {
-            System.err.println(remaining.size() + " tasks still failed after all retries.");
+
+        CompletableFuture.allOf(retries.toArray(new CompletableFuture[0])).join();
+
+        if (!failedLoads.isEmpty()) {
+            System.err.println(failedLoads.size() + " tasks still failed after all retries.");
         }
     }
 
     /**
-     * Fetch historical data without any retry logic. Used when the caller wants
-     * to control retries separately (for example inside batch retry loops).
+     * Queue {@code task} with the fetch scheduler. When it starts, a preload
+     * task whose series was loaded meanwhile (e.g. by the chart asking for it)
+     * completes from the cache instead of fetching again.
      */
-    private HistoricalData fetchHistoricalDataFromAPINoRetry(String id, String days) {
-        String baseUrl = props.getProperty("coingecko.api.url", DEFAULT_API_URL);
-        
-        try {
-            String url = String.format("%s/coins/%s/market_chart?vs_currency=usd&days=%s", baseUrl, id, days);
+    private CompletableFuture<HistoricalData> scheduleTask(FetchTask task, boolean refresh) {
+        return fetchScheduler.submit(task.cryptoId, task.days, priority -> {
+            HistoricalData cached = refresh ? null : cache.getHistoricalData(task.cryptoId, task.days);
+            return cached != null ? CompletableFuture.completedFuture(cached) : fetchTask(task, priority);
+        });
+    }
 
-            HttpRequest.Builder reqBuilder = HttpRequest.newBuilder()
-                    .uri(URI.create(url))
-                    .GET();
+    /**
+     * Run {@link #fetchForTask} through the same single-flight layer as
+     * interactive loads, so a user opening a chart while preload is fetching
+     * that series waits for the preload request instead of sending another.
+     * A shared interactive load reports failure as empty data, so empty data
+     * fails the future like an error does.
+     */
+    private CompletableFuture<HistoricalData> fetchTask(FetchTask task, RateLimiter.Priority priority) {
+        return historicalFlight.executeAsync(List.of(task.cryptoId, task.days), () -> fetchForTask(task, priority))
+                .thenCompose(data -> data != null && !data.isEmpty()
+                        ? CompletableFuture.completedFuture(data)
+                        : CompletableFuture.failedFuture(new IOException("no data returned")));
+    }
 
-            String apiKey = props.getProperty("coingecko.api.key");
-            if (apiKey != null && !apiKey.isBlank()) {
-                reqBuilder.header("x-cg-demo-api-key", apiKey);
+    /**
+     * Make the first attempt for {@code task} and turn its outcome into a
+     * FetchResult; never completes exceptionally.
+     */
+    private CompletableFuture<FetchResult> fetchResult(FetchTask task, boolean refresh) {
+        return scheduleTask(task, refresh).handle((data, ex) -> {
+            if (ex != null) {
+                Throwable error = HttpFetcher.unwrap(ex);
+                System.err.println("Error fetching " + task.intervalName + " for " + task.cryptoName + ": "
+                        + error.getMessage());
+                return new FetchResult(task, error);
             }
+            return new FetchResult(task, data, true);
+        });
+    }
 
-            HttpRequest request = reqBuilder.build();
-            HttpResponse<String> response = httpClient.send(request,
-                    HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+    /**
+     * Fetch and cache the data for one preload/refresh task: only the missing
+     * tail when the series is already cached (even if stale) and the gap can
+     * be filled at its resolution, otherwise the full series. {@code priority}
+     * is the limiter priority the fetch scheduler picked for the task.
+     */
+    private CompletableFuture<HistoricalData> fetchForTask(FetchTask task, RateLimiter.Priority priority) {
+        HistoricalData existing = cache.peekHistoricalData(task.cryptoId, task.days);
+        if (existing != null && !existing.isEmpty()
+                && System.currentTimeMillis() - existing.getTime(existing.size() - 1) <= maxTailGapMillis(task.days)) {
+            return fetchIncrementalFromAPI(task.cryptoId, task.days, existing, priority);
+        }
+        return fetchHistoricalDataFromAPINoRetry(task.cryptoId, task.days, priority).thenApply(data -> {
+            if (!data.isEmpty()) {
+                cache.putHistoricalData(task.cryptoId, task.days, data);
+            }
+            return data;
+        });
+    }
 
-            if (response.statusCode() >= 200 && response.statusCode() < 300) {
-                return parseMarketChartJson(response.body());
-            } else {
-                System.err.println("API returned " + response.statusCode() + " for " + id + " days=" + days);
-                return null;
+    /**
+     * Longest gap `/market_chart/range` fills at the resolution of a `days`
+     * series. CoinGecko returns 5-minute samples for ranges of up to a day and
+     * hourly samples up to 90 days, so a longer gap would splice a coarser
+     * tail onto the 1-day or hourly series. Daily series have no limit.
+     */
+    private static long maxTailGapMillis(String days) {
+        long n;
+        try {
+            n = Long.parseLong(days.trim());
+        } catch (NumberFormatException e) {
+            return Long.MAX_VALUE;
+        }
+        if (n <= 1) {
+            return DAY_MILLIS;
+        }
+        return n <= HOURLY_DAYS ? HOURLY_DAYS * DAY_MILLIS : Long.MAX_VALUE;
+    }
+
+    /**
+     * Download the samples after the last cached timestamp from
+     * `/coins/{id}/market_chart/range` and splice them onto {@code existing}.
+     * The tail is thinned to the existing series' sample spacing, since the
+     * range endpoint picks its granularity from the (short) requested range,
+     * and the head is trimmed to the interval's window. The merged series
+     * replaces the cached one, but only the new samples are appended to the
+     * disk store. Fails if the range request fails, so the task is retried
+     * like a full fetch.
+     */
+    private CompletableFuture<HistoricalData> fetchIncrementalFromAPI(String id, String days, HistoricalData existing,
+                                                                      RateLimiter.Priority priority) {
+        long now = System.currentTimeMillis();
+        long lastTime = existing.getTime(existing.size() - 1);
+        // The range endpoint takes UNIX seconds
+        long from = lastTime / 1000 + 1;
+        long to = now / 1000;
+
+        CompletableFuture<HistoricalData> tail;
+        if (to > from) {
+            HttpRequest request = coinGecko.get("/coins/" + id + "/market_chart/range",
+                    "vs_currency", "usd", "from", from, "to", to);
+            tail = fetcher.fetch(request, priority, this::parseMarketChartJson);
+        } else {
+            tail = CompletableFuture.completedFuture(new HistoricalData(null));
+        }
+
+        return tail.thenApply(samples -> {
+            // Average spacing of the cached series, with some slack for jitter
+            // in CoinGecko's timestamps
+            long step = 0;
+            if (existing.size() > 1) {
+                long average = (lastTime - existing.getTime(0)) / (existing.size() - 1);
+                step = average - average / 10;
             }
-        } catch (IOException | InterruptedException e) {
-            System.err.println("Error fetching " + id + " days=" + days + ": " + e.getMessage());
-            if (e instanceof InterruptedException) {
-                Thread.currentThread().interrupt();
+            HistoricalData merged = existing.appendTail(samples, step, windowStart(days, now));
+            if (!merged.isEmpty()) {
+                cache.appendHistoricalData(id, days, merged, merged.slice(lastTime + 1, Long.MAX_VALUE));
             }
-            return null;
+            System.out.println("Spliced " + (merged.size() - existing.size()) + " net new points onto " + id
+                    + " (days=" + days + ", tail=" + samples.size() + ")");
+            return merged;
+        });
+    }
+
+    /**
+     * First timestamp still inside a `days` window ending at {@code now}, or
+     * Long.MIN_VALUE when `days` is not a number (e.g. "max")
+     */
+    private static long windowStart(String days, long now) {
+        try {
+            return now - Long.parseLong(days) * DAY_MILLIS;
+        } catch (NumberFormatException e) {
+            return Long.MIN_VALUE;
         }
     }
 
+    /**
+     * Fetch historical data without any retry logic. Used when the caller wants
+     * to control retries separately (for example the preload retry phase).
+     * The future fails on error.
+     */
+    private CompletableFuture<HistoricalData> fetchHistoricalDataFromAPINoRetry(String id, String days,
+                                                                               RateLimiter.Priority priority) {
+        return fetcher.fetch(marketChartRequest(id, days), priority, this::parseMarketChartJson);
+    }
+
+    private HttpRequest marketChartRequest(String id, String days) {
+        return coinGecko.get("/coins/" + id + "/market_chart", "vs_currency", "usd", "days", days);
+    }
+
     /**
      * Lightweight DTO describing a work item: which crypto, which days, and a
      * human-friendly interval name used for logging and UI callbacks.
@@ -721,20 +926,38 @@ public class CryptoService implements ICryptoService {
 
     /**
      * Result holder for asynchronous fetches. Contains the original task, the
-     * parsed data (if any) and a boolean success flag.
+     * parsed data (if any), a boolean success flag and the error of a failed
+     * fetch.
      */
     private static class FetchResult {
         final FetchTask task;
         final HistoricalData data;
         final boolean success;
+        final Throwable error;
 
         FetchResult(FetchTask task, HistoricalData data, boolean success) {
             this.task = task;
             this.data = data;
             this.success = success;
+            this.error = null;
+        }
+
+        FetchResult(FetchTask task, Throwable error) {
+            this.task = task;
+            this.data = null;
+            this.success = false;
+            this.error = error;
         }
     }
 
+    /**
+     * Flush series still queued for the disk store and close it. Called when
+     * the application exits.
+     */
+    public void close() {
+        cache.close();
+    }
+
     @Override
     public int getFailedLoadsCount() {
         return failedLoads.size();
@@ -750,47 +973,15 @@ public class CryptoService implements ICryptoService {
     /**
      * Parse the `market_chart` JSON response into `HistoricalData`.
      *
-     * The `prices` array contains [timestamp, price] entries and `total_volumes`
-     * contains [timestamp, volume]. The method pairs entries by index; if the
-     * arrays are misaligned or a particular entry is malformed, the method
-     * skips the problematic entry and continues.
+     * Decoding is delegated to `MarketChartParser`, which streams the `prices`
+     * and `total_volumes` arrays token by token into primitive columns instead
+     * of building a `JsonNode` tree for the whole response. Bytes are decoded
+     * as they arrive from the response stream. Entries are paired by index and
+     * malformed entries are skipped. Package-private so the decode benchmarks
+     * can call it.
      */
-    private HistoricalData parseMarketChartJson(String json) throws IOException {
-        JsonNode root = mapper.readTree(json);
-        JsonNode prices = root.path("prices");
-        JsonNode volumes = root.path("total_volumes");
-
-        if (!prices.isArray()) {
-            return new HistoricalData(null);
-        }
-
-        List<ChartPoint> points = new ArrayList<>();
-        for (int i = 0; i < prices.size(); i++) {
-            JsonNode pNode = prices.get(i);
-            if (!pNode.isArray() || pNode.size() < 2)
-                continue;
-
-            long ts = pNode.get(0).asLong(0L);
-            Double price = pNode.get(1).isNull() ? null : pNode.get(1).asDouble();
-
-            Double vol = null;
-            if (volumes.isArray() && i < volumes.size()) {
-                JsonNode vNode = volumes.get(i);
-                if (vNode.isArray() && vNode.size() >= 2) {
-                    vol = vNode.get(1).isNull() ? null : vNode.get(1).asDouble();
-                }
-            }
-
-            try {
-                // Convert epoch milliseconds to Instant and create ChartPoint
-                ChartPoint cp = new ChartPoint(Instant.ofEpochMilli(ts), price, vol);
-                points.add(cp);
-            } catch (Exception ex) {
-                // skip malformed timestamps to keep the rest of the data usable
-            }
-        }
-
-        return new HistoricalData(points);
+    HistoricalData parseMarketChartJson(InputStream body) throws IOException {
+        return marketChartParser.parse(body);
     }
 
     /**
@@ -0,0 +1,165 @@
+package com.mycompany.app.services;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Priority queue for preload and refresh fetches (one job per coin and
+ * interval).
+ *
+ * At most {@code maxInFlight} jobs run at once; the rest wait here rather
+ * than in the rate limiter, so their order can still change. Jobs are ranked
+ * against the user's current selection (see {@link #setFocus}):
+ *
+ * 1. the selected coin at the selected interval,
+ * 2. the selected coin at other intervals,
+ * 3. other coins at the selected interval,
+ * 4. everything else (background fill),
+ *
+ * and in submission order within a rank. Changing the selection re-ranks
+ * the queued jobs. Jobs of the selected coin are started with
+ * {@link RateLimiter.Priority#INTERACTIVE} permits, the others with
+ * {@link RateLimiter.Priority#BACKGROUND}.
+ */
+final class FetchScheduler {
+    private final int maxInFlight;
+
+    // Guarded by this
+    private PriorityQueue<Job<?>> queue = new PriorityQueue<>(byRank());
+    private String focusId;
+    private String focusDays;
+    private int inFlight;
+    private long sequence;
+
+    FetchScheduler(int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be at least 1");
+        }
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Queue a fetch for one coin and interval. {@code work} is started with
+     * the limiter priority matching the job's rank once it reaches the front
+     * of the queue and a slot is free. Cancelling the returned future drops
+     * a job that has not started yet.
+     */
+    <T> CompletableFuture<T> submit(String cryptoId, String days,
+                                    Function<RateLimiter.Priority, CompletableFuture<T>> work) {
+        Job<T> job;
+        synchronized (this) {
+            job = new Job<>(cryptoId, days, sequence++, work);
+            queue.add(job);
+        }
+        dispatch();
+        return job.result;
+    }
+
+    /**
+     * Rank queued jobs against a new selection. Either argument may be null
+     * when nothing is selected.
+     */
+    void setFocus(String cryptoId, String days) {
+        synchronized (this) {
+            if (equal(focusId, cryptoId) && equal(focusDays, days)) {
+                return;
+            }
+            focusId = cryptoId;
+            focusDays = days;
+            // Ranks changed, so the heap has to be rebuilt
+            PriorityQueue<Job<?>> reranked = new PriorityQueue<>(Math.max(1, queue.size()), byRank());
+            reranked.addAll(queue);
+            queue = reranked;
+        }
+    }
+
+    /**
+     * Number of jobs waiting to start. For tests and monitoring.
+     */
+    synchronized int queuedCount() {
+        return queue.size();
+    }
+
+    /**
+     * Start jobs from the front of the queue while slots are free. Jobs are
+     * started outside the lock since starting one may run its continuations.
+     */
+    private void dispatch() {
+        List<Job<?>> started = new ArrayList<>();
+        List<RateLimiter.Priority> priorities = new ArrayList<>();
+        synchronized (this) {
+            while (inFlight < maxInFlight && !queue.isEmpty()) {
+                Job<?> job = queue.poll();
+                if (job.result.isDone()) {
+                    continue; // cancelled while queued
+                }
+                inFlight++;
+                started.add(job);
+                priorities.add(rank(job) <= 1 ? RateLimiter.Priority.INTERACTIVE : RateLimiter.Priority.BACKGROUND);
+            }
+        }
+        for (int i = 0; i < started.size(); i++) {
+            start(started.get(i), priorities.get(i));
+        }
+    }
+
+    private <T> void start(Job<T> job, RateLimiter.Priority priority) {
+        CompletableFuture<T> running;
+        try {
+            running = job.work.apply(priority);
+        } catch (RuntimeException e) {
+            running = CompletableFuture.failedFuture(e);
+        }
+        running.whenComplete((value, ex) -> {
+            synchronized (this) {
+                inFlight--;
+            }
+            if (ex != null) {
+                job.result.completeExceptionally(HttpFetcher.unwrap(ex));
+            } else {
+                job.result.complete(value);
+            }
+            dispatch();
+        });
+    }
+
+    private Comparator<Job<?>> byRank() {
+        return Comparator.<Job<?>>comparingInt(this::rank).thenComparingLong(job -> job.sequence);
+    }
+
+    /**
+     * 0 = selected coin and interval, 1 = selected coin, 2 = selected
+     * interval, 3 = background. Caller holds the lock.
+     */
+    private int rank(Job<?> job) {
+        boolean coin = job.cryptoId.equals(focusId);
+        boolean interval = job.days.equals(focusDays);
+        if (coin) {
+            return interval ? 0 : 1;
+        }
+        return interval ? 2 : 3;
+    }
+
+    private static boolean equal(String a, String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    private static final class Job<T> {
+        final String cryptoId;
+        final String days;
+        final long sequence;
+        final Function<RateLimiter.Priority, CompletableFuture<T>> work;
+        final CompletableFuture<T> result = new CompletableFuture<>();
+
+        Job(String cryptoId, String days, long sequence, Function<RateLimiter.Priority, CompletableFuture<T>> work) {
+            this.cryptoId = cryptoId;
+            this.days = days;
+            this.sequence = sequence;
+            this.work = work;
+        }
+    }
+}
@@ -0,0 +1,507 @@
+package com.mycompany.app.services;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+import com.mycompany.app.models.HistoricalData;
+
+/**
+ * On-disk, append-only store for historical series, used as the persistence
+ * tier under {@link CryptoCache} so a cold start can read history from disk
+ * instead of re-downloading it.
+ *
+ * Layout: one directory per (coin, interval) under the store root, holding
+ * numbered segment files ({@code 00000001.seg}, {@code 00000002.seg}, ...).
+ * Each segment is a fixed 32-byte header followed by fixed-width 24-byte
+ * records:
+ *
+ * <pre>
+ * header: int magic "CDTS" | short version | short flags | int recordCount
+ *         | int crc32(records) | long writtenAtMillis | long reserved
+ * record: long epochMillis | double price | double volume   (NaN = missing)
+ * </pre>
+ *
+ * A segment flagged as SNAPSHOT holds a complete series and supersedes every
+ * earlier segment; unflagged segments are appends whose records extend the
+ * series past its last timestamp. Segments are written to a temporary file
+ * and atomically renamed, and are read back through a read-only
+ * {@link MappedByteBuffer}. Segments whose size or checksum does not match
+ * are ignored.
+ *
+ * Writes run on a single background thread, so callers never block on disk
+ * I/O. The same thread compacts a series back into one snapshot segment once
+ * appends have piled up, dropping records that have slid out of the series'
+ * window, and deletes segments superseded by a snapshot. {@link #close()}
+ * drains the queue, so nothing written before it is lost on exit.
+ */
+public class HistoricalDataStore {
+    static final int MAGIC = 0x43445453; // "CDTS"
+    static final short VERSION = 1;
+    static final short FLAG_SNAPSHOT = 1;
+    static final int HEADER_BYTES = 32;
+    static final int RECORD_BYTES = 24;
+    // Number of segments for one series that triggers a compaction.
+    static final int COMPACTION_THRESHOLD = 4;
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String TEMP_SUFFIX = ".tmp";
+    // Stores opened from properties, one per directory, so services that
+    // share a directory also share its writer thread.
+    private static final Map<Path, HistoricalDataStore> OPEN_STORES = new ConcurrentHashMap<>();
+
+    private final Path root;
+    // Reads share the lock; writes, compactions and clear() take it exclusively
+    // so a reader never observes a half-replaced set of segments.
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "history-store-writer");
+        t.setDaemon(true); // Allow JVM to exit even if a write is queued
+        return t;
+    });
+
+    /**
+     * A series read back from disk together with the time its newest segment
+     * was written.
+     */
+    public static class StoredSeries {
+        private final HistoricalData data;
+        private final long writtenAt;
+
+        StoredSeries(HistoricalData data, long writtenAt) {
+            this.data = data;
+            this.writtenAt = writtenAt;
+        }
+
+        public HistoricalData getData() { return data; }
+        public long getWrittenAt() { return writtenAt; }
+    }
+
+    public HistoricalDataStore(Path root) {
+        if (root == null) {
+            throw new IllegalArgumentException("root cannot be null");
+        }
+        this.root = root;
+    }
+
+    /**
+     * Open the store configured by `cache.store.enabled` and `cache.store.dir`.
+     * Returns null when the store is disabled or its directory cannot be
+     * created, in which case the cache simply stays in memory. Repeated calls
+     * for the same directory return the same store.
+     */
+    public static HistoricalDataStore fromProperties(Properties props) {
+        if (!Boolean.parseBoolean(props.getProperty("cache.store.enabled", "true"))) {
+            return null;
+        }
+        String dir = props.getProperty("cache.store.dir", "").trim();
+        Path root = dir.isEmpty()
+                ? Path.of(System.getProperty("user.home"), ".crypto-desk", "history")
+                : Path.of(dir);
+        try {
+            Files.createDirectories(root);
+            return OPEN_STORES.computeIfAbsent(root.toAbsolutePath().normalize(), HistoricalDataStore::new);
+        } catch (IOException | SecurityException e) {
+            System.err.println("History store disabled, cannot use " + root + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Queue a full series to be written as a snapshot segment. Earlier segments
+     * for the series are deleted once the snapshot is in place.
+     */
+    public void write(String cryptoId, String days, HistoricalData data) {
+        if (cryptoId == null || days == null || data == null || data.isEmpty()) {
+            return;
+        }
+        submit(() -> writeSegment(seriesDir(cryptoId, days), data, true));
+    }
+
+    /**
+     * Queue records that extend a series. Only records newer than the stored
+     * series' last timestamp are kept when the series is read back. When the
+     * series is compacted, records older than its `days` window (ending at
+     * its last record) are dropped.
+     */
+    public void append(String cryptoId, String days, HistoricalData tail) {
+        if (cryptoId == null || days == null || tail == null || tail.isEmpty()) {
+            return;
+        }
+        submit(() -> {
+            Path dir = seriesDir(cryptoId, days);
+            Path segment = writeSegment(dir, tail, false);
+            if (listSegments(dir).size() >= COMPACTION_THRESHOLD) {
+                compact(dir, segment, days);
+            }
+        });
+    }
+
+    /**
+     * Read a series from disk, or return null if nothing valid is stored.
+     */
+    public StoredSeries read(String cryptoId, String days) {
+        if (cryptoId == null || days == null) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            return readSeries(seriesDir(cryptoId, days));
+        } catch (IOException e) {
+            System.err.println("Failed to read stored history for " + cryptoId + " (days=" + days + "): " + e.getMessage());
+            return null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Delete every stored series. Runs on the writer thread, after any writes
+     * queued before it.
+     */
+    public void clear() {
+        submit(() -> {
+            if (Files.isDirectory(root)) {
+                deleteRecursively(root);
+            }
+        });
+    }
+
+    /**
+     * Block until every queued write, compaction and clear has completed.
+     * Intended for tests and orderly shutdown.
+     */
+    public void flush() {
+        try {
+            writer.submit(() -> { }).get();
+        } catch (RejectedExecutionException e) {
+            // Already closed, so nothing is pending
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.err.println("History store flush failed: " + e.getCause());
+        }
+    }
+
+    /**
+     * Flush pending writes and stop the writer thread. Later writes are
+     * dropped, and {@link #fromProperties} opens a new store for the
+     * directory.
+     */
+    public void close() {
+        OPEN_STORES.values().remove(this);
+        flush();
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Number of segment files currently stored for a series. Useful for tests
+     * and monitoring compaction.
+     */
+    int getSegmentCount(String cryptoId, String days) {
+        try {
+            return listSegments(seriesDir(cryptoId, days)).size();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private interface StoreTask {
+        void run() throws IOException;
+    }
+
+    private void submit(StoreTask task) {
+        try {
+            writer.execute(() -> {
+                lock.writeLock().lock();
+                try {
+                    task.run();
+                } catch (IOException e) {
+                    System.err.println("History store write failed: " + e.getMessage());
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            System.err.println("History store is closed, dropping write");
+        }
+    }
+
+    // --- Writing ---
+
+    private Path writeSegment(Path dir, HistoricalData data, boolean snapshot) throws IOException {
+        Files.createDirectories(dir);
+        List<Path> existing = listSegments(dir);
+        long sequence = existing.isEmpty() ? 1 : sequenceOf(existing.get(existing.size() - 1)) + 1;
+        Path segment = writeSegmentFile(dir, sequence, data, snapshot);
+
+        if (snapshot) {
+            // The new snapshot supersedes everything written before it
+            deleteAll(existing);
+        }
+        return segment;
+    }
+
+    private Path writeSegmentFile(Path dir, long sequence, HistoricalData data, boolean snapshot) throws IOException {
+        int count = data.size();
+        ByteBuffer records = ByteBuffer.allocate(count * RECORD_BYTES);
+        for (int i = 0; i < count; i++) {
+            records.putLong(data.getTime(i));
+            records.putDouble(data.getPrice(i));
+            records.putDouble(data.getVolume(i));
+        }
+        records.flip();
+        CRC32 crc = new CRC32();
+        crc.update(records.duplicate());
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC);
+        header.putShort(VERSION);
+        header.putShort(snapshot ? FLAG_SNAPSHOT : 0);
+        header.putInt(count);
+        header.putInt((int) crc.getValue());
+        header.putLong(System.currentTimeMillis());
+        header.putLong(0L);
+        header.flip();
+
+        Path segment = dir.resolve(String.format("%08d%s", sequence, SEGMENT_SUFFIX));
+        Path temp = dir.resolve(segment.getFileName() + TEMP_SUFFIX);
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            while (records.hasRemaining()) {
+                channel.write(records);
+            }
+            channel.force(false);
+        }
+        Files.move(temp, segment, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return segment;
+    }
+
+    /**
+     * Rewrite a series as a single snapshot segment trimmed to its `days`
+     * window and drop the segments it replaces.
+     */
+    private void compact(Path dir, Path newest, String days) throws IOException {
+        StoredSeries merged = readSeries(dir);
+        if (merged == null) {
+            return;
+        }
+        List<Path> before = listSegments(dir);
+        writeSegmentFile(dir, sequenceOf(newest) + 1, CryptoCache.window(merged.getData(), days), true);
+        deleteAll(before);
+    }
+
+    // --- Reading ---
+
+    private StoredSeries readSeries(Path dir) throws IOException {
+        List<Path> segments = listSegments(dir);
+        List<Segment> valid = new ArrayList<>();
+        int lastSnapshot = -1;
+        for (Path path : segments) {
+            Segment segment = mapSegment(path);
+            if (segment == null) {
+                continue;
+            }
+            if (segment.snapshot) {
+                lastSnapshot = valid.size();
+            }
+            valid.add(segment);
+        }
+        if (valid.isEmpty()) {
+            return null;
+        }
+
+        // Replay from the newest snapshot (or the oldest segment if a snapshot
+        // was lost) and only accept records that move the series forward.
+        int start = Math.max(0, lastSnapshot);
+        HistoricalData.Builder builder = new HistoricalData.Builder(totalRecords(valid, start));
+        long lastTime = Long.MIN_VALUE;
+        long writtenAt = 0L;
+        for (int s = start; s < valid.size(); s++) {
+            Segment segment = valid.get(s);
+            ByteBuffer buffer = segment.records;
+            for (int i = 0; i < segment.count; i++) {
+                int offset = i * RECORD_BYTES;
+                long time = buffer.getLong(offset);
+                if (s > start && time <= lastTime) {
+                    continue;
+                }
+                builder.add(time, buffer.getDouble(offset + 8), buffer.getDouble(offset + 16));
+                lastTime = Math.max(lastTime, time);
+            }
+            writtenAt = Math.max(writtenAt, segment.writtenAt);
+        }
+        HistoricalData data = builder.build();
+        return data.isEmpty() ? null : new StoredSeries(data, writtenAt);
+    }
+
+    private static int totalRecords(List<Segment> segments, int start) {
+        long total = 0;
+        for (int s = start; s < segments.size(); s++) {
+            total += segments.get(s).count;
+        }
+        return (int) Math.min(Integer.MAX_VALUE, total);
+    }
+
+    /**
+     * A validated, memory-mapped segment.
+     */
+    private static class Segment {
+        final boolean snapshot;
+        final int count;
+        final long writtenAt;
+        final ByteBuffer records;
+
+        Segment(boolean snapshot, int count, long writtenAt, ByteBuffer records) {
+            this.snapshot = snapshot;
+            this.count = count;
+            this.writtenAt = writtenAt;
+            this.records = records;
+        }
+    }
+
+    /**
+     * Map a segment file and validate its header, size and checksum. Returns
+     * null (and logs) for anything that does not check out.
+     */
+    private Segment mapSegment(Path path) throws IOException {
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                System.err.println("Ignoring truncated history segment " + path);
+                return null;
+            }
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+
+        int magic = mapped.getInt(0);
+        short version = mapped.getShort(4);
+        short flags = mapped.getShort(6);
+        int count = mapped.getInt(8);
+        int checksum = mapped.getInt(12);
+        long writtenAt = mapped.getLong(16);
+        if (magic != MAGIC || version != VERSION || count < 0
+                || (long) HEADER_BYTES + (long) count * RECORD_BYTES != mapped.capacity()) {
+            System.err.println("Ignoring malformed history segment " + path);
+            return null;
+        }
+
+        ByteBuffer records = mapped.slice(HEADER_BYTES, count * RECORD_BYTES);
+        CRC32 crc = new CRC32();
+        crc.update(records.duplicate());
+        if ((int) crc.getValue() != checksum) {
+            System.err.println("Ignoring history segment with bad checksum " + path);
+            return null;
+        }
+        return new Segment((flags & FLAG_SNAPSHOT) != 0, count, writtenAt, records);
+    }
+
+    // --- Files ---
+
+    private Path seriesDir(String cryptoId, String days) {
+        return root.resolve(sanitize(cryptoId)).resolve(sanitize(days));
+    }
+
+    /**
+     * Map an id to a safe directory name. CoinGecko ids are already lowercase
+     * letters, digits and dashes and are kept as they are; any other
+     * character (including '_' and uppercase letters, for case-insensitive
+     * file systems) is escaped as '_' and four hex digits, so different ids
+     * never share a directory. The empty id maps to "_".
+     */
+    static String sanitize(String name) {
+        StringBuilder sb = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-') {
+                sb.append(c);
+            } else {
+                sb.append(String.format("_%04x", (int) c));
+            }
+        }
+        return sb.length() == 0 ? "_" : sb.toString();
+    }
+
+    private static List<Path> listSegments(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return Collections.emptyList();
+        }
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*" + SEGMENT_SUFFIX)) {
+            for (Path p : stream) {
+                segments.add(p);
+            }
+        }
+        // Zero-padded names sort in sequence order
+        Collections.sort(segments);
+        return segments;
+    }
+
+    private static long sequenceOf(Path segment) {
+        String name = segment.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+
+    private static void deleteAll(List<Path> paths) {
+        for (Path p : paths) {
+            try {
+                Files.deleteIfExists(p);
+            } catch (IOException e) {
+                // A still-mapped file may not be deletable on some platforms;
+                // it is superseded anyway and is retried on the next compaction.
+                System.err.println("Could not delete history segment " + p + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        List<Path> children = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+            for (Path p : stream) {
+                children.add(p);
+            }
+        }
+        for (Path child : children) {
+            if (Files.isDirectory(child)) {
+                deleteRecursively(child);
+            }
+            Files.deleteIfExists(child);
+        }
+    }
+}
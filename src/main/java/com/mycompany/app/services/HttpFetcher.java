@@ -0,0 +1,92 @@
+package com.mycompany.app.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import com.mycompany.app.config.AppExecutors;
+
+/**
+ * Non-blocking request pipeline shared by the API services.
+ *
+ * An attempt waits for a permit from the provider's rate limiter, sends the
+ * request through the shared {@link HttpTransport} and decodes the streamed body on the io pool
+ * (reading an {@code InputStream} body blocks until bytes arrive, so it must
+ * not run on the client's own threads). Attempts are repeated as a
+ * {@link RetryPolicy} allows, with the next one scheduled on the timer
+ * instead of sleeping, so a pending fetch holds no thread until its body is
+ * being decoded.
+ *
+ * Non-2xx responses fail the attempt with {@link HttpStatusException}; a 429
+ * also drains the rate limiter so other callers hold off.
+ */
+final class HttpFetcher {
+    private final HttpTransport transport;
+    private final ApiProvider provider;
+    private final RateLimiter rateLimiter;
+    private final AppExecutors executors;
+
+    HttpFetcher(HttpTransport transport, ApiProvider provider, RateLimiter rateLimiter, AppExecutors executors) {
+        this.transport = transport;
+        this.provider = provider;
+        this.rateLimiter = rateLimiter;
+        this.executors = executors;
+    }
+
+    /**
+     * Send {@code request} once; the future fails on any error
+     */
+    <T> CompletableFuture<T> fetch(HttpRequest request, RateLimiter.Priority priority,
+                                   ResponseBodies.BodyDecoder<T> decoder) {
+        return fetch(request, priority, decoder, RetryPolicy.none(), request.uri().getPath());
+    }
+
+    /**
+     * Send {@code request}, retrying failed attempts as {@code retryPolicy}
+     * allows. The future fails with the last attempt's error once the policy
+     * gives up.
+     *
+     * @param label what is being fetched, for log messages
+     */
+    <T> CompletableFuture<T> fetch(HttpRequest request, RateLimiter.Priority priority,
+                                   ResponseBodies.BodyDecoder<T> decoder, RetryPolicy retryPolicy, String label) {
+        return retryPolicy.execute(() -> sendOnce(request, priority, decoder), executors.scheduler(), label);
+    }
+
+    private <T> CompletableFuture<T> sendOnce(HttpRequest request, RateLimiter.Priority priority,
+                                              ResponseBodies.BodyDecoder<T> decoder) {
+        return rateLimiter.acquireAsync(priority)
+                .thenCompose(granted -> transport.send(provider, request))
+                .thenApplyAsync(response -> handle(response, decoder), executors.io());
+    }
+
+    private <T> T handle(HttpResponse<InputStream> response, ResponseBodies.BodyDecoder<T> decoder) {
+        int status = response.statusCode();
+        try {
+            if (status >= 200 && status < 300) {
+                return ResponseBodies.decode(response, decoder);
+            }
+            HttpStatusException failure = new HttpStatusException(status, RateLimiter.retryAfter(response),
+                    ResponseBodies.readSnippet(response, ResponseBodies.ERROR_SNIPPET_BYTES));
+            if (failure.isRateLimited()) {
+                rateLimiter.onRateLimited(failure.getRetryAfter());
+            }
+            throw failure;
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * Strip the CompletionException wrappers added by the future chain
+     */
+    static Throwable unwrap(Throwable ex) {
+        while (ex instanceof CompletionException && ex.getCause() != null) {
+            ex = ex.getCause();
+        }
+        return ex;
+    }
+}
@@ -0,0 +1,46 @@
+package com.mycompany.app.services;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Failure raised for a non-2xx API response. Carries the status code, the
+ * start of the body and, for 429 responses, the delay the provider asked for
+ * (if any).
+ */
+final class HttpStatusException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    private final int statusCode;
+    private final Duration retryAfter;
+    private final String bodySnippet;
+
+    HttpStatusException(int statusCode, Duration retryAfter, String bodySnippet) {
+        super("API returned status " + statusCode);
+        this.statusCode = statusCode;
+        this.retryAfter = retryAfter;
+        this.bodySnippet = bodySnippet != null ? bodySnippet : "";
+    }
+
+    int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * Delay from the response's `Retry-After` header, or null when absent
+     */
+    Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    /**
+     * Start of the response body, for logging
+     */
+    String getBodySnippet() {
+        return bodySnippet;
+    }
+
+    boolean isRateLimited() {
+        return statusCode == 429;
+    }
+}
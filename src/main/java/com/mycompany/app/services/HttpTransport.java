@@ -0,0 +1,130 @@
+package com.mycompany.app.services;
+
+import java.io.InputStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.mycompany.app.config.ApiConfig;
+
+/**
+ * The HTTP client every API service sends through.
+ *
+ * The shared instance holds one {@link HttpClient} for the whole process,
+ * preferring HTTP/2 and with a connect timeout from `http.connectTimeoutMs`
+ * (default 10000). The client pools its connections, so CoinGecko requests
+ * from the list, the preload and the price poller all reuse the same
+ * connections instead of each service opening its own.
+ *
+ * Every exchange is reported to the registered {@link ExchangeListener}s,
+ * e.g. for metrics. Rate limiting stays with the caller ({@link HttpFetcher}
+ * waits for its provider's limiter before sending).
+ */
+public final class HttpTransport {
+    private static final int DEFAULT_CONNECT_TIMEOUT_MS = 10_000;
+
+    private static volatile HttpTransport shared;
+
+    private final HttpClient client;
+    private final List<ExchangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Observer of completed exchanges. Called on the client's threads, so
+     * implementations must be quick and thread-safe.
+     */
+    public interface ExchangeListener {
+        /**
+         * The response headers arrived
+         * @param provider      provider name, e.g. {@link RateLimiter#COINGECKO}
+         * @param elapsedNanos  time from sending to the response headers
+         */
+        default void onResponse(String provider, HttpRequest request, int status, long elapsedNanos) {
+        }
+
+        /**
+         * The request failed before a response arrived
+         */
+        default void onFailure(String provider, HttpRequest request, Throwable error, long elapsedNanos) {
+        }
+    }
+
+    /**
+     * @param client client to send through; tests pass a mock
+     */
+    HttpTransport(HttpClient client) {
+        if (client == null) {
+            throw new IllegalArgumentException("httpClient cannot be null");
+        }
+        this.client = client;
+    }
+
+    /**
+     * The process-wide transport, created on first use
+     */
+    public static HttpTransport shared() {
+        HttpTransport instance = shared;
+        if (instance == null) {
+            synchronized (HttpTransport.class) {
+                instance = shared;
+                if (instance == null) {
+                    int connectTimeout = Math.max(1,
+                            ApiConfig.getIntProperty("http.connectTimeoutMs", DEFAULT_CONNECT_TIMEOUT_MS));
+                    instance = new HttpTransport(HttpClient.newBuilder()
+                            .version(HttpClient.Version.HTTP_2)
+                            .connectTimeout(Duration.ofMillis(connectTimeout))
+                            .followRedirects(HttpClient.Redirect.NORMAL)
+                            .build());
+                    shared = instance;
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Register a listener for every exchange sent through this transport
+     */
+    public void addListener(ExchangeListener listener) {
+        if (listener != null) {
+            listeners.add(listener);
+        }
+    }
+
+    public void removeListener(ExchangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    HttpClient client() {
+        return client;
+    }
+
+    /**
+     * Send {@code request} for {@code provider} with a streamed body,
+     * reporting the outcome to the listeners
+     */
+    CompletableFuture<HttpResponse<InputStream>> send(ApiProvider provider, HttpRequest request) {
+        long started = System.nanoTime();
+        CompletableFuture<HttpResponse<InputStream>> response = client.sendAsync(request, ResponseBodies.streaming());
+        if (listeners.isEmpty()) {
+            return response;
+        }
+        return response.whenComplete((result, ex) -> {
+            long elapsed = System.nanoTime() - started;
+            for (ExchangeListener listener : listeners) {
+                try {
+                    if (ex == null) {
+                        listener.onResponse(provider.name(), request, result.statusCode(), elapsed);
+                    } else {
+                        listener.onFailure(provider.name(), request, HttpFetcher.unwrap(ex), elapsed);
+                    }
+                } catch (RuntimeException e) {
+                    System.err.println("HTTP exchange listener failed: " + e.getMessage());
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,28 @@
+package com.mycompany.app.services;
+
+import com.mycompany.app.models.Crypto;
+import com.mycompany.app.models.HistoricalData;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking variant of {@link ICryptoService}
+ * The returned futures complete once the data is available; no thread is held
+ * while a request or a retry delay is pending. Failures are not propagated:
+ * like their blocking counterparts the futures complete with empty results.
+ */
+public interface IAsyncCryptoService {
+
+    /**
+     * Get the top cryptocurrencies by market cap
+     */
+    CompletableFuture<List<Crypto>> getTopCryptosAsync();
+
+    /**
+     * Fetch historical market data for a cryptocurrency
+     * @param id The cryptocurrency ID (e.g., "bitcoin")
+     * @param days The number of days of history (e.g., "1", "7", "30")
+     */
+    CompletableFuture<HistoricalData> getHistoricalDataForCryptoAsync(String id, String days);
+}
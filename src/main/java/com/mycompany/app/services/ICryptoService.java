@@ -17,10 +17,26 @@ public interface ICryptoService {
     List<Crypto> getTopCryptos();
     
     /**
-     * Check if historical data is available in cache for a specific crypto and interval
+     * Check if fresh historical data is available in cache for a specific
+     * crypto and interval
      */
     boolean hasHistoricalData(String id, String days);
     
+    /**
+     * Check if historical data is cached for a specific crypto and interval,
+     * however old it is. Use this to decide what the UI can show; a stale
+     * series is refreshed in the background once it is focused. May read
+     * the disk store, so keep it off the JavaFX thread.
+     */
+    boolean containsHistoricalData(String id, String days);
+    
+    /**
+     * Cached historical data regardless of its age, or null if there is none.
+     * Never fetches, but may read the series from the disk store, so keep it
+     * off the JavaFX thread.
+     */
+    HistoricalData peekHistoricalData(String id, String days);
+    
     /**
      * Fetch historical market data for a cryptocurrency
      * @param id The cryptocurrency ID (e.g., "bitcoin")
@@ -28,16 +44,44 @@ public interface ICryptoService {
      */
     HistoricalData getHistoricalDataForCrypto(String id, String days);
     
+    /**
+     * Report the crypto and interval the user is viewing, so pending fetches
+     * for them are made before the rest of the preload. A crypto that is not
+     * preloaded has its data fetched now, and stale cached series of any
+     * crypto are refreshed.
+     * @param id The cryptocurrency ID, or null if none is displayed
+     * @param days The number of days of history shown (e.g. "7")
+     */
+    void setFocus(String id, String days);
+    
     /**
      * Set callback to be notified when crypto data is loaded
      */
     void setDataLoadedCallback(DataLoadedCallback callback);
     
+    /**
+     * Register a listener notified whenever a historical series is stored in
+     * the cache. Called on the thread that stored it, which is usually not
+     * the JavaFX thread.
+     */
+    void addHistoricalDataListener(HistoricalDataListener listener);
+    
+    /**
+     * How many coins at the head of {@link #getTopCryptos()} are preloaded;
+     * the others are loaded when they are focused via {@link #setFocus}
+     */
+    int getPreloadCount();
+    
     /**
      * Preload all cryptocurrency data
      */
     void preloadAllData();
     
+    /**
+     * Update cached data incrementally, fetching only what is missing
+     */
+    void refreshAllData();
+    
     /**
      * Get count of failed data loads
      */
@@ -49,7 +93,21 @@ public interface ICryptoService {
     void clearCache();
     
     /**
-     * Callback interface for notifying when a crypto's data is loaded
+     * Listener for stored historical series
+     */
+    interface HistoricalDataListener {
+        /**
+         * @param cryptoId The cryptocurrency ID
+         * @param days The interval the series was stored under; shorter
+         *             intervals sliced from it have changed too
+         */
+        void onHistoricalDataStored(String cryptoId, String days);
+    }
+    
+    /**
+     * Callback interface for notifying when a crypto's data is loaded.
+     * Called on the thread that loaded the data, which is usually not the
+     * JavaFX thread.
      */
     interface DataLoadedCallback {
         void onDataLoaded(String cryptoId, boolean success);
@@ -27,8 +27,29 @@ public interface INewsService {
      */
     List<News> getAllNews();
     
+    /**
+     * Non-blocking {@link #getAllNews}: the searches run at once and their
+     * results are merged without duplicates, newest first. Searches that miss
+     * their deadline are left out.
+     */
+    CompletableFuture<List<News>> getAllNewsAsync();
+    
     /**
      * Async version of news search for non-blocking operations
      */
     CompletableFuture<List<News>> searchNewsAsync(String query);
+    
+    /**
+     * One page of up to {@link #PAGE_SIZE} articles for a news feed, without
+     * blocking. Completes with fewer articles (possibly none) past the last
+     * result or if the search fails.
+     * @param cryptoName The cryptocurrency, or null for general news
+     * @param start Offset of the first result, e.g. the number of articles already shown
+     */
+    CompletableFuture<List<News>> getNewsPageAsync(String cryptoName, int start);
+    
+    /**
+     * Articles requested per page by {@link #getNewsPageAsync}
+     */
+    int PAGE_SIZE = 10;
 }
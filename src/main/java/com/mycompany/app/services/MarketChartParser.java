@@ -0,0 +1,273 @@
+package com.mycompany.app.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.NumberInput;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mycompany.app.models.HistoricalData;
+
+/**
+ * Decoder for CoinGecko `market_chart` responses:
+ *
+ * <pre>{ "prices": [[ts, price], ...], "total_volumes": [[ts, volume], ...], ... }</pre>
+ *
+ * {@link #parse(String)} reads the `prices` and `total_volumes` arrays token by
+ * token with a Jackson {@code JsonParser}, writing straight into primitive
+ * columns without building a {@code JsonNode} tree. Other fields (such as
+ * `market_caps`) are skipped without being materialized.
+ *
+ * {@link #parseTree(String)} is the original tree-walking implementation. It
+ * is kept as the reference the streaming decoder is tested against and as a
+ * baseline for benchmarks; production code should use {@link #parse(String)}.
+ *
+ * Both decoders pair prices and volumes by their position in the response and
+ * skip malformed price entries (anything that is not an array of at least two
+ * elements) while keeping the rest of the series usable.
+ */
+class MarketChartParser {
+    private final ObjectMapper mapper;
+    private final JsonFactory factory;
+
+    MarketChartParser(ObjectMapper mapper) {
+        this.mapper = mapper;
+        this.factory = mapper.getFactory();
+    }
+
+    /**
+     * Stream-decode a `market_chart` JSON document.
+     */
+    HistoricalData parse(String json) throws IOException {
+        try (JsonParser parser = factory.createParser(json)) {
+            return parse(parser);
+        }
+    }
+
+    /**
+     * Stream-decode a `market_chart` document directly from a response body.
+     * The stream is read incrementally as bytes arrive and is closed once
+     * decoding finishes.
+     */
+    HistoricalData parse(InputStream body) throws IOException {
+        try (JsonParser parser = factory.createParser(body)) {
+            return parse(parser);
+        }
+    }
+
+    private HistoricalData parse(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return new HistoricalData(null);
+        }
+
+        PriceColumns prices = null;
+        VolumeColumn volumes = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            // A later duplicate field replaces an earlier one, as in the tree model
+            if ("prices".equals(field) && value == JsonToken.START_ARRAY) {
+                prices = readPrices(parser);
+            } else if ("total_volumes".equals(field) && value == JsonToken.START_ARRAY) {
+                volumes = readVolumes(parser);
+            } else {
+                if ("prices".equals(field)) {
+                    prices = null;
+                } else if ("total_volumes".equals(field)) {
+                    volumes = null;
+                }
+                parser.skipChildren();
+            }
+        }
+
+        if (prices == null || prices.size == 0) {
+            return new HistoricalData(null);
+        }
+        return prices.toHistoricalData(volumes);
+    }
+
+    /**
+     * Read the `prices` array. The parser is positioned on its START_ARRAY.
+     */
+    private PriceColumns readPrices(JsonParser parser) throws IOException {
+        PriceColumns columns = new PriceColumns();
+        int rawIndex = 0;
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+            if (token == JsonToken.START_ARRAY) {
+                JsonToken first = parser.nextToken();
+                if (first != JsonToken.END_ARRAY) {
+                    long ts = readLong(parser, first);
+                    JsonToken second = parser.nextToken();
+                    if (second != JsonToken.END_ARRAY) {
+                        double price = second == JsonToken.VALUE_NULL ? Double.NaN : readDouble(parser, second);
+                        columns.add(rawIndex, ts, price);
+                        skipToEndOfArray(parser);
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+            rawIndex++;
+        }
+        return columns;
+    }
+
+    /**
+     * Read the `total_volumes` array into a column indexed by array position.
+     * Malformed entries are stored as NaN so positions stay aligned with prices.
+     */
+    private VolumeColumn readVolumes(JsonParser parser) throws IOException {
+        VolumeColumn column = new VolumeColumn();
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+            double volume = Double.NaN;
+            if (token == JsonToken.START_ARRAY) {
+                JsonToken first = parser.nextToken();
+                if (first != JsonToken.END_ARRAY) {
+                    parser.skipChildren();
+                    JsonToken second = parser.nextToken();
+                    if (second != JsonToken.END_ARRAY) {
+                        volume = second == JsonToken.VALUE_NULL ? Double.NaN : readDouble(parser, second);
+                        skipToEndOfArray(parser);
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+            column.add(volume);
+        }
+        return column;
+    }
+
+    private static void skipToEndOfArray(JsonParser parser) throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+            parser.skipChildren();
+        }
+    }
+
+    /**
+     * Read the current value the way {@code JsonNode.asLong(0L)} would.
+     */
+    private static long readLong(JsonParser parser, JsonToken token) throws IOException {
+        switch (token) {
+            case VALUE_NUMBER_INT:
+                return parser.getNumberType() == JsonParser.NumberType.BIG_INTEGER
+                        ? parser.getBigIntegerValue().longValue()
+                        : parser.getLongValue();
+            case VALUE_NUMBER_FLOAT:
+                return (long) parser.getDoubleValue();
+            case VALUE_STRING:
+                return NumberInput.parseAsLong(parser.getText(), 0L);
+            case VALUE_TRUE:
+                return 1L;
+            default:
+                parser.skipChildren();
+                return 0L;
+        }
+    }
+
+    /**
+     * Read the current value the way {@code JsonNode.asDouble()} would.
+     */
+    private static double readDouble(JsonParser parser, JsonToken token) throws IOException {
+        switch (token) {
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return parser.getDoubleValue();
+            case VALUE_STRING:
+                return NumberInput.parseAsDouble(parser.getText(), 0.0);
+            case VALUE_TRUE:
+                return 1.0;
+            default:
+                parser.skipChildren();
+                return 0.0;
+        }
+    }
+
+    /**
+     * Reference implementation that reads the whole document into a
+     * {@code JsonNode} tree and indexes into it.
+     */
+    HistoricalData parseTree(String json) throws IOException {
+        JsonNode root = mapper.readTree(json);
+        JsonNode prices = root.path("prices");
+        JsonNode volumes = root.path("total_volumes");
+
+        if (!prices.isArray()) {
+            return new HistoricalData(null);
+        }
+
+        HistoricalData.Builder builder = new HistoricalData.Builder(prices.size());
+        for (int i = 0; i < prices.size(); i++) {
+            JsonNode pNode = prices.get(i);
+            if (!pNode.isArray() || pNode.size() < 2)
+                continue;
+
+            long ts = pNode.get(0).asLong(0L);
+            double price = pNode.get(1).isNull() ? Double.NaN : pNode.get(1).asDouble();
+
+            double vol = Double.NaN;
+            if (volumes.isArray() && i < volumes.size()) {
+                JsonNode vNode = volumes.get(i);
+                if (vNode.isArray() && vNode.size() >= 2) {
+                    vol = vNode.get(1).isNull() ? Double.NaN : vNode.get(1).asDouble();
+                }
+            }
+
+            builder.add(ts, price, vol);
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Growable price columns. Remembers each entry's position in the source
+     * array so volumes can be paired by position after skipped entries.
+     */
+    private static final class PriceColumns {
+        private long[] times = new long[256];
+        private double[] prices = new double[256];
+        private int[] rawIndexes = new int[256];
+        private int size;
+
+        void add(int rawIndex, long time, double price) {
+            if (size == times.length) {
+                int capacity = size * 2;
+                times = Arrays.copyOf(times, capacity);
+                prices = Arrays.copyOf(prices, capacity);
+                rawIndexes = Arrays.copyOf(rawIndexes, capacity);
+            }
+            times[size] = time;
+            prices[size] = price;
+            rawIndexes[size] = rawIndex;
+            size++;
+        }
+
+        HistoricalData toHistoricalData(VolumeColumn volumes) {
+            double[] volumeColumn = new double[size];
+            for (int i = 0; i < size; i++) {
+                int raw = rawIndexes[i];
+                volumeColumn[i] = volumes != null && raw < volumes.size ? volumes.values[raw] : Double.NaN;
+            }
+            return new HistoricalData(Arrays.copyOf(times, size), Arrays.copyOf(prices, size), volumeColumn);
+        }
+    }
+
+    private static final class VolumeColumn {
+        private double[] values = new double[256];
+        private int size;
+
+        void add(double value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
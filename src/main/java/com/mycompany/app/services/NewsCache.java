@@ -0,0 +1,134 @@
+package com.mycompany.app.services;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import com.mycompany.app.models.News;
+
+/**
+ * Search results keyed by query, so repeated views of the same feed do not
+ * spend SerpAPI quota.
+ *
+ * - Within the TTL an entry is returned as is.
+ * - After the TTL, and for up to {@code maxStaleMillis} more, the stale entry
+ *   is still returned at once while a single background load refreshes it
+ *   (stale-while-revalidate).
+ * - Older or missing entries are loaded, and the caller waits for the load.
+ *
+ * Concurrent loads of the same key share one request. Only successful loads
+ * are stored, so a failed refresh keeps serving the previous results until
+ * they are too old. Holds at most {@code maxEntries} keys, dropping the least
+ * recently used first. Thread-safe.
+ */
+final class NewsCache {
+    private final long ttlMillis;
+    private final long maxStaleMillis;
+    private final int maxEntries;
+    private final LongSupplier clock;
+    private final SingleFlight<String, List<News>> flights = new SingleFlight<>();
+
+    // Access-ordered for LRU eviction; guarded by this
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long hits;
+    private long misses;
+
+    /**
+     * @param clock current time in milliseconds; tests may pass a fake clock
+     */
+    NewsCache(long ttlMillis, long maxStaleMillis, int maxEntries, LongSupplier clock) {
+        if (ttlMillis < 0 || maxStaleMillis < 0 || maxEntries < 1) {
+            throw new IllegalArgumentException("TTLs must be non-negative and maxEntries positive");
+        }
+        this.ttlMillis = ttlMillis;
+        this.maxStaleMillis = maxStaleMillis;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+    }
+
+    /**
+     * Results for {@code key}, from memory when fresh or recently stale,
+     * otherwise from {@code loader}. The future fails if the load does.
+     */
+    CompletableFuture<List<News>> get(String key, Supplier<CompletableFuture<List<News>>> loader) {
+        long now = clock.getAsLong();
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+            if (entry != null && now - entry.storedAt < ttlMillis + maxStaleMillis) {
+                hits++;
+            } else {
+                misses++;
+                entry = null;
+            }
+        }
+        if (entry == null) {
+            return load(key, loader);
+        }
+        if (now - entry.storedAt >= ttlMillis) {
+            // Serve the stale results and refresh them behind the caller
+            load(key, loader).exceptionally(ex -> {
+                System.err.println("News refresh failed, keeping cached results: "
+                        + HttpFetcher.unwrap(ex).getMessage());
+                return null;
+            });
+        }
+        return CompletableFuture.completedFuture(entry.news);
+    }
+
+    /**
+     * Number of cached queries
+     */
+    synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Lookups answered from memory, fresh or stale
+     */
+    synchronized long getHitCount() {
+        return hits;
+    }
+
+    /**
+     * Lookups that had to wait for a load
+     */
+    synchronized long getMissCount() {
+        return misses;
+    }
+
+    synchronized void clear() {
+        entries.clear();
+    }
+
+    private CompletableFuture<List<News>> load(String key, Supplier<CompletableFuture<List<News>>> loader) {
+        return flights.executeAsync(key, () -> loader.get().thenApply(news -> {
+            List<News> stored = List.copyOf(news);
+            put(key, new Entry(stored, clock.getAsLong()));
+            return stored;
+        }));
+    }
+
+    private synchronized void put(String key, Entry entry) {
+        entries.put(key, entry);
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private static final class Entry {
+        final List<News> news;
+        final long storedAt;
+
+        Entry(List<News> news, long storedAt) {
+            this.news = news;
+            this.storedAt = storedAt;
+        }
+    }
+}
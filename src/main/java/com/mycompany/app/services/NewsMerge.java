@@ -0,0 +1,129 @@
+package com.mycompany.app.services;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.mycompany.app.models.News;
+
+/**
+ * Merges the results of several news searches as they arrive.
+ *
+ * An article already seen under the same link, or under the same title from
+ * another search, is dropped. {@link #result} lists the articles newest
+ * first, by the date SerpAPI reports; articles whose date cannot be read go
+ * last, in arrival order. Thread-safe, so each search can add its results
+ * from whichever thread completes it.
+ */
+final class NewsMerge {
+    // SerpAPI's absolute dates, e.g. "10/15/2025, 07:00 AM, +0000 UTC"
+    private static final DateTimeFormatter ABSOLUTE_DATE =
+            DateTimeFormatter.ofPattern("MM/dd/yyyy, hh:mm a, Z 'UTC'", Locale.US);
+    // Relative dates, e.g. "3 hours ago"
+    private static final Pattern RELATIVE_DATE =
+            Pattern.compile("(\\d+)\\s+(minute|min|hour|day|week|month|year)s?\\s+ago",
+                    Pattern.CASE_INSENSITIVE);
+    private static final long UNKNOWN = Long.MIN_VALUE;
+
+    private final long now;
+    // Guarded by this
+    private final List<Dated> articles = new ArrayList<>();
+    private final Set<String> seenLinks = new HashSet<>();
+    private final Set<String> seenTitles = new HashSet<>();
+
+    /**
+     * @param now time in milliseconds that relative dates are counted back from
+     */
+    NewsMerge(long now) {
+        this.now = now;
+    }
+
+    /**
+     * Add one search's results, skipping articles already merged
+     */
+    synchronized void add(List<News> news) {
+        for (News item : news) {
+            String title = item.getTitle().trim().toLowerCase(Locale.ROOT);
+            if (seenLinks.contains(item.getLink()) || seenTitles.contains(title)) {
+                continue;
+            }
+            seenLinks.add(item.getLink());
+            seenTitles.add(title);
+            articles.add(new Dated(item, publishedAt(item.getDate(), now)));
+        }
+    }
+
+    /**
+     * The merged articles, newest first
+     */
+    synchronized List<News> result() {
+        List<Dated> sorted = new ArrayList<>(articles);
+        // Stable, so undated articles keep their arrival order
+        sorted.sort(Comparator.comparingLong((Dated d) -> d.publishedAt).reversed());
+        List<News> news = new ArrayList<>(sorted.size());
+        for (Dated dated : sorted) {
+            news.add(dated.news);
+        }
+        return news;
+    }
+
+    /**
+     * Publication time in milliseconds for a SerpAPI date, or
+     * {@code Long.MIN_VALUE} if it is in neither known form
+     */
+    static long publishedAt(String date, long now) {
+        if (date == null || date.isBlank()) {
+            return UNKNOWN;
+        }
+        Matcher relative = RELATIVE_DATE.matcher(date);
+        if (relative.find()) {
+            long amount = Long.parseLong(relative.group(1));
+            return now - amount * unitMillis(relative.group(2).toLowerCase(Locale.ROOT));
+        }
+        if (date.trim().equalsIgnoreCase("yesterday")) {
+            return now - TimeUnit.DAYS.toMillis(1);
+        }
+        try {
+            return ZonedDateTime.parse(date.trim(), ABSOLUTE_DATE).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return UNKNOWN;
+        }
+    }
+
+    private static long unitMillis(String unit) {
+        switch (unit) {
+            case "minute":
+            case "min":
+                return TimeUnit.MINUTES.toMillis(1);
+            case "hour":
+                return TimeUnit.HOURS.toMillis(1);
+            case "day":
+                return TimeUnit.DAYS.toMillis(1);
+            case "week":
+                return TimeUnit.DAYS.toMillis(7);
+            case "month":
+                return TimeUnit.DAYS.toMillis(30);
+            default:
+                return TimeUnit.DAYS.toMillis(365);
+        }
+    }
+
+    private static final class Dated {
+        final News news;
+        final long publishedAt;
+
+        Dated(News news, long publishedAt) {
+            this.news = news;
+            this.publishedAt = publishedAt;
+        }
+    }
+}
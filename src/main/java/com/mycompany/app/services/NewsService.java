@@ -3,33 +3,74 @@ package com.mycompany.app.services;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mycompany.app.config.ApiConfig;
+import com.mycompany.app.config.AppExecutors;
 import com.mycompany.app.models.News;
-import com.mycompany.app.models.Crypto;
 
-import java.net.URI;
-import java.net.URLEncoder;
+import java.io.InputStream;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * NewsService implementation using SerpAPI for Google News searches
- * Fetches news for top 5 cryptocurrencies and general crypto news
+ * Fetches paged news for one cryptocurrency or general crypto news, and a
+ * combined feed for the top coins of the injected crypto service
+ *
+ * The combined feed searches for up to {@value #TOP_COINS_FOR_NEWS} coins
+ * and the general query at once; without a crypto service (or if its top
+ * list cannot be loaded) it is the general query alone.
+ *
+ * A search still running after `news.queryTimeoutMs` (default 8000) is left
+ * out, so one slow query does not hold up the others' results; it keeps
+ * running and fills the cache for the next time.
+ *
+ * Results are cached per query (`news.cache.ttlSeconds`, default 300) and
+ * served stale while refreshing for up to `news.cache.maxStaleSeconds`
+ * (default 3600) more, so switching back and forth between feeds does not
+ * repeat searches.
  */
 public class NewsService implements INewsService {
-    private final HttpClient httpClient;
+    private final HttpTransport transport;
     private final ObjectMapper objectMapper = new ObjectMapper();
-    private static final String API_URL = "https://serpapi.com/search";
-    private final String apiKey;
+    // SerpAPI search URL, key parameter and request timeout
+    private final ApiProvider serpApi;
     private static final String GENERAL_CRYPTO_NEWS_QUERY = "crypto recent major news";
-    private ICryptoService cryptoService = new CryptoService();
+    // Cached results are served for the TTL, then while refreshing for up to
+    // the stale limit
+    private static final int DEFAULT_CACHE_TTL_SECONDS = 300;
+    private static final int DEFAULT_CACHE_MAX_STALE_SECONDS = 3600;
+    private static final int CACHE_MAX_ENTRIES = 256;
+    private static final int TOP_COINS_FOR_NEWS = 5;
+    private static final int DEFAULT_QUERY_TIMEOUT_MS = 8000;
+    // Source of the coin names for the combined feed; null for general news only
+    private final IAsyncCryptoService cryptoService;
+    private Duration queryTimeout = Duration.ofMillis(
+            Math.max(1, ApiConfig.getIntProperty("news.queryTimeoutMs", DEFAULT_QUERY_TIMEOUT_MS)));
+    // Shared SerpAPI limiter for every news search in the process
+    private RateLimiter rateLimiter = RateLimiter.forProvider(RateLimiter.SERPAPI);
+    private RetryPolicy retryPolicy = RetryPolicy.forProvider(RateLimiter.SERPAPI);
+    private final AppExecutors executors = AppExecutors.shared();
+    // Results per query; see NewsCache for the freshness rules
+    private final NewsCache newsCache = new NewsCache(
+            Math.max(0, ApiConfig.getIntProperty("news.cache.ttlSeconds", DEFAULT_CACHE_TTL_SECONDS)) * 1000L,
+            Math.max(0, ApiConfig.getIntProperty("news.cache.maxStaleSeconds", DEFAULT_CACHE_MAX_STALE_SECONDS)) * 1000L,
+            CACHE_MAX_ENTRIES, System::currentTimeMillis);
+    // Non-blocking send/decode/retry pipeline; rebuilt when the limiter is replaced
+    private HttpFetcher fetcher;
 
     public NewsService() {
-        this(HttpClient.newHttpClient(), ApiConfig.getSerpApiKey());
+        this((IAsyncCryptoService) null);
+    }
+
+    /**
+     * @param cryptoService shared service whose top coins the combined feed covers
+     */
+    public NewsService(IAsyncCryptoService cryptoService) {
+        this(HttpTransport.shared(), ApiConfig.getSerpApiKey(), cryptoService);
     }
 
     public NewsService(HttpClient httpClient) {
@@ -37,19 +78,64 @@ public class NewsService implements INewsService {
     }
 
     public NewsService(HttpClient httpClient, String apiKey) {
-        if (httpClient == null) {
-            throw new IllegalArgumentException("httpClient cannot be null");
-        }
-        this.httpClient = httpClient;
-        this.apiKey = apiKey != null ? apiKey : "";
-        if (this.apiKey.isEmpty()) {
+        this(httpClient, apiKey, null);
+    }
+
+    public NewsService(HttpClient httpClient, String apiKey, IAsyncCryptoService cryptoService) {
+        this(new HttpTransport(httpClient), apiKey, cryptoService);
+    }
+
+    private NewsService(HttpTransport transport, String apiKey, IAsyncCryptoService cryptoService) {
+        this.transport = transport;
+        this.serpApi = ApiProvider.serpApi(ApiConfig.getProperties(), apiKey);
+        this.cryptoService = cryptoService;
+        this.fetcher = new HttpFetcher(transport, serpApi, rateLimiter, executors);
+        if (apiKey == null || apiKey.isBlank()) {
             System.err.println("Warning: SerpAPI key is not set. News fetching will fail.");
         }
     }
 
+    /**
+     * Replace the rate limiter. Intended for tests only.
+     */
+    void setRateLimiter(RateLimiter rateLimiter) {
+        if (rateLimiter != null) {
+            this.rateLimiter = rateLimiter;
+            this.fetcher = new HttpFetcher(transport, serpApi, rateLimiter, executors);
+        }
+    }
+
+    /**
+     * Replace the retry policy. Intended for tests only.
+     */
+    void setRetryPolicy(RetryPolicy retryPolicy) {
+        if (retryPolicy != null) {
+            this.retryPolicy = retryPolicy;
+        }
+    }
+
+    /**
+     * Replace the per-query deadline of the combined feed. Intended for tests only.
+     */
+    void setQueryTimeout(Duration queryTimeout) {
+        if (queryTimeout != null) {
+            this.queryTimeout = queryTimeout;
+        }
+    }
+
     @Override
     public List<News> getNewsForCrypto(String cryptoName) {
-        return searchNews(cryptoName + " recent news");
+        return searchNews(cryptoQuery(cryptoName));
+    }
+
+    @Override
+    public CompletableFuture<List<News>> getNewsPageAsync(String cryptoName, int start) {
+        String query = cryptoName != null ? cryptoQuery(cryptoName) : GENERAL_CRYPTO_NEWS_QUERY;
+        return searchNewsAsync(query, Math.max(0, start), PAGE_SIZE);
+    }
+
+    private static String cryptoQuery(String cryptoName) {
+        return cryptoName + " recent news";
     }
 
     @Override
@@ -58,31 +144,63 @@ public class NewsService implements INewsService {
     }
 
     /**
-     * Get news for all top 5 cryptocurrencies and general crypto news
-     * Total of 6 searches
+     * Get news for up to {@value #TOP_COINS_FOR_NEWS} top cryptocurrencies
+     * and general crypto news: one search per coin plus the general one, run
+     * at once
      */
     @Override
     public List<News> getAllNews() {
-        List<News> allNews = new ArrayList<>();
-
-        // Fetch news for each of the top 5 cryptos
-        for (String crypto : getTopCryptos()) {
-            allNews.addAll(searchNews(crypto + " recent news"));
-        }
+        return getAllNewsAsync().join();
+    }
 
-        // Fetch general crypto news
-        allNews.addAll(searchNews(GENERAL_CRYPTO_NEWS_QUERY));
+    @Override
+    public CompletableFuture<List<News>> getAllNewsAsync() {
+        return getTopCryptoNames().thenCompose(names -> {
+            List<String> queries = new ArrayList<>();
+            for (String name : names) {
+                queries.add(cryptoQuery(name));
+            }
+            queries.add(GENERAL_CRYPTO_NEWS_QUERY);
 
-        return allNews;
+            // Each search adds its results as soon as it completes
+            NewsMerge merge = new NewsMerge(System.currentTimeMillis());
+            List<CompletableFuture<Void>> searches = new ArrayList<>();
+            for (String query : queries) {
+                searches.add(searchNewsAsync(query)
+                        .completeOnTimeout(null, queryTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                        .thenAccept(news -> {
+                            if (news == null) {
+                                System.err.println("News search '" + query + "' timed out, leaving it out of the feed");
+                            } else {
+                                merge.add(news);
+                            }
+                        }));
+            }
+            return CompletableFuture.allOf(searches.toArray(new CompletableFuture<?>[0]))
+                    .thenApply(done -> merge.result());
+        });
     }
 
-    private String[] getTopCryptos() {
-        List<Crypto> cryptos = cryptoService.getTopCryptos();
-        List<String> names = new ArrayList<>();
-        for (int i = 0; i < Math.min(5, cryptos.size()); i++) {
-            names.add(cryptos.get(i).getName());
+    /**
+     * Names of the top coins from the shared crypto service; empty if there
+     * is none or the list cannot be loaded
+     */
+    private CompletableFuture<List<String>> getTopCryptoNames() {
+        if (cryptoService == null) {
+            return CompletableFuture.completedFuture(List.of());
         }
-        return names.toArray(new String[0]);
+        return cryptoService.getTopCryptosAsync()
+                .thenApply(cryptos -> {
+                    List<String> names = new ArrayList<>();
+                    for (int i = 0; i < Math.min(TOP_COINS_FOR_NEWS, cryptos.size()); i++) {
+                        names.add(cryptos.get(i).getName());
+                    }
+                    return names;
+                })
+                .exceptionally(ex -> {
+                    System.err.println("Could not load top cryptos for news: " + HttpFetcher.unwrap(ex).getMessage());
+                    return List.of();
+                });
     }
 
     /**
@@ -90,49 +208,19 @@ public class NewsService implements INewsService {
      * Uses tbm=nws parameter to get Google News results
      */
     private List<News> searchNews(String query) {
-        List<News> newsList = new ArrayList<>();
-
-        try {
-            // Build the URL with parameters
-            String encodedQuery = URLEncoder.encode(query, StandardCharsets.UTF_8);
-            String urlString = String.format(
-                    "%s?q=%s&tbm=nws&api_key=%s&num=5",
-                    API_URL,
-                    encodedQuery,
-                    apiKey
-            );
-
-            // Create and send HTTP request
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(urlString))
-                    .GET()
-                    .build();
-
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-
-            if (response.statusCode() == 200) {
-                newsList = parseNewsResults(response.body());
-            } else {
-                System.err.println("SerpAPI request failed with status: " + response.statusCode());
-                System.err.println("Response: " + response.body());
-            }
-
-        } catch (Exception e) {
-            System.err.println("Error fetching news: " + e.getMessage());
-            e.printStackTrace();
-        }
-
-        return newsList;
+        return searchNewsAsync(query).join();
     }
 
     /**
-     * Parse the JSON response from SerpAPI and extract news results
+     * Parse the JSON response from SerpAPI and extract news results.
+     * The body is read straight from the response stream. Package-private so
+     * the decode benchmarks can call it.
      */
-    private List<News> parseNewsResults(String jsonResponse) {
+    List<News> parseNewsResults(InputStream body) {
         List<News> newsList = new ArrayList<>();
 
         try {
-            JsonNode root = objectMapper.readTree(jsonResponse);
+            JsonNode root = objectMapper.readTree(body);
 
             // Extract news results from the "news_results" array
             JsonNode newsResults = root.path("news_results");
@@ -180,10 +268,40 @@ public class NewsService implements INewsService {
     }
 
     /**
-     * Async version of searchNews for non-blocking operations
+     * Async version of searchNews for non-blocking operations. The request is
+     * sent asynchronously and retried under the SerpAPI retry policy; the
+     * future completes with an empty list if the search fails.
      */
     @Override
     public CompletableFuture<List<News>> searchNewsAsync(String query) {
-        return CompletableFuture.supplyAsync(() -> searchNews(query));
+        return searchNewsAsync(query, 0, 5);
+    }
+
+    /**
+     * Search for up to {@code num} results starting at result {@code start}
+     * (SerpAPI's `start` offset)
+     */
+    private CompletableFuture<List<News>> searchNewsAsync(String query, int start, int num) {
+        HttpRequest request = start > 0
+                ? serpApi.get("", "q", query, "tbm", "nws", "num", num, "start", start)
+                : serpApi.get("", "q", query, "tbm", "nws", "num", num);
+
+        // Repeated searches are answered by the cache; identical searches
+        // in flight share one request
+        String key = query + '\n' + start + '\n' + num;
+        return newsCache.get(key, () -> fetcher.fetch(request, RateLimiter.Priority.INTERACTIVE,
+                        this::parseNewsResults, retryPolicy, "news search '" + query + "'"))
+                .<List<News>>thenApply(ArrayList::new) // Each caller gets its own list
+                .exceptionally(ex -> {
+                    Throwable cause = HttpFetcher.unwrap(ex);
+                    if (cause instanceof HttpStatusException) {
+                        HttpStatusException status = (HttpStatusException) cause;
+                        System.err.println("SerpAPI request failed with status: " + status.getStatusCode());
+                        System.err.println("Response: " + status.getBodySnippet());
+                    } else {
+                        System.err.println("Error fetching news: " + cause.getMessage());
+                    }
+                    return new ArrayList<>();
+                });
     }
 }
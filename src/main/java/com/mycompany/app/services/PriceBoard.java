@@ -0,0 +1,135 @@
+package com.mycompany.app.services;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Latest price and 24h change of a fixed set of coins, for consumers that
+ * only want what changed since they last looked.
+ *
+ * Coins are numbered by their position in the list the board was created
+ * with, and their values live in primitive arrays indexed by that slot. The
+ * board has a version that grows with every changed slot, and each slot
+ * records the version at which it last changed. A consumer keeps the
+ * version returned by {@link #forEachChangedSince} and passes it back next
+ * time, so it visits only the slots that changed in between; nothing is
+ * copied per update.
+ *
+ * Thread-safe. Updates are expected from one poller; reads may come from
+ * any thread.
+ */
+public final class PriceBoard {
+    /**
+     * Receives one changed slot
+     */
+    public interface DeltaConsumer {
+        void accept(int slot, String cryptoId, double price, double changePercent);
+    }
+
+    private final String[] ids;
+    private final Map<String, Integer> slots;
+
+    // Guarded by this
+    private final double[] prices;
+    private final double[] changes;
+    private final long[] sequences;
+    private long version;
+
+    public PriceBoard(List<String> cryptoIds) {
+        this.ids = cryptoIds.toArray(new String[0]);
+        this.slots = new HashMap<>(ids.length * 2);
+        for (int i = 0; i < ids.length; i++) {
+            slots.putIfAbsent(ids[i], i);
+        }
+        this.prices = new double[ids.length];
+        this.changes = new double[ids.length];
+        this.sequences = new long[ids.length];
+        Arrays.fill(prices, Double.NaN);
+        Arrays.fill(changes, Double.NaN);
+    }
+
+    /**
+     * Number of slots
+     */
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Coin id of a slot
+     */
+    public String idAt(int slot) {
+        return ids[slot];
+    }
+
+    /**
+     * Slot of a coin, or -1 if the board does not track it
+     */
+    public int slotOf(String cryptoId) {
+        Integer slot = slots.get(cryptoId);
+        return slot == null ? -1 : slot;
+    }
+
+    /**
+     * Set a slot's values. Returns whether they differ from the current
+     * ones; only then does the slot get a new version.
+     */
+    public synchronized boolean update(int slot, double price, double changePercent) {
+        if (Double.compare(prices[slot], price) == 0 && Double.compare(changes[slot], changePercent) == 0) {
+            return false;
+        }
+        prices[slot] = price;
+        changes[slot] = changePercent;
+        sequences[slot] = ++version;
+        return true;
+    }
+
+    /**
+     * Latest price of a slot, NaN if none has been set
+     */
+    public synchronized double price(int slot) {
+        return prices[slot];
+    }
+
+    /**
+     * Latest 24h change of a slot, NaN if none has been set
+     */
+    public synchronized double change(int slot) {
+        return changes[slot];
+    }
+
+    /**
+     * Current version; 0 until the first update
+     */
+    public synchronized long version() {
+        return version;
+    }
+
+    /**
+     * Version at which a slot last changed; 0 if it never has
+     */
+    public synchronized long sequence(int slot) {
+        return sequences[slot];
+    }
+
+    /**
+     * Pass every slot that changed after {@code sinceVersion} to
+     * {@code consumer}, in slot order, and return the version the visited
+     * values belong to. Pass 0 to visit every slot that has values. The
+     * consumer runs while the board is locked, so it should only copy the
+     * values or hand them off.
+     */
+    public synchronized long forEachChangedSince(long sinceVersion, DeltaConsumer consumer) {
+        if (sinceVersion >= version) {
+            return version;
+        }
+        for (int i = 0; i < ids.length; i++) {
+            if (sequences[i] > sinceVersion) {
+                consumer.accept(i, ids[i], prices[i], changes[i]);
+            }
+        }
+        return version;
+    }
+}
@@ -2,22 +2,18 @@ package com.mycompany.app.services;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.URI;
-import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.nio.charset.StandardCharsets;
 import java.util.List;
-import java.util.Map;
-import java.util.Properties;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mycompany.app.config.ApiConfig;
+import com.mycompany.app.config.AppExecutors;
 import com.mycompany.app.models.Crypto;
 
 /**
@@ -27,13 +23,11 @@ import com.mycompany.app.models.Crypto;
  * 
  * This service is separate from CryptoService to:
  * 1. Keep polling logic isolated from data fetching
- * 2. Manage rate limiting independently
+ * 2. Poll on its own schedule (requests still share the process-wide
+ *    CoinGecko {@link RateLimiter} with CryptoService)
  * 3. Avoid interfering with historical data caching
  */
 public class PricePollingService {
-    private static final String DEFAULT_API_URL = "https://api.coingecko.com/api/v3";
-    private static final String PROPERTIES_PATH = "/application.properties";
-    
     // Poll every 30 seconds - CoinGecko free tier allows 10-15 calls/min
     // We use 30s to be very conservative and avoid rate limiting
     // since other parts of the app also make API calls
@@ -42,32 +36,46 @@ public class PricePollingService {
     // Initial delay before first poll - wait for initial data to load
     private static final long INITIAL_DELAY_SECONDS = 30;
     
-    private final HttpClient httpClient = HttpClient.newHttpClient();
+    // Most ids sent in one /simple/price request. Larger watchlists are
+    // polled one batch per cycle in turn, so the request rate does not grow
+    // with the number of coins.
+    static final int MAX_IDS_PER_POLL = 250;
+    
     private final ObjectMapper mapper = new ObjectMapper();
-    private final Properties props = loadProperties();
+    private final ApiProvider coinGecko = ApiProvider.coinGecko(ApiConfig.getProperties());
+    // Shared with CryptoService so polling and preloads draw from one quota
+    // and reuse the same connections
+    private final RateLimiter rateLimiter = RateLimiter.forProvider(RateLimiter.COINGECKO);
+    private final HttpFetcher fetcher =
+            new HttpFetcher(HttpTransport.shared(), coinGecko, rateLimiter, AppExecutors.shared());
     private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
         Thread t = new Thread(r, "price-polling-thread");
         t.setDaemon(true); // Allow JVM to exit even if this thread is running
         return t;
     });
     
-    // Current prices map: cryptoId -> price
-    private final Map<String, Double> currentPrices = new ConcurrentHashMap<>();
-    
-    // Current 24h change percentages: cryptoId -> changePercent
-    private final Map<String, Double> currentChanges = new ConcurrentHashMap<>();
+    // Latest prices and changes of the polled cryptos; replaced when
+    // polling starts
+    private volatile PriceBoard board = new PriceBoard(List.of());
     
     // List of crypto IDs to poll
     private List<String> cryptoIds;
     
+    // First slot of the batch polled next; only touched by the polling thread
+    private int nextBatchStart;
+    
     // Callback for when prices are updated
     private PriceUpdateCallback priceUpdateCallback;
     
     // Track if polling is active
     private volatile boolean isPolling = false;
     
-    // Track consecutive failures for backoff
-    private int consecutiveFailures = 0;
+    // Set while a poll is outstanding, so a slow poll is not overlapped by the next
+    private final AtomicBoolean pollInFlight = new AtomicBoolean();
+    
+    // Track consecutive failures for backoff. Only touched by the single
+    // outstanding poll.
+    private volatile int consecutiveFailures = 0;
     private static final int MAX_CONSECUTIVE_FAILURES = 3;
     
     /**
@@ -75,11 +83,11 @@ public class PricePollingService {
      */
     public interface PriceUpdateCallback {
         /**
-         * Called when prices have been updated
-         * @param prices Map of cryptoId -> current price
-         * @param changes Map of cryptoId -> 24h change percentage
+         * Called after a poll changed at least one price. Use
+         * {@link PriceBoard#forEachChangedSince} to visit the changed coins.
+         * @param board The board holding the latest prices
          */
-        void onPricesUpdated(Map<String, Double> prices, Map<String, Double> changes);
+        void onPricesUpdated(PriceBoard board);
     }
     
     /**
@@ -112,10 +120,11 @@ public class PricePollingService {
                 .collect(Collectors.toList());
         
         // Initialize current prices from the provided data
+        PriceBoard initial = new PriceBoard(cryptoIds);
         for (Crypto crypto : cryptos) {
-            currentPrices.put(crypto.getId(), crypto.getPrice());
-            currentChanges.put(crypto.getId(), crypto.getChangePercent());
+            initial.update(initial.slotOf(crypto.getId()), crypto.getPrice(), crypto.getChangePercent());
         }
+        board = initial;
         
         isPolling = true;
         consecutiveFailures = 0;
@@ -155,7 +164,10 @@ public class PricePollingService {
      * @return The current price, or null if not available
      */
     public Double getCurrentPrice(String cryptoId) {
-        return currentPrices.get(cryptoId);
+        PriceBoard current = board;
+        int slot = current.slotOf(cryptoId);
+        double price = slot < 0 ? Double.NaN : current.price(slot);
+        return Double.isNaN(price) ? null : price;
     }
     
     /**
@@ -164,27 +176,22 @@ public class PricePollingService {
      * @return The 24h change percentage, or null if not available
      */
     public Double getCurrentChange(String cryptoId) {
-        return currentChanges.get(cryptoId);
-    }
-    
-    /**
-     * Get all current prices
-     * @return Map of cryptoId -> price
-     */
-    public Map<String, Double> getAllCurrentPrices() {
-        return new ConcurrentHashMap<>(currentPrices);
+        PriceBoard current = board;
+        int slot = current.slotOf(cryptoId);
+        double change = slot < 0 ? Double.NaN : current.change(slot);
+        return Double.isNaN(change) ? null : change;
     }
     
     /**
-     * Get all current 24h changes
-     * @return Map of cryptoId -> changePercent
+     * The board holding the latest prices of the polled cryptos
      */
-    public Map<String, Double> getAllCurrentChanges() {
-        return new ConcurrentHashMap<>(currentChanges);
+    public PriceBoard getPriceBoard() {
+        return board;
     }
     
     /**
-     * Poll prices from the API
+     * Poll prices from the API. Returns once the request is started; the
+     * result is handled when the response arrives.
      */
     private void pollPrices() {
         if (!isPolling || cryptoIds == null || cryptoIds.isEmpty()) {
@@ -199,93 +206,92 @@ public class PricePollingService {
             return;
         }
         
-        try {
-            String baseUrl = props.getProperty("coingecko.api.url", DEFAULT_API_URL);
-            
-            // Build comma-separated list of IDs
-            String ids = String.join(",", cryptoIds);
-            
-            // Use /simple/price endpoint - lightweight and supports multiple coins
-            // include_24hr_change=true to get the change percentage as well
-            String url = String.format(
-                    "%s/simple/price?ids=%s&vs_currencies=usd&include_24hr_change=true",
-                    baseUrl, ids);
-            
-            HttpRequest.Builder reqBuilder = HttpRequest.newBuilder()
-                    .uri(URI.create(url))
-                    .GET();
-            
-            // Add API key header for Demo API
-            String apiKey = props.getProperty("coingecko.api.key");
-            if (apiKey != null && !apiKey.isBlank()) {
-                reqBuilder.header("x-cg-demo-api-key", apiKey);
-            }
-            
-            HttpRequest request = reqBuilder.build();
-            
-            HttpResponse<String> response = httpClient.send(request,
-                    HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
-            
-            if (response.statusCode() >= 200 && response.statusCode() < 300) {
-                parsePriceResponse(response.body());
-                consecutiveFailures = 0; // Reset on success
-                
-                // Notify callback
-                if (priceUpdateCallback != null) {
-                    priceUpdateCallback.onPricesUpdated(
-                            new ConcurrentHashMap<>(currentPrices),
-                            new ConcurrentHashMap<>(currentChanges)
-                    );
-                }
-                
-                System.out.println("Price poll successful - updated " + currentPrices.size() + " prices");
-            } else if (response.statusCode() == 429) {
-                // Rate limited - increment failure counter
-                consecutiveFailures++;
-                System.out.println("Price poll rate limited (429). Consecutive failures: " + consecutiveFailures);
-            } else {
-                consecutiveFailures++;
-                System.err.println("Price poll failed with status: " + response.statusCode());
-            }
-        } catch (IOException | InterruptedException e) {
-            consecutiveFailures++;
-            System.err.println("Price poll error: " + e.getMessage());
-            if (e instanceof InterruptedException) {
-                Thread.currentThread().interrupt();
-            }
+        // A poll still waiting for its permit or response covers this cycle
+        if (!pollInFlight.compareAndSet(false, true)) {
+            return;
+        }
+        
+        // Build comma-separated list of IDs for this cycle's batch
+        PriceBoard target = board;
+        int from = nextBatchStart < target.size() ? nextBatchStart : 0;
+        int to = Math.min(target.size(), from + MAX_IDS_PER_POLL);
+        nextBatchStart = to;
+        String joinedIds = String.join(",", cryptoIds.subList(from, to));
+        
+        // Use /simple/price endpoint - lightweight and supports multiple coins
+        // include_24hr_change=true to get the change percentage as well
+        HttpRequest request = coinGecko.get("/simple/price",
+                "ids", joinedIds, "vs_currencies", "usd", "include_24hr_change", "true");
+        
+        // Sent without blocking the polling thread; the fetcher drains the
+        // shared limiter on a 429
+        fetcher.fetch(request, RateLimiter.Priority.POLLING, body -> parsePriceResponse(body, target, from, to))
+                .whenComplete((changed, ex) -> {
+                    try {
+                        if (ex == null) {
+                            onPollSucceeded(target, changed);
+                        } else {
+                            onPollFailed(HttpFetcher.unwrap(ex));
+                        }
+                    } finally {
+                        pollInFlight.set(false);
+                    }
+                });
+    }
+    
+    private void onPollSucceeded(PriceBoard target, int changed) {
+        consecutiveFailures = 0; // Reset on success
+        
+        // Notify callback only when something moved
+        if (priceUpdateCallback != null && changed > 0) {
+            priceUpdateCallback.onPricesUpdated(target);
+        }
+        
+        System.out.println("Price poll successful - " + changed + " of " + target.size() + " prices changed");
+    }
+    
+    private void onPollFailed(Throwable cause) {
+        consecutiveFailures++;
+        if (cause instanceof HttpStatusException && ((HttpStatusException) cause).isRateLimited()) {
+            // Rate limited - the failure counter makes later cycles back off
+            System.out.println("Price poll rate limited (429). Consecutive failures: " + consecutiveFailures);
+        } else if (cause instanceof HttpStatusException) {
+            System.err.println("Price poll failed with status: " + ((HttpStatusException) cause).getStatusCode());
+        } else {
+            System.err.println("Price poll error: " + cause.getMessage());
         }
     }
     
     /**
      * Parse the /simple/price response
      * Format: { "bitcoin": { "usd": 12345.67, "usd_24h_change": 1.23 }, ... }
+     * The body is read straight from the response stream into
+     * {@code target}; returns the number of coins whose values changed.
+     * Package-private so the decode benchmarks can call it.
+     */
+    int parsePriceResponse(InputStream body, PriceBoard target) throws IOException {
+        return parsePriceResponse(body, target, 0, target.size());
+    }
+    
+    /**
+     * Parse a response for the slots [{@code from}, {@code to}) of
+     * {@code target}
      */
-    private void parsePriceResponse(String json) throws IOException {
-        JsonNode root = mapper.readTree(json);
+    int parsePriceResponse(InputStream body, PriceBoard target, int from, int to) throws IOException {
+        JsonNode root = mapper.readTree(body);
         
-        for (String cryptoId : cryptoIds) {
-            JsonNode coinNode = root.path(cryptoId);
+        int changed = 0;
+        for (int slot = from; slot < to; slot++) {
+            JsonNode coinNode = root.path(target.idAt(slot));
             if (!coinNode.isMissingNode()) {
                 double price = coinNode.path("usd").asDouble(0.0);
                 double change = coinNode.path("usd_24h_change").asDouble(0.0);
                 
-                if (price > 0) {
-                    currentPrices.put(cryptoId, price);
-                    currentChanges.put(cryptoId, change);
+                if (price > 0 && target.update(slot, price, change)) {
+                    changed++;
                 }
             }
         }
-    }
-    
-    private Properties loadProperties() {
-        Properties p = new Properties();
-        try (InputStream is = getClass().getResourceAsStream(PROPERTIES_PATH)) {
-            if (is != null) {
-                p.load(is);
-            }
-        } catch (IOException e) {
-            System.err.println("Failed to load properties: " + e.getMessage());
-        }
-        return p;
+        return changed;
     }
 }
@@ -0,0 +1,323 @@
+package com.mycompany.app.services;
+
+import java.net.http.HttpHeaders;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.mycompany.app.config.ApiConfig;
+import com.mycompany.app.config.AppExecutors;
+
+/**
+ * Token-bucket rate limiter shared by every caller of one API provider.
+ *
+ * The bucket holds up to {@code burst} permits and refills continuously at the
+ * configured rate. Each outbound request takes one permit, waiting until one
+ * is available, so the app as a whole stays just under the provider's quota
+ * instead of overshooting it and backing off after 429 responses.
+ *
+ * Waiting callers are served by {@link Priority} and then in arrival order,
+ * so an interactive request (a user opening a chart) goes ahead of queued
+ * preload traffic instead of waiting behind it.
+ *
+ * Permits can be awaited without holding a thread: {@link #acquireAsync}
+ * returns a future that a timer completes once the caller's turn comes.
+ *
+ * One limiter exists per provider and process; get it with
+ * {@link #forProvider(String)}. Limits are read from
+ * `ratelimit.<provider>.perMinute` and `ratelimit.<provider>.burst`.
+ */
+public class RateLimiter {
+    public static final String COINGECKO = "coingecko";
+    public static final String SERPAPI = "serpapi";
+
+    // CoinGecko's demo plan allows 30 calls/min; stay a little below it
+    private static final int DEFAULT_COINGECKO_PER_MINUTE = 25;
+    private static final int DEFAULT_COINGECKO_BURST = 5;
+    // A full news refresh issues six searches at once
+    private static final int DEFAULT_SERPAPI_PER_MINUTE = 20;
+    private static final int DEFAULT_SERPAPI_BURST = 6;
+    private static final int DEFAULT_PER_MINUTE = 60;
+    private static final int DEFAULT_BURST = 5;
+
+    private static final Map<String, RateLimiter> PROVIDERS = new ConcurrentHashMap<>();
+
+    /**
+     * Request priority. Lower ordinal is served first.
+     */
+    public enum Priority {
+        // Directly triggered by the user and awaited by the UI
+        INTERACTIVE,
+        // Periodic price polling
+        POLLING,
+        // Preload and refresh traffic
+        BACKGROUND
+    }
+
+    private final String name;
+    private final double capacity;
+    private final double permitsPerNano;
+    private final boolean unlimited;
+    private final ScheduledExecutorService scheduler;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // Guarded by lock
+    private final PriorityQueue<Waiter> waiters = new PriorityQueue<>();
+    private double permits;
+    private long lastRefillNanos;
+    private long sequence;
+    private ScheduledFuture<?> pendingDispatch;
+
+    /**
+     * @param name             provider name used in log messages
+     * @param permitsPerMinute sustained request rate
+     * @param burst            number of requests that may be sent back to back
+     */
+    public RateLimiter(String name, double permitsPerMinute, int burst) {
+        this(name, permitsPerMinute, burst, AppExecutors.shared().scheduler());
+    }
+
+    /**
+     * @param scheduler timer used to hand out permits as they refill
+     */
+    public RateLimiter(String name, double permitsPerMinute, int burst, ScheduledExecutorService scheduler) {
+        if (permitsPerMinute <= 0 || burst < 1) {
+            throw new IllegalArgumentException("permitsPerMinute must be positive and burst at least 1");
+        }
+        if (scheduler == null) {
+            throw new IllegalArgumentException("scheduler cannot be null");
+        }
+        this.name = name;
+        this.capacity = burst;
+        this.permitsPerNano = permitsPerMinute / TimeUnit.MINUTES.toNanos(1);
+        this.unlimited = false;
+        this.scheduler = scheduler;
+        this.permits = burst;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    private RateLimiter(String name) {
+        this.name = name;
+        this.capacity = Double.MAX_VALUE;
+        this.permitsPerNano = 0;
+        this.unlimited = true;
+        this.scheduler = null;
+    }
+
+    /**
+     * Limiter that never blocks. Intended for tests.
+     */
+    public static RateLimiter unlimited() {
+        return new RateLimiter("unlimited");
+    }
+
+    /**
+     * The process-wide limiter for a provider, created from configuration on
+     * first use
+     */
+    public static RateLimiter forProvider(String provider) {
+        return PROVIDERS.computeIfAbsent(provider, RateLimiter::fromConfig);
+    }
+
+    private static RateLimiter fromConfig(String provider) {
+        int perMinute = DEFAULT_PER_MINUTE;
+        int burst = DEFAULT_BURST;
+        if (COINGECKO.equals(provider)) {
+            perMinute = DEFAULT_COINGECKO_PER_MINUTE;
+            burst = DEFAULT_COINGECKO_BURST;
+        } else if (SERPAPI.equals(provider)) {
+            perMinute = DEFAULT_SERPAPI_PER_MINUTE;
+            burst = DEFAULT_SERPAPI_BURST;
+        }
+        perMinute = ApiConfig.getIntProperty("ratelimit." + provider + ".perMinute", perMinute);
+        burst = ApiConfig.getIntProperty("ratelimit." + provider + ".burst", burst);
+        return new RateLimiter(provider, Math.max(1, perMinute), Math.max(1, burst));
+    }
+
+    /**
+     * Queue for a permit without blocking. The future completes (on the
+     * caller's thread if a permit is free, otherwise on the limiter's timer
+     * thread) once no higher-priority or earlier caller of the same priority
+     * is waiting. Cancelling the future leaves the queue.
+     */
+    public CompletableFuture<Void> acquireAsync(Priority priority) {
+        if (unlimited) {
+            return CompletableFuture.completedFuture(null);
+        }
+        Waiter waiter;
+        lock.lock();
+        try {
+            waiter = new Waiter(priority, sequence++);
+            waiters.add(waiter);
+        } finally {
+            lock.unlock();
+        }
+        waiter.grant.whenComplete((v, ex) -> {
+            if (ex instanceof CancellationException) {
+                leave(waiter);
+            }
+        });
+        dispatch();
+        return waiter.grant;
+    }
+
+    /**
+     * Report that the provider rejected a request with 429. The bucket is
+     * emptied, and when the response said how long to wait, permits are held
+     * back for that long so no caller sends another request before then.
+     *
+     * @param retryAfter delay requested by the provider, or null if unknown
+     */
+    public void onRateLimited(Duration retryAfter) {
+        if (unlimited) {
+            return;
+        }
+        lock.lock();
+        try {
+            refill();
+            double debt = retryAfter != null ? retryAfter.toNanos() * permitsPerNano : 0;
+            permits = Math.min(permits, 0) - debt;
+            System.out.println(name + " rate limit hit; holding requests for "
+                    + TimeUnit.NANOSECONDS.toMillis(nanosUntilPermit()) + "ms");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Permits currently available (may be negative after a 429). For
+     * monitoring and tests.
+     */
+    double availablePermits() {
+        if (unlimited) {
+            return Double.MAX_VALUE;
+        }
+        lock.lock();
+        try {
+            refill();
+            return permits;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Parse a `Retry-After` header given in seconds, or return null when the
+     * header is absent or uses the HTTP-date form.
+     */
+    static Duration retryAfter(HttpResponse<?> response) {
+        HttpHeaders headers = response.headers();
+        if (headers == null) {
+            return null;
+        }
+        return headers.firstValue("Retry-After").map(value -> {
+            try {
+                return Duration.ofSeconds(Math.max(0, Long.parseLong(value.trim())));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }).orElse(null);
+    }
+
+    /**
+     * Hand permits to waiters in queue order while permits last, then arm
+     * the timer for the next refill if anyone is still waiting. Grants are
+     * completed outside the lock since they run the waiters' continuations.
+     */
+    private void dispatch() {
+        List<Waiter> granted = new ArrayList<>();
+        lock.lock();
+        try {
+            refill();
+            while (!waiters.isEmpty() && permits >= 1) {
+                Waiter head = waiters.poll();
+                if (head.grant.isDone()) {
+                    continue; // cancelled
+                }
+                permits -= 1;
+                granted.add(head);
+            }
+            if (!waiters.isEmpty() && (pendingDispatch == null || pendingDispatch.isDone())) {
+                pendingDispatch = scheduler.schedule(this::onTimer, nanosUntilPermit(), TimeUnit.NANOSECONDS);
+            }
+        } finally {
+            lock.unlock();
+        }
+        for (Waiter waiter : granted) {
+            if (!waiter.grant.complete(null)) {
+                // Cancelled between polling and granting
+                release();
+            }
+        }
+    }
+
+    private void onTimer() {
+        lock.lock();
+        try {
+            // This task is still running, so it would otherwise block re-arming
+            pendingDispatch = null;
+        } finally {
+            lock.unlock();
+        }
+        dispatch();
+    }
+
+    private void leave(Waiter waiter) {
+        lock.lock();
+        try {
+            waiters.remove(waiter);
+        } finally {
+            lock.unlock();
+        }
+        // The next waiter may now be at the head
+        dispatch();
+    }
+
+    private void release() {
+        lock.lock();
+        try {
+            refill();
+            permits = Math.min(capacity, permits + 1);
+        } finally {
+            lock.unlock();
+        }
+        dispatch();
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        permits = Math.min(capacity, permits + (now - lastRefillNanos) * permitsPerNano);
+        lastRefillNanos = now;
+    }
+
+    private long nanosUntilPermit() {
+        return Math.max(1L, (long) Math.ceil((1 - permits) / permitsPerNano));
+    }
+
+    private static final class Waiter implements Comparable<Waiter> {
+        final Priority priority;
+        final long sequence;
+        final CompletableFuture<Void> grant = new CompletableFuture<>();
+
+        Waiter(Priority priority, long sequence) {
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Waiter other) {
+            int byPriority = Integer.compare(priority.ordinal(), other.priority.ordinal());
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.mycompany.app.services;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Body-handling helpers shared by the HTTP services.
+ *
+ * Responses are received with {@link HttpResponse.BodyHandlers#ofInputStream()},
+ * so the decoder reads bytes as they arrive from the network instead of waiting
+ * for the whole payload to be buffered into a {@code String}. The client only
+ * requests more data as the stream is consumed, which keeps the memory held per
+ * in-flight request bounded by its buffers rather than by the payload size, and
+ * lets JSON decoding overlap with the transfer.
+ *
+ * Requests ask for `gzip` or `deflate` bodies ({@link #ACCEPT_ENCODING}),
+ * which {@code HttpClient} does not decode by itself. {@link #decode} and
+ * {@link #readSnippet} inflate them while reading, so the decoder still sees
+ * plain bytes as they arrive and the compressed payload is never buffered.
+ *
+ * The stream must always be closed, otherwise the connection is not returned
+ * to the client; {@link #decode}, {@link #readSnippet} and {@link #discard}
+ * take care of that.
+ */
+final class ResponseBodies {
+    // Upper bound on how much of an error body is read for logging.
+    static final int ERROR_SNIPPET_BYTES = 1024;
+    // Accept-Encoding sent with every API request; see #decompressed
+    static final String ACCEPT_ENCODING = "gzip, deflate";
+    // Inflater input buffer, sized for network reads
+    private static final int INFLATE_BUFFER_BYTES = 8192;
+
+    private ResponseBodies() {
+    }
+
+    /**
+     * Decoder that consumes a response body stream.
+     */
+    @FunctionalInterface
+    interface BodyDecoder<T> {
+        T decode(InputStream body) throws IOException;
+    }
+
+    /**
+     * Body handler used for every outbound API request.
+     */
+    static HttpResponse.BodyHandler<InputStream> streaming() {
+        return HttpResponse.BodyHandlers.ofInputStream();
+    }
+
+    /**
+     * Run the decoder over the response body and close the stream afterwards.
+     */
+    static <T> T decode(HttpResponse<InputStream> response, BodyDecoder<T> decoder) throws IOException {
+        InputStream raw = response.body();
+        // The raw stream is closed as well, in case wrapping it fails
+        try (raw; InputStream body = decompressed(raw, contentEncoding(response))) {
+            return decoder.decode(body);
+        }
+    }
+
+    /**
+     * The response's Content-Encoding in lower case, or "" if there is none
+     */
+    private static String contentEncoding(HttpResponse<?> response) {
+        HttpHeaders headers = response.headers();
+        if (headers == null) {
+            return "";
+        }
+        return headers.firstValue("Content-Encoding").orElse("").trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * {@code body} decoded for {@code encoding}: `gzip` or `deflate`, or
+     * passed through unchanged for `identity`, none or an unknown encoding.
+     * `deflate` is meant to be zlib-wrapped, but some servers send a raw
+     * deflate stream, so the zlib header is checked first.
+     */
+    static InputStream decompressed(InputStream body, String encoding) throws IOException {
+        switch (encoding) {
+            case "gzip":
+            case "x-gzip":
+                return new GZIPInputStream(body, INFLATE_BUFFER_BYTES);
+            case "deflate":
+                BufferedInputStream buffered = new BufferedInputStream(body, INFLATE_BUFFER_BYTES);
+                buffered.mark(2);
+                int cmf = buffered.read();
+                int flg = buffered.read();
+                buffered.reset();
+                boolean zlib = cmf >= 0 && flg >= 0 && (cmf & 0x0F) == 8 && ((cmf << 8) | flg) % 31 == 0;
+                return new InflaterInputStream(buffered, new Inflater(!zlib), INFLATE_BUFFER_BYTES) {
+                    @Override
+                    public void close() throws IOException {
+                        // The stream was given its own inflater, so it
+                        // must release it too
+                        try {
+                            super.close();
+                        } finally {
+                            inf.end();
+                        }
+                    }
+                };
+            default:
+                return body;
+        }
+    }
+
+    /**
+     * Read at most {@code maxBytes} of the body as UTF-8 text (for logging error
+     * responses) and close the stream. Returns an empty string if the body
+     * cannot be read.
+     */
+    static String readSnippet(HttpResponse<InputStream> response, int maxBytes) {
+        InputStream raw = response.body();
+        if (raw == null) {
+            return "";
+        }
+        try (raw; InputStream body = decompressed(raw, contentEncoding(response))) {
+            return new String(body.readNBytes(maxBytes), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            return "";
+        }
+    }
+
+    /**
+     * Close the body without reading it, e.g. for non-2xx responses.
+     */
+    static void discard(HttpResponse<InputStream> response) {
+        InputStream body = response.body();
+        if (body == null) {
+            return;
+        }
+        try {
+            // closing releases the underlying connection
+            body.close();
+        } catch (IOException e) {
+            // nothing useful to do; the response is being dropped anyway
+        }
+    }
+}
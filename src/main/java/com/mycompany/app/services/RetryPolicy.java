@@ -0,0 +1,228 @@
+package com.mycompany.app.services;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.mycompany.app.config.ApiConfig;
+
+/**
+ * Retry schedule for API calls.
+ *
+ * Delays grow with "decorrelated jitter": each delay is drawn uniformly
+ * between the base delay and three times the previous delay, capped at the
+ * maximum. Callers that failed together (e.g. a burst of preload requests
+ * hitting a 429) therefore spread out instead of retrying in lockstep. When
+ * the provider sent a `Retry-After` header, the delay is at least that long.
+ *
+ * Each call gets a budget of {@code maxAttempts} attempts and a deadline
+ * measured from its first attempt; a retry that would start after the
+ * deadline is not made. Only failures that may succeed later are retried:
+ * network errors, 408, 429 and 5xx responses. Retries are scheduled on a
+ * timer, so no thread sleeps while a call waits for its next attempt.
+ *
+ * Policies are configured per provider from `retry.<provider>.maxAttempts`,
+ * `retry.<provider>.baseDelayMs`, `retry.<provider>.maxDelayMs` and
+ * `retry.<provider>.deadlineMs`; get one with {@link #forProvider(String)}.
+ */
+public final class RetryPolicy {
+    private static final int DEFAULT_MAX_ATTEMPTS = 5;
+    private static final int DEFAULT_BASE_DELAY_MS = 2000;
+    private static final int DEFAULT_MAX_DELAY_MS = 30000;
+    private static final int DEFAULT_DEADLINE_MS = 120000;
+
+    private static final Map<String, RetryPolicy> PROVIDERS = new ConcurrentHashMap<>();
+
+    private final int maxAttempts;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final long deadlineMillis;
+    // Null means ThreadLocalRandom; tests pass a seeded Random
+    private final Random random;
+
+    /**
+     * @param maxAttempts total attempts per call, including the first
+     * @param baseDelay   smallest delay between attempts
+     * @param maxDelay    largest jittered delay between attempts
+     * @param deadline    time after the first attempt when no further retry starts
+     */
+    public RetryPolicy(int maxAttempts, Duration baseDelay, Duration maxDelay, Duration deadline) {
+        this(maxAttempts, baseDelay, maxDelay, deadline, null);
+    }
+
+    RetryPolicy(int maxAttempts, Duration baseDelay, Duration maxDelay, Duration deadline, Random random) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be at least 1");
+        }
+        if (baseDelay == null || maxDelay == null || deadline == null
+                || baseDelay.isNegative() || maxDelay.compareTo(baseDelay) < 0 || deadline.isNegative()) {
+            throw new IllegalArgumentException("delays must satisfy 0 <= baseDelay <= maxDelay and deadline >= 0");
+        }
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMillis = baseDelay.toMillis();
+        this.maxDelayMillis = maxDelay.toMillis();
+        this.deadlineMillis = deadline.toMillis();
+        this.random = random;
+    }
+
+    /**
+     * Policy that makes a single attempt
+     */
+    public static RetryPolicy none() {
+        return new RetryPolicy(1, Duration.ZERO, Duration.ZERO, Duration.ZERO);
+    }
+
+    /**
+     * The process-wide policy for a provider, created from configuration on
+     * first use
+     */
+    public static RetryPolicy forProvider(String provider) {
+        return PROVIDERS.computeIfAbsent(provider, RetryPolicy::fromConfig);
+    }
+
+    private static RetryPolicy fromConfig(String provider) {
+        String prefix = "retry." + provider + ".";
+        int attempts = Math.max(1, ApiConfig.getIntProperty(prefix + "maxAttempts", DEFAULT_MAX_ATTEMPTS));
+        int base = Math.max(0, ApiConfig.getIntProperty(prefix + "baseDelayMs", DEFAULT_BASE_DELAY_MS));
+        int max = Math.max(base, ApiConfig.getIntProperty(prefix + "maxDelayMs", DEFAULT_MAX_DELAY_MS));
+        int deadline = Math.max(0, ApiConfig.getIntProperty(prefix + "deadlineMs", DEFAULT_DEADLINE_MS));
+        return new RetryPolicy(attempts, Duration.ofMillis(base), Duration.ofMillis(max), Duration.ofMillis(deadline));
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Run {@code attempt} until it succeeds, fails with a non-retryable
+     * error, or the attempt budget or deadline is used up. The returned
+     * future fails with the last attempt's error in the latter cases.
+     * Cancelling it stops further retries.
+     *
+     * @param scheduler timer on which later attempts are started
+     * @param label     what is being fetched, for log messages
+     */
+    public <T> CompletableFuture<T> execute(Supplier<CompletableFuture<T>> attempt,
+                                            ScheduledExecutorService scheduler, String label) {
+        Call<T> call = new Call<>(attempt, scheduler, label);
+        call.run();
+        return call.result;
+    }
+
+    /**
+     * Continue a call whose first attempt was made elsewhere and failed with
+     * {@code failure}: the failed attempt counts against the budget and the
+     * next attempt is scheduled as {@link #execute} would.
+     */
+    public <T> CompletableFuture<T> retry(Throwable failure, Supplier<CompletableFuture<T>> attempt,
+                                          ScheduledExecutorService scheduler, String label) {
+        Call<T> call = new Call<>(attempt, scheduler, label);
+        call.attempts = 1;
+        call.onFailure(failure != null ? failure : new IOException("attempt failed"));
+        return call.result;
+    }
+
+    /**
+     * Next delay after {@code previousDelayMillis} (pass 0 before the first
+     * retry): uniform in [base, 3 * previous], capped at the maximum.
+     */
+    long nextDelayMillis(long previousDelayMillis) {
+        long upper = Math.max(baseDelayMillis, Math.min(previousDelayMillis, maxDelayMillis) * 3);
+        long delay = upper > baseDelayMillis
+                ? baseDelayMillis + random().nextLong(upper - baseDelayMillis + 1)
+                : baseDelayMillis;
+        return Math.min(maxDelayMillis, delay);
+    }
+
+    private Random random() {
+        return random != null ? random : ThreadLocalRandom.current();
+    }
+
+    /**
+     * Whether a failed attempt may succeed if repeated
+     */
+    static boolean isRetryable(Throwable failure) {
+        if (failure instanceof HttpStatusException) {
+            int status = ((HttpStatusException) failure).getStatusCode();
+            return status == 408 || status == 429 || status >= 500;
+        }
+        return failure instanceof IOException;
+    }
+
+    /**
+     * State of one call across its attempts
+     */
+    private final class Call<T> {
+        final Supplier<CompletableFuture<T>> attempt;
+        final ScheduledExecutorService scheduler;
+        final String label;
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        final long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMillis);
+        int attempts;
+        long previousDelayMillis;
+
+        Call(Supplier<CompletableFuture<T>> attempt, ScheduledExecutorService scheduler, String label) {
+            this.attempt = attempt;
+            this.scheduler = scheduler;
+            this.label = label;
+        }
+
+        void run() {
+            if (result.isDone()) {
+                return; // cancelled by the caller
+            }
+            attempts++;
+            CompletableFuture<T> pending;
+            try {
+                pending = attempt.get();
+            } catch (RuntimeException e) {
+                pending = CompletableFuture.failedFuture(e);
+            }
+            pending.whenComplete((value, ex) -> {
+                if (ex == null) {
+                    result.complete(value);
+                } else {
+                    onFailure(HttpFetcher.unwrap(ex));
+                }
+            });
+        }
+
+        void onFailure(Throwable failure) {
+            if (attempts >= maxAttempts || !isRetryable(failure)) {
+                result.completeExceptionally(failure);
+                return;
+            }
+            long delay = nextDelayMillis(previousDelayMillis);
+            previousDelayMillis = delay;
+            Duration retryAfter = failure instanceof HttpStatusException
+                    ? ((HttpStatusException) failure).getRetryAfter() : null;
+            if (retryAfter != null) {
+                delay = Math.max(delay, retryAfter.toMillis());
+            }
+            if (System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay) - deadlineNanos > 0) {
+                System.err.println("Giving up on " + label + ": next retry would pass the "
+                        + deadlineMillis + "ms deadline");
+                result.completeExceptionally(failure);
+                return;
+            }
+            System.out.println(describe(failure) + " for " + label + ". Waiting " + delay
+                    + "ms before retry " + (attempts + 1) + "/" + maxAttempts);
+            scheduler.schedule(this::run, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static String describe(Throwable failure) {
+        if (failure instanceof HttpStatusException) {
+            HttpStatusException status = (HttpStatusException) failure;
+            return status.isRateLimited() ? "Rate limit exceeded" : status.getMessage();
+        }
+        return "Network error (" + failure.getMessage() + ")";
+    }
+}
@@ -0,0 +1,62 @@
+package com.mycompany.app.services;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Keyed request coalescing ("single flight").
+ *
+ * The first caller for a key starts the load and publishes the outcome
+ * through a {@link CompletableFuture}. Callers that arrive for the same key
+ * while that load is running share the future instead of starting their own
+ * load. Loads for different keys run independently; there is no lock held
+ * across a load.
+ *
+ * Nothing is cached: once a load completes its key is released and the next
+ * caller starts a new load. Callers should check their cache inside the
+ * loader, since a flight may have completed just before theirs started.
+ */
+final class SingleFlight<K, V> {
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Join the in-flight load for {@code key}, or start {@code loader} as the
+     * leader if there is none. The loader returns a future, so the flight
+     * does not hold a thread while the load is pending.
+     */
+    CompletableFuture<V> executeAsync(K key, Supplier<CompletableFuture<V>> loader) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            return existing;
+        }
+        CompletableFuture<V> load;
+        try {
+            load = loader.get();
+        } catch (Throwable t) {
+            load = CompletableFuture.failedFuture(t);
+        }
+        load.whenComplete((value, ex) -> {
+            // Release the key before publishing so a caller reacting to the
+            // outcome can start a fresh load
+            inFlight.remove(key, flight);
+            if (ex != null) {
+                flight.completeExceptionally(ex instanceof CompletionException && ex.getCause() != null
+                        ? ex.getCause() : ex);
+            } else {
+                flight.complete(value);
+            }
+        });
+        return flight;
+    }
+
+    /**
+     * Number of keys with a load currently running. For tests and monitoring.
+     */
+    int inFlightCount() {
+        return inFlight.size();
+    }
+}
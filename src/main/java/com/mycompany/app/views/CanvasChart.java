@@ -0,0 +1,342 @@
+package com.mycompany.app.views;
+
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.function.DoubleFunction;
+
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+
+/**
+ * Time series chart drawn directly on a {@link Canvas}, as an alternative to
+ * the node-per-point {@code LineChart} and {@code BarChart}.
+ *
+ * Samples are kept in primitive arrays. A redraw folds them into pixel
+ * columns (first, lowest, highest and last sample of each column for a line,
+ * the highest for bars), so its cost grows with the number of samples only
+ * through one pass over the arrays and the drawing itself is bounded by the
+ * chart width. Axes, tick labels and grid lines are drawn by the chart.
+ *
+ * Redraws are incremental where possible: {@link #updateLastValue} repaints
+ * only the strip right of the second-to-last sample when the new value stays
+ * inside the current Y range; anything else repaints the whole canvas.
+ * Must be used on the JavaFX application thread.
+ */
+public class CanvasChart extends Region {
+    public enum Style { LINE, BARS }
+
+    private static final double LEFT = 64;
+    private static final double RIGHT = 12;
+    private static final double TOP = 10;
+    private static final double BOTTOM = 24;
+    private static final int X_TICKS = 6;
+    private static final int Y_TICKS = 6;
+    private static final Color SERIES = Color.web("#00C853");
+    private static final Color GRID = Color.web("#2A2A2F");
+    private static final Color LABELS = Color.web("#A0A0A0");
+    private static final Color BACKGROUND = Color.web("#131316");
+    private static final Font LABEL_FONT = Font.font(11);
+
+    private final Canvas canvas = new Canvas();
+    private final Style style;
+
+    private long[] times = new long[0];
+    private double[] values = new double[0];
+    private int size;
+    private DateTimeFormatter timeFormatter = DateTimeFormatter.ISO_INSTANT;
+    private DoubleFunction<String> valueFormatter = v -> String.format("%,.2f", v);
+
+    // Axis ranges of the last full redraw
+    private long minX;
+    private long maxX;
+    private double minY;
+    private double maxY;
+
+    // Reused polyline buffers
+    private double[] xs = new double[0];
+    private double[] ys = new double[0];
+
+    public CanvasChart(Style style) {
+        this.style = style;
+        getChildren().add(canvas);
+        getStyleClass().add("canvas-chart");
+        setPrefHeight(300);
+    }
+
+    /**
+     * Replace the series with {@code count} samples from the given columns
+     * (copied). NaN values are skipped. Repaints the whole chart.
+     */
+    public void setData(long[] times, double[] values, int count) {
+        int n = Math.min(count, Math.min(times.length, values.length));
+        int kept = 0;
+        long[] t = new long[n];
+        double[] v = new double[n];
+        for (int i = 0; i < n; i++) {
+            if (!Double.isNaN(values[i])) {
+                t[kept] = times[i];
+                v[kept] = values[i];
+                kept++;
+            }
+        }
+        this.times = t;
+        this.values = v;
+        this.size = kept;
+        redraw();
+    }
+
+    /**
+     * Formatters for the X (time) and Y tick labels
+     */
+    public void setFormatters(DateTimeFormatter timeFormatter, DoubleFunction<String> valueFormatter) {
+        if (timeFormatter != null) {
+            this.timeFormatter = timeFormatter;
+        }
+        if (valueFormatter != null) {
+            this.valueFormatter = valueFormatter;
+        }
+        redraw();
+    }
+
+    /**
+     * Replace the value of the newest sample, e.g. with a live price. Only
+     * the strip it affects is repainted while the value stays within the
+     * current Y range.
+     */
+    public void updateLastValue(double value) {
+        if (size == 0 || Double.isNaN(value)) {
+            return;
+        }
+        values[size - 1] = value;
+        if (value < minY || value > maxY || size < 2) {
+            redraw();
+            return;
+        }
+        double from = Math.floor(xFor(times[size - 2])) - 2;
+        paint(Math.max(LEFT, from), getWidth() - RIGHT);
+    }
+
+    /**
+     * Number of samples held
+     */
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    protected void layoutChildren() {
+        double w = snapSizeX(getWidth());
+        double h = snapSizeY(getHeight());
+        if (canvas.getWidth() != w || canvas.getHeight() != h) {
+            canvas.setWidth(w);
+            canvas.setHeight(h);
+            redraw();
+        }
+    }
+
+    @Override
+    protected double computePrefWidth(double height) {
+        return 600;
+    }
+
+    /**
+     * Recompute the axis ranges and repaint everything
+     */
+    private void redraw() {
+        computeRanges();
+        paint(0, canvas.getWidth());
+    }
+
+    private void computeRanges() {
+        if (size == 0) {
+            return;
+        }
+        minX = times[0];
+        maxX = times[size - 1];
+        if (minX == maxX) {
+            // Single sample: give it a one-hour window
+            minX -= 3_600_000;
+            maxX += 3_600_000;
+        }
+        double lo = Double.POSITIVE_INFINITY;
+        double hi = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < size; i++) {
+            lo = Math.min(lo, values[i]);
+            hi = Math.max(hi, values[i]);
+        }
+        if (style == Style.BARS) {
+            minY = 0;
+            maxY = hi > 0 ? hi * 1.1 : 100;
+        } else {
+            double padding = (hi - lo) * 0.10;
+            if (padding == 0) {
+                padding = Math.max(1.0, Math.abs(hi) * 0.05);
+            }
+            minY = lo - padding;
+            maxY = hi + padding;
+        }
+    }
+
+    /**
+     * Repaint the horizontal strip [{@code fromX}, {@code toX}) of the canvas
+     */
+    private void paint(double fromX, double toX) {
+        double w = canvas.getWidth();
+        double h = canvas.getHeight();
+        if (w <= LEFT + RIGHT || h <= TOP + BOTTOM || toX <= fromX) {
+            return;
+        }
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.save();
+        gc.beginPath();
+        gc.rect(fromX, 0, toX - fromX, h);
+        gc.clip();
+        gc.setFill(BACKGROUND);
+        gc.fillRect(fromX, 0, toX - fromX, h);
+        if (size > 0) {
+            drawGridAndLabels(gc, w, h);
+            if (style == Style.BARS) {
+                drawBars(gc);
+            } else {
+                drawLine(gc);
+            }
+        }
+        gc.restore();
+    }
+
+    private void drawGridAndLabels(GraphicsContext gc, double w, double h) {
+        gc.setFont(LABEL_FONT);
+        gc.setLineWidth(1);
+        gc.setStroke(GRID);
+        gc.setFill(LABELS);
+
+        // Y: evenly spaced "nice" steps
+        double step = niceStep((maxY - minY) / Y_TICKS);
+        gc.setTextAlign(TextAlignment.RIGHT);
+        gc.setTextBaseline(VPos.CENTER);
+        for (double v = Math.ceil(minY / step) * step; v <= maxY; v += step) {
+            double y = Math.round(yFor(v)) + 0.5;
+            gc.strokeLine(LEFT, y, w - RIGHT, y);
+            gc.fillText(valueFormatter.apply(v), LEFT - 6, y);
+        }
+
+        // X: evenly spaced times
+        gc.setTextAlign(TextAlignment.CENTER);
+        gc.setTextBaseline(VPos.TOP);
+        for (int i = 0; i <= X_TICKS; i++) {
+            long t = minX + (maxX - minX) * i / X_TICKS;
+            double x = Math.round(xFor(t)) + 0.5;
+            gc.strokeLine(x, TOP, x, h - BOTTOM);
+            gc.fillText(timeFormatter.format(Instant.ofEpochMilli(t)), x, h - BOTTOM + 4);
+        }
+    }
+
+    /**
+     * Polyline through the first, lowest, highest and last sample of each
+     * pixel column
+     */
+    private void drawLine(GraphicsContext gc) {
+        int capacity = Math.min(size, 4 * ((int) canvas.getWidth() + 1));
+        if (xs.length < capacity) {
+            xs = new double[capacity];
+            ys = new double[capacity];
+        }
+        int n = 0;
+        int i = 0;
+        while (i < size) {
+            int column = (int) xFor(times[i]);
+            int first = i;
+            int low = i;
+            int high = i;
+            int j = i + 1;
+            while (j < size && (int) xFor(times[j]) == column) {
+                if (values[j] < values[low]) {
+                    low = j;
+                }
+                if (values[j] > values[high]) {
+                    high = j;
+                }
+                j++;
+            }
+            int last = j - 1;
+            n = addPoint(n, first);
+            n = addPoint(n, Math.min(low, high));
+            n = addPoint(n, Math.max(low, high));
+            n = addPoint(n, last);
+            i = j;
+        }
+        gc.setStroke(SERIES);
+        gc.setLineWidth(2);
+        gc.strokePolyline(xs, ys, n);
+    }
+
+    private int addPoint(int n, int index) {
+        double x = xFor(times[index]);
+        double y = yFor(values[index]);
+        if (n > 0 && xs[n - 1] == x && ys[n - 1] == y) {
+            return n;
+        }
+        if (n == xs.length) {
+            xs = Arrays.copyOf(xs, n * 2 + 4);
+            ys = Arrays.copyOf(ys, n * 2 + 4);
+        }
+        xs[n] = x;
+        ys[n] = y;
+        return n + 1;
+    }
+
+    /**
+     * One bar per sample when they fit, otherwise the highest sample of each
+     * pixel column
+     */
+    private void drawBars(GraphicsContext gc) {
+        double plotWidth = canvas.getWidth() - LEFT - RIGHT;
+        double barWidth = Math.max(1, plotWidth / size * 0.8);
+        double base = yFor(0);
+        gc.setFill(SERIES);
+        int i = 0;
+        while (i < size) {
+            int column = (int) xFor(times[i]);
+            int high = i;
+            int j = i + 1;
+            while (j < size && (int) xFor(times[j]) == column) {
+                if (values[j] > values[high]) {
+                    high = j;
+                }
+                j++;
+            }
+            double top = yFor(values[high]);
+            gc.fillRect(xFor(times[high]) - barWidth / 2, top, barWidth, Math.max(1, base - top));
+            i = j;
+        }
+    }
+
+    private double xFor(long time) {
+        double plotWidth = canvas.getWidth() - LEFT - RIGHT;
+        return LEFT + (double) (time - minX) / (maxX - minX) * plotWidth;
+    }
+
+    private double yFor(double value) {
+        double plotHeight = canvas.getHeight() - TOP - BOTTOM;
+        return TOP + (maxY - value) / (maxY - minY) * plotHeight;
+    }
+
+    /**
+     * Smallest 1, 2 or 5 times a power of ten that is at least {@code rough}
+     */
+    static double niceStep(double rough) {
+        if (!(rough > 0) || Double.isInfinite(rough)) {
+            return 1;
+        }
+        double magnitude = Math.pow(10, Math.floor(Math.log10(rough)));
+        double fraction = rough / magnitude;
+        double nice = fraction <= 1 ? 1 : fraction <= 2 ? 2 : fraction <= 5 ? 5 : 10;
+        return nice * magnitude;
+    }
+}
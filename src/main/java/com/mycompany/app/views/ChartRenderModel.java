@@ -0,0 +1,193 @@
+package com.mycompany.app.views;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+import com.mycompany.app.models.Downsampler;
+import com.mycompany.app.models.HistoricalData;
+
+/**
+ * Everything the detail view needs to draw one chart (a coin's price or
+ * volume over one interval), prepared away from the JavaFX thread: the
+ * series downsampled to the chart width, the category label of each volume
+ * bar, and the axis bounds and tick units. Showing a model then only
+ * touches the scene graph.
+ *
+ * Immutable. A model remembers the size, end timestamps and last price of
+ * the series it was built from, so callers can tell whether it still
+ * matches the data (see {@link #matches}).
+ */
+public final class ChartRenderModel {
+    // Horizontal pixels per volume bar
+    private static final int VOLUME_BAR_PIXELS = 4;
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+    private static final DateTimeFormatter HOURS = DateTimeFormatter.ofPattern("HH:mm").withZone(ZONE);
+    private static final DateTimeFormatter WEEKDAYS = DateTimeFormatter.ofPattern("EEE HH:mm").withZone(ZONE);
+    private static final DateTimeFormatter DAYS = DateTimeFormatter.ofPattern("MMM d").withZone(ZONE);
+    private static final DateTimeFormatter MONTHS = DateTimeFormatter.ofPattern("MMM yyyy").withZone(ZONE);
+
+    final String days;
+    final boolean volume;
+    final int width;
+    final DateTimeFormatter formatter;
+    // Downsampled samples; labels are set for volume models only
+    final long[] times;
+    final double[] values;
+    final String[] labels;
+    // Axis bounds; NaN Y bounds mean "auto-range" (no samples)
+    final double lowerX;
+    final double upperX;
+    final double tickX;
+    final double lowerY;
+    final double upperY;
+    final double tickY;
+
+    private final int sourceSize;
+    private final long sourceFirst;
+    private final long sourceLast;
+    private final double sourceLastPrice;
+
+    private ChartRenderModel(HistoricalData source, String days, boolean volume, int width,
+                             long[] times, double[] values) {
+        this.days = days;
+        this.volume = volume;
+        this.width = width;
+        this.formatter = formatterFor(days);
+        this.times = times;
+        this.values = values;
+
+        if (volume) {
+            labels = new String[times.length];
+            for (int i = 0; i < times.length; i++) {
+                labels[i] = formatter.format(Instant.ofEpochMilli(times[i]));
+            }
+        } else {
+            labels = null;
+        }
+
+        long minX = Long.MAX_VALUE;
+        long maxX = Long.MIN_VALUE;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < times.length; i++) {
+            minX = Math.min(minX, times[i]);
+            maxX = Math.max(maxX, times[i]);
+            minY = Math.min(minY, values[i]);
+            maxY = Math.max(maxY, values[i]);
+        }
+
+        if (times.length == 0) {
+            lowerX = upperX = tickX = Double.NaN;
+        } else if (minX == maxX) {
+            // Single point: give it a one-hour window
+            lowerX = minX - 3_600_000;
+            upperX = maxX + 3_600_000;
+            tickX = (upperX - lowerX) / 6.0;
+        } else {
+            lowerX = minX;
+            upperX = maxX;
+            tickX = Math.max(1.0, (upperX - lowerX) / 6.0);
+        }
+
+        if (volume) {
+            // Volume always starts at 0, with some room at the top
+            lowerY = 0;
+            double top = maxY * 1.1;
+            upperY = top > 0 ? top : 100;
+            tickY = upperY / 5.0;
+        } else if (times.length > 0) {
+            double padding = (maxY - minY) * 0.10;
+            if (padding == 0) {
+                padding = Math.max(1.0, maxY * 0.05);
+            }
+            lowerY = minY - padding;
+            upperY = maxY + padding;
+            tickY = Math.max(1.0, (upperY - lowerY) / 8.0);
+        } else {
+            lowerY = upperY = tickY = Double.NaN;
+        }
+
+        this.sourceSize = source.size();
+        this.sourceFirst = source.isEmpty() ? 0 : source.getTime(0);
+        this.sourceLast = source.isEmpty() ? 0 : source.getTime(source.size() - 1);
+        this.sourceLastPrice = source.isEmpty() ? 0 : source.getPrice(source.size() - 1);
+    }
+
+    /**
+     * Build the model for {@code data}: prices reduced to {@code width}
+     * samples with LTTB, volumes to the lowest and highest sample of each
+     * two-bar bucket.
+     */
+    public static ChartRenderModel build(HistoricalData data, String days, boolean volume, int width) {
+        HistoricalData shown = volume
+                ? Downsampler.minMax(data, Math.max(1, width / VOLUME_BAR_PIXELS / 2))
+                : Downsampler.lttb(data, width);
+        // Drop missing values up front so the view never sees NaN
+        long[] times = new long[shown.size()];
+        double[] values = new double[shown.size()];
+        int n = 0;
+        for (int i = 0; i < shown.size(); i++) {
+            double value = volume ? shown.getVolume(i) : shown.getPrice(i);
+            if (!Double.isNaN(value)) {
+                times[n] = shown.getTime(i);
+                values[n] = value;
+                n++;
+            }
+        }
+        if (n < times.length) {
+            times = java.util.Arrays.copyOf(times, n);
+            values = java.util.Arrays.copyOf(values, n);
+        }
+        return new ChartRenderModel(data, days, volume, width, times, values);
+    }
+
+    /**
+     * Whether this model was built at {@code width} from a series with the
+     * same size, end timestamps and last price as {@code data}
+     */
+    public boolean matches(HistoricalData data, int width) {
+        if (data == null || this.width != width || data.size() != sourceSize) {
+            return false;
+        }
+        if (data.isEmpty()) {
+            return true;
+        }
+        int last = data.size() - 1;
+        return data.getTime(0) == sourceFirst && data.getTime(last) == sourceLast
+                && Double.compare(data.getPrice(last), sourceLastPrice) == 0;
+    }
+
+    /**
+     * Number of samples drawn
+     */
+    public int size() {
+        return times.length;
+    }
+
+    public boolean isVolume() {
+        return volume;
+    }
+
+    /**
+     * Tick label format for an interval; shared instances, since the
+     * formatters are immutable
+     */
+    static DateTimeFormatter formatterFor(String days) {
+        try {
+            int d = Integer.parseInt(days);
+            if (d <= 1) {
+                return HOURS;
+            } else if (d <= 7) {
+                return WEEKDAYS;
+            } else if (d <= 365) {
+                return DAYS;
+            } else {
+                return MONTHS;
+            }
+        } catch (Exception ex) {
+            return DAYS;
+        }
+    }
+}
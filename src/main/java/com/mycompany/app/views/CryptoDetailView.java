@@ -1,6 +1,6 @@
 package com.mycompany.app.views;
 
-import javafx.application.Platform;
+import javafx.collections.FXCollections;
 import javafx.geometry.Insets;
 import javafx.scene.chart.LineChart;
 import javafx.scene.chart.NumberAxis;
@@ -17,21 +17,43 @@ import javafx.scene.layout.GridPane;
 import com.mycompany.app.models.Crypto;
 import com.mycompany.app.models.HistoricalData;
 
-import com.mycompany.app.models.ChartPoint;
 import java.time.Instant;
-import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Consumer;
 import javafx.util.StringConverter;
 import javafx.scene.chart.CategoryAxis;
 
 public class CryptoDetailView extends VBox {
+    // Chart width assumed before the chart has been laid out
+    private static final int DEFAULT_CHART_WIDTH = 800;
+    // UiDispatcher slot for chart updates
+    private static final String CHART_SLOT = "detail-chart";
+
     private Label titleLabel;
     private Label priceLabel;
     private Label changeLabel;
     private LineChart<Number, Number> priceChart;
     private BarChart<String, Number> volumeChart;
     private VBox chartHolder;
+    // Canvas renderers, used instead of the charts above when enabled
+    private final boolean canvasCharts;
+    private CanvasChart priceCanvas;
+    private CanvasChart volumeCanvas;
+    // Axis label converters, created once instead of per update
+    private final java.util.Map<DateTimeFormatter, StringConverter<Number>> timeTickFormatters = new java.util.HashMap<>();
+    private final StringConverter<Number> volumeTickFormatter = new StringConverter<Number>() {
+        @Override
+        public String toString(Number object) {
+            return formatVolume(object.doubleValue());
+        }
+
+        @Override
+        public Number fromString(String string) {
+            return 0;
+        }
+    };
     private ToggleButton priceToggle;
     private ToggleButton volumeToggle;
     private boolean showingVolume = false;
@@ -54,7 +76,16 @@ public class CryptoDetailView extends VBox {
     private Runnable onRefreshRequested;
 
     public CryptoDetailView() {
+        this(false);
+    }
+
+    /**
+     * @param canvasCharts draw the price and volume charts with
+     *                     {@link CanvasChart} instead of LineChart/BarChart
+     */
+    public CryptoDetailView(boolean canvasCharts) {
         super(20);
+        this.canvasCharts = canvasCharts;
         setPadding(new Insets(25));
         getStyleClass().add("detail-pane");
 
@@ -72,7 +103,15 @@ public class CryptoDetailView extends VBox {
         priceChart = createPriceChart();
         volumeChart = createVolumeChart();
         chartHolder = new VBox();
-        chartHolder.getChildren().add(priceChart);
+        if (canvasCharts) {
+            priceCanvas = new CanvasChart(CanvasChart.Style.LINE);
+            volumeCanvas = new CanvasChart(CanvasChart.Style.BARS);
+            VBox.setVgrow(priceCanvas, Priority.ALWAYS);
+            VBox.setVgrow(volumeCanvas, Priority.ALWAYS);
+            chartHolder.getChildren().add(priceCanvas);
+        } else {
+            chartHolder.getChildren().add(priceChart);
+        }
         VBox.setVgrow(chartHolder, Priority.ALWAYS);
 
         HBox toggles = createChartToggle();
@@ -292,6 +331,11 @@ public class CryptoDetailView extends VBox {
         changeLabel.setText(String.format("%s%.2f%%", newChangePercent >= 0 ? "▲" : "▼", Math.abs(newChangePercent)));
         changeLabel.getStyleClass().removeAll("positive-change", "negative-change");
         changeLabel.getStyleClass().add(newChangePercent >= 0 ? "positive-change" : "negative-change");
+
+        // The canvas chart repaints just the newest sample's strip
+        if (canvasCharts && !showingVolume) {
+            priceCanvas.updateLastValue(newPrice);
+        }
     }
     
     /**
@@ -301,6 +345,13 @@ public class CryptoDetailView extends VBox {
     public String getCurrentCryptoId() {
         return currentCryptoId;
     }
+
+    /**
+     * Get the label of the selected interval button, or null if none
+     */
+    public String getSelectedInterval() {
+        return selectedIntervalButton != null ? selectedIntervalButton.getText() : null;
+    }
     
     /**
      * Select an interval if it's enabled, otherwise fall back to 1D
@@ -319,54 +370,64 @@ public class CryptoDetailView extends VBox {
     }
 
     /**
-     * Update chart with historical data from controller
+     * Update chart with historical data from controller. Builds the render
+     * model on the calling thread; use {@link #showChart} with a prepared
+     * model to skip that work.
      */
     public void updateChartData(HistoricalData hd) {
-        if (hd == null || hd.getPoints().isEmpty()) {
+        if (hd == null || hd.isEmpty()) {
             return;
         }
 
         // Determine the interval based on current selection
         String interval = selectedIntervalButton != null ? selectedIntervalButton.getText() : "1D";
-        String days = convertIntervalToDays(interval);
-
-        final boolean useVolume = this.showingVolume;
-        final DateTimeFormatter formatter = chooseFormatter(days);
-
-        XYChart.Series<Number, Number> priceSeries = new XYChart.Series<>();
-        XYChart.Series<String, Number> volumeSeries = new XYChart.Series<>();
+        showChart(ChartRenderModel.build(hd, convertIntervalToDays(interval), showingVolume, getChartWidth()));
+    }
 
-        long minX = Long.MAX_VALUE, maxX = Long.MIN_VALUE;
-        double minY = Double.POSITIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+    /**
+     * Whether the volume chart (rather than the price chart) is selected
+     */
+    public boolean isShowingVolume() {
+        return showingVolume;
+    }
 
-        for (ChartPoint p : hd.getPoints()) {
-            Double value = useVolume ? p.getVolume() : p.getPrice();
-            if (value == null)
-                continue;
-            long x = p.getEpochMilli();
+    /**
+     * Width in pixels that chart series are downsampled to
+     */
+    public int getChartWidth() {
+        int width = (int) chartHolder.getWidth();
+        return width > 0 ? width : DEFAULT_CHART_WIDTH;
+    }
 
-            // Format timestamp for both charts
-            String formattedTime = formatter.format(Instant.ofEpochMilli(x));
+    /**
+     * Show a prepared render model. Only scene updates are left to do: the
+     * samples are already downsampled and the labels and axis bounds
+     * computed.
+     */
+    public void showChart(ChartRenderModel model) {
+        if (model == null) {
+            return;
+        }
+        if (canvasCharts) {
+            showCanvasChart(model);
+            return;
+        }
 
+        // Collect the points first and add them in one change, rather than
+        // firing a list change per point
+        final boolean useVolume = model.volume;
+        List<XYChart.Data<Number, Number>> pricePoints = new ArrayList<>(useVolume ? 0 : model.size());
+        List<XYChart.Data<String, Number>> volumePoints = new ArrayList<>(useVolume ? model.size() : 0);
+        for (int i = 0; i < model.size(); i++) {
             if (useVolume) {
-                volumeSeries.getData().add(new XYChart.Data<>(formattedTime, value));
+                volumePoints.add(new XYChart.Data<>(model.labels[i], model.values[i]));
             } else {
-                priceSeries.getData().add(new XYChart.Data<>(x, value));
+                pricePoints.add(new XYChart.Data<>(model.times[i], model.values[i]));
             }
-
-            if (x < minX)
-                minX = x;
-            if (x > maxX)
-                maxX = x;
-            if (value < minY)
-                minY = value;
-            if (value > maxY)
-                maxY = value;
         }
 
-        final long fMinX = minX, fMaxX = maxX;
-        final double fMinY = minY, fMaxY = maxY;
-        Platform.runLater(() -> {
+        // Only the last chart requested within a frame is drawn
+        UiDispatcher.fx().post(CHART_SLOT, () -> {
             // choose which chart to populate
             if (useVolume) {
                 priceToggle.setSelected(false);
@@ -378,13 +439,7 @@ public class CryptoDetailView extends VBox {
 
                 ((CategoryAxis) volumeChart.getXAxis()).getCategories().clear();
 
-                // Sample the data to reduce label crowding
-                XYChart.Series<String, Number> sampledSeries = new XYChart.Series<>();
-                int sampleRate = calculateSampleRate(volumeSeries.getData().size(), days);
-                for (int i = 0; i < volumeSeries.getData().size(); i += sampleRate) {
-                    sampledSeries.getData().add(volumeSeries.getData().get(i));
-                }
-                volumeChart.getData().add(sampledSeries);
+                volumeChart.getData().add(new XYChart.Series<>(FXCollections.observableArrayList(volumePoints)));
             } else {
                 priceToggle.setSelected(true);
                 volumeToggle.setSelected(false);
@@ -392,48 +447,23 @@ public class CryptoDetailView extends VBox {
                     chartHolder.getChildren().setAll(priceChart);
                 }
                 priceChart.getData().clear();
-                priceChart.getData().add(priceSeries);
+                priceChart.getData().add(new XYChart.Series<>(FXCollections.observableArrayList(pricePoints)));
             }
 
-            // adjust Y axis to min/max with padding
+            // adjust Y axis to the model's bounds
             NumberAxis yAxis = (NumberAxis) (useVolume ? volumeChart.getYAxis() : priceChart.getYAxis());
 
             if (useVolume) {
-                // For volume, always start at 0
                 yAxis.setAutoRanging(false);
-                yAxis.setLowerBound(0);
-                // Add some padding to the top
-                double upperY = fMaxY * 1.1;
-                if (upperY <= 0)
-                    upperY = 100; // default if no data
-                yAxis.setUpperBound(upperY);
-                yAxis.setTickUnit(upperY / 5.0);
-
-                // Format tick labels
-                yAxis.setTickLabelFormatter(new StringConverter<Number>() {
-                    @Override
-                    public String toString(Number object) {
-                        return formatVolume(object.doubleValue());
-                    }
-
-                    @Override
-                    public Number fromString(String string) {
-                        return 0;
-                    }
-                });
-            } else if (!Double.isInfinite(fMinY) && !Double.isInfinite(fMaxY)) {
-                // Price chart logic (unchanged mostly)
-                double lowerY = fMinY;
-                double upperY = fMaxY;
-                double padding = (upperY - lowerY) * 0.10;
-                if (padding == 0)
-                    padding = Math.max(1.0, upperY * 0.05);
-                lowerY = lowerY - padding;
-                upperY = upperY + padding;
+                yAxis.setLowerBound(model.lowerY);
+                yAxis.setUpperBound(model.upperY);
+                yAxis.setTickUnit(model.tickY);
+                yAxis.setTickLabelFormatter(volumeTickFormatter);
+            } else if (!Double.isNaN(model.lowerY)) {
                 yAxis.setAutoRanging(false);
-                yAxis.setLowerBound(lowerY);
-                yAxis.setUpperBound(upperY);
-                yAxis.setTickUnit(Math.max(1.0, (upperY - lowerY) / 8.0));
+                yAxis.setLowerBound(model.lowerY);
+                yAxis.setUpperBound(model.upperY);
+                yAxis.setTickUnit(model.tickY);
                 yAxis.setForceZeroInRange(false);
                 // Reset formatter for price chart if needed (though it's usually default)
                 yAxis.setTickLabelFormatter(null);
@@ -444,41 +474,14 @@ public class CryptoDetailView extends VBox {
             // For price chart, handle X axis
             if (!useVolume) {
                 NumberAxis xAxis = (NumberAxis) priceChart.getXAxis();
-                xAxis.setTickLabelFormatter(new StringConverter<Number>() {
-
-                    @Override
-                    public String toString(Number object) {
-                        if (object == null)
-                            return "";
-                        try {
-                            return formatter.format(Instant.ofEpochMilli(object.longValue()));
-                        } catch (Exception e) {
-                            return Long.toString(object.longValue());
-                        }
-                    }
-
-                    @Override
-                    public Number fromString(String string) {
-                        return null;
-                    }
-                });
+                xAxis.setTickLabelFormatter(timeTickFormatter(model.formatter));
 
                 // adjust X axis to the data range
-                if (fMinX != Long.MAX_VALUE && fMaxX != Long.MIN_VALUE) {
-
-                    double lowerX = fMinX;
-                    double upperX = fMaxX;
-                    if (lowerX == upperX) {
-                        // single point — give a 1-hour window
-                        lowerX = lowerX - 3_600_000;
-                        upperX = upperX + 3_600_000;
-                    }
+                if (!Double.isNaN(model.lowerX)) {
                     xAxis.setAutoRanging(false);
-                    xAxis.setLowerBound(lowerX);
-                    xAxis.setUpperBound(upperX);
-                    double tick = Math.max(1.0,
-                            (upperX - lowerX) / 6.0);
-                    xAxis.setTickUnit(tick);
+                    xAxis.setLowerBound(model.lowerX);
+                    xAxis.setUpperBound(model.upperX);
+                    xAxis.setTickUnit(model.tickX);
                 } else {
                     xAxis.setAutoRanging(true);
                 }
@@ -491,6 +494,47 @@ public class CryptoDetailView extends VBox {
         });
     }
 
+    /**
+     * Canvas path of {@link #showChart}
+     */
+    private void showCanvasChart(ChartRenderModel model) {
+        final boolean useVolume = model.volume;
+        UiDispatcher.fx().post(CHART_SLOT, () -> {
+            priceToggle.setSelected(!useVolume);
+            volumeToggle.setSelected(useVolume);
+            CanvasChart chart = useVolume ? volumeCanvas : priceCanvas;
+            if (!chartHolder.getChildren().contains(chart)) {
+                chartHolder.getChildren().setAll(chart);
+            }
+            chart.setFormatters(model.formatter, useVolume ? this::formatVolume : v -> String.format("%,.2f", v));
+            chart.setData(model.times, model.values, model.size());
+        });
+    }
+
+    /**
+     * Price chart X tick labels in the model's time format, one converter
+     * per format
+     */
+    private StringConverter<Number> timeTickFormatter(DateTimeFormatter formatter) {
+        return timeTickFormatters.computeIfAbsent(formatter, f -> new StringConverter<Number>() {
+            @Override
+            public String toString(Number object) {
+                if (object == null)
+                    return "";
+                try {
+                    return f.format(Instant.ofEpochMilli(object.longValue()));
+                } catch (Exception e) {
+                    return Long.toString(object.longValue());
+                }
+            }
+
+            @Override
+            public Number fromString(String string) {
+                return null;
+            }
+        });
+    }
+
     private String convertIntervalToDays(String interval) {
         return switch (interval) {
             case "1D" -> "1";
@@ -547,55 +591,15 @@ public class CryptoDetailView extends VBox {
         changeLabel.setText("");
         priceChart.getData().clear();
         volumeChart.getData().clear();
+        if (canvasCharts) {
+            priceCanvas.setData(new long[0], new double[0], 0);
+            volumeCanvas.setData(new long[0], new double[0], 0);
+        }
         marketCapValue.setText("");
         volumeValue.setText("");
         circulatingSupplyValue.setText("");
     }
 
-    private static DateTimeFormatter chooseFormatter(String days) {
-        try {
-            int d = Integer.parseInt(days);
-            if (d <= 1) {
-                return DateTimeFormatter.ofPattern("HH:mm").withZone(ZoneId.systemDefault());
-            } else if (d <= 7) {
-                return DateTimeFormatter.ofPattern("EEE HH:mm").withZone(ZoneId.systemDefault());
-            } else if (d <= 90) {
-                return DateTimeFormatter.ofPattern("MMM d").withZone(ZoneId.systemDefault());
-            } else if (d <= 365) {
-                return DateTimeFormatter.ofPattern("MMM d").withZone(ZoneId.systemDefault());
-            } else {
-                return DateTimeFormatter.ofPattern("MMM yyyy").withZone(ZoneId.systemDefault());
-            }
-        } catch (Exception ex) {
-            return DateTimeFormatter.ofPattern("MMM d").withZone(ZoneId.systemDefault());
-        }
-    }
-
-    private int calculateSampleRate(int totalPoints, String days) {
-        int targetLabels = 50;
-        try {
-            if (totalPoints <= targetLabels) {
-                return 1;
-            }
-
-            int d = Integer.parseInt(days);
-
-            if (d <= 1)
-                return Math.max(1, totalPoints / targetLabels);
-            else if (d <= 7)
-                return 1; // Sample every point for 1W interval
-            else if (d <= 30)
-                return 2; // Sample every 2nd point for 1M interval
-            else if (d <= 90)
-                return 3; // Sample every 3rd point for 3M interval
-            else
-                return 6; // Sample every 6th point for 1Y interval
-        } catch (Exception e) {
-            // Default to no sampling on error
-            return 1;
-        }
-    }
-
     private String formatVolume(double value) {
         if (Double.isNaN(value) || Double.isInfinite(value) || value <= 0)
             return "0";
@@ -5,7 +5,8 @@ import javafx.application.HostServices;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.Label;
-import javafx.scene.control.ScrollPane;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
 import javafx.scene.layout.*;
 import java.util.List;
 import java.util.function.Consumer;
@@ -17,13 +18,27 @@ import java.net.URISyntaxException;
 
 /**
  * View that renders the crypto list sidebar.
+ *
+ * The list is a {@link ListView}, so only the rows on screen have nodes and
+ * those are reused while scrolling; a list of a thousand coins costs about
+ * as much as one of twenty. Live prices and the enabled state are kept per
+ * coin id and applied to a row when it is shown, or straight away to the row
+ * currently showing that coin.
  */
 public class CryptoListView extends VBox {
-    private final VBox cryptoListBox = new VBox(8);
-    private HBox selectedSidebarItem = null;
-    private final java.util.Map<String, HBox> cryptoItems = new java.util.HashMap<>();
-    private final java.util.Map<String, Label> priceLabels = new java.util.HashMap<>();
-    private final java.util.Map<String, Label> changeLabels = new java.util.HashMap<>();
+    // Height of a row; a fixed size lets the list skip measuring rows
+    private static final double ROW_HEIGHT = 68;
+
+    private final ListView<Crypto> cryptoList = new ListView<>();
+    private final Label watchlistHeader = new Label("Top Cryptocurrencies");
+    // Latest polled {price, change} per coin id
+    private final java.util.Map<String, double[]> livePrices = new java.util.HashMap<>();
+    // Coins that cannot be selected until their data is loaded
+    private final java.util.Set<String> disabledIds = new java.util.HashSet<>();
+    // Row currently showing each coin
+    private final java.util.Map<String, CryptoCell> visibleCells = new java.util.HashMap<>();
+    // Set while the selection is changed without notifying the callback
+    private boolean selectingQuietly;
 
     // Callback for when a crypto is selected
     private Consumer<Crypto> onCryptoSelected;
@@ -53,21 +68,29 @@ public class CryptoListView extends VBox {
         poweredByBox.getChildren().addAll(poweredByLabel, cgLink);
         poweredByBox.getStyleClass().add("powered-by");
 
-        Label watchlistHeader = new Label("Top 5 Cryptocurrencies");
         watchlistHeader.getStyleClass().add("watchlist-header");
 
-        ScrollPane scrollPane = new ScrollPane(cryptoListBox);
-        scrollPane.setFitToWidth(true);
-        scrollPane.getStyleClass().add("sidebar-scroll-pane");
-        VBox.setVgrow(scrollPane, Priority.ALWAYS);
-
         Label loadingLabel = new Label("Loading data...");
         loadingLabel.setStyle("-fx-text-fill: white; -fx-padding: 10;");
         loadingLabel.setMaxWidth(Double.MAX_VALUE);
         loadingLabel.setAlignment(Pos.CENTER);
-        cryptoListBox.getChildren().add(loadingLabel);
 
-        getChildren().addAll(logo, poweredByBox, watchlistHeader, scrollPane);
+        cryptoList.getStyleClass().add("sidebar-list");
+        cryptoList.setPlaceholder(loadingLabel);
+        cryptoList.setFixedCellSize(ROW_HEIGHT);
+        cryptoList.setCellFactory(list -> new CryptoCell());
+        cryptoList.getSelectionModel().selectedItemProperty().addListener((obs, previous, crypto) -> {
+            if (crypto == null || selectingQuietly || disabledIds.contains(crypto.getId())) {
+                return;
+            }
+            // Notify controller about selection
+            if (onCryptoSelected != null) {
+                onCryptoSelected.accept(crypto);
+            }
+        });
+        VBox.setVgrow(cryptoList, Priority.ALWAYS);
+
+        getChildren().addAll(logo, poweredByBox, watchlistHeader, cryptoList);
     }
 
     /**
@@ -91,71 +114,34 @@ public class CryptoListView extends VBox {
      * All items start as disabled (grayed out) until their data is loaded
      */
     public void displayCryptos(List<Crypto> cryptos) {
-        cryptoListBox.getChildren().clear();
-        cryptoItems.clear();
-        priceLabels.clear();
-        changeLabels.clear();
-        for (Crypto crypto : cryptos) {
-            HBox item = createSidebarItem(crypto);
-            cryptoListBox.getChildren().add(item);
-            cryptoItems.put(crypto.getId(), item);
-            // Start with disabled state (grayed out)
-            setCryptoEnabled(crypto.getId(), false);
+        displayCryptos(cryptos, cryptos.size());
+    }
+
+    /**
+     * Load crypto list into sidebar. The first {@code preloadCount} items
+     * start as disabled (grayed out) until their data is loaded; the others
+     * load their data when selected.
+     */
+    public void displayCryptos(List<Crypto> cryptos, int preloadCount) {
+        livePrices.clear();
+        disabledIds.clear();
+        for (int i = 0; i < Math.min(preloadCount, cryptos.size()); i++) {
+            disabledIds.add(cryptos.get(i).getId());
         }
+        watchlistHeader.setText("Top " + cryptos.size() + " Cryptocurrencies");
+        cryptoList.getItems().setAll(cryptos);
     }
 
     /**
      * Enable/disable a crypto item based on whether its data is loaded
      */
     public void setCryptoEnabled(String cryptoId, boolean enabled) {
-        HBox item = cryptoItems.get(cryptoId);
-        if (item != null) {
-            if (enabled) {
-                item.getStyleClass().remove("sidebar-item-disabled");
-                item.setDisable(false);
-                // Make it brighter when enabled
-                item.setOpacity(1.0);
-            } else {
-                item.getStyleClass().add("sidebar-item-disabled");
-                item.setDisable(true);
-                // Make it grayed out when disabled
-                item.setOpacity(0.5);
-            }
+        boolean changed = enabled ? disabledIds.remove(cryptoId) : disabledIds.add(cryptoId);
+        if (changed) {
+            refreshRow(cryptoId);
         }
     }
 
-    private HBox createSidebarItem(Crypto crypto) {
-        HBox item = new HBox(10);
-        item.setPadding(new Insets(12));
-        item.getStyleClass().add("sidebar-item");
-
-        VBox nameAndSymbol = new VBox(2);
-        Label name = new Label(crypto.getName());
-        name.getStyleClass().add("crypto-name-sidebar");
-        Label symbol = new Label(crypto.getSymbol());
-        symbol.getStyleClass().add("crypto-symbol-sidebar");
-        nameAndSymbol.getChildren().addAll(name, symbol);
-
-        Region spacer = new Region();
-        HBox.setHgrow(spacer, Priority.ALWAYS);
-
-        Label priceLabel = new Label(crypto.getPriceFormatted());
-        priceLabel.getStyleClass().add("sidebar-price");
-        priceLabels.put(crypto.getId(), priceLabel);
-
-        Label change = new Label(crypto.getChangeFormatted());
-        change.getStyleClass().add(crypto.getChangePercent() >= 0 ? "positive-change" : "negative-change");
-        changeLabels.put(crypto.getId(), change);
-
-        VBox priceAndChange = new VBox(4);
-        priceAndChange.setAlignment(Pos.CENTER_RIGHT);
-        priceAndChange.getChildren().addAll(priceLabel, change);
-
-        item.getChildren().addAll(nameAndSymbol, spacer, priceAndChange);
-        item.setOnMouseClicked(e -> selectCrypto(crypto, item));
-        return item;
-    }
-
     /**
      * Update the displayed price and change for a crypto
      * Called by the price polling service
@@ -164,56 +150,124 @@ public class CryptoListView extends VBox {
      * @param newChangePercent The new 24h change percentage
      */
     public void updatePrice(String cryptoId, double newPrice, double newChangePercent) {
-        Label priceLabel = priceLabels.get(cryptoId);
-        Label changeLabel = changeLabels.get(cryptoId);
-        
-        if (priceLabel != null) {
-            priceLabel.setText(String.format("$%,.2f", newPrice));
-        }
-        
-        if (changeLabel != null) {
-            changeLabel.setText(String.format("%s%.2f%%", newChangePercent >= 0 ? "▲" : "▼", Math.abs(newChangePercent)));
-            changeLabel.getStyleClass().removeAll("positive-change", "negative-change");
-            changeLabel.getStyleClass().add(newChangePercent >= 0 ? "positive-change" : "negative-change");
-        }
+        livePrices.put(cryptoId, new double[] { newPrice, newChangePercent });
+        refreshRow(cryptoId);
     }
 
-    private void selectCrypto(Crypto crypto, HBox item) {
-        selectCrypto(crypto, item, true);
+    /**
+     * Programmatically select a crypto by ID (shows visual selection state)
+     * Does not trigger the onCryptoSelected callback to avoid duplicate handling
+     */
+    public void selectCryptoById(String cryptoId) {
+        List<Crypto> items = cryptoList.getItems();
+        for (int i = 0; i < items.size(); i++) {
+            if (items.get(i).getId().equals(cryptoId)) {
+                selectingQuietly = true;
+                try {
+                    cryptoList.getSelectionModel().select(i);
+                } finally {
+                    selectingQuietly = false;
+                }
+                cryptoList.scrollTo(i);
+                return;
+            }
+        }
     }
 
-    private void selectCrypto(Crypto crypto, HBox item, boolean notifyCallback) {
-        // Don't allow selection if item is disabled
-        if (item.isDisable()) {
-            return;
+    /**
+     * Redraw the row showing a coin, if it is on screen
+     */
+    private void refreshRow(String cryptoId) {
+        CryptoCell cell = visibleCells.get(cryptoId);
+        if (cell != null) {
+            cell.render();
         }
+    }
+
+    /**
+     * One sidebar row; its nodes are created once and reused for whichever
+     * coin the list assigns to it
+     */
+    private final class CryptoCell extends ListCell<Crypto> {
+        private final HBox item = new HBox(10);
+        private final Label name = new Label();
+        private final Label symbol = new Label();
+        private final Label priceLabel = new Label();
+        private final Label change = new Label();
+        private Crypto shown;
+
+        CryptoCell() {
+            item.setPadding(new Insets(12));
+            item.getStyleClass().add("sidebar-item");
+
+            VBox nameAndSymbol = new VBox(2);
+            name.getStyleClass().add("crypto-name-sidebar");
+            symbol.getStyleClass().add("crypto-symbol-sidebar");
+            nameAndSymbol.getChildren().addAll(name, symbol);
+
+            Region spacer = new Region();
+            HBox.setHgrow(spacer, Priority.ALWAYS);
 
-        if (selectedSidebarItem != null) {
-            selectedSidebarItem.getStyleClass().remove("sidebar-item-selected");
+            priceLabel.getStyleClass().add("sidebar-price");
+
+            VBox priceAndChange = new VBox(4);
+            priceAndChange.setAlignment(Pos.CENTER_RIGHT);
+            priceAndChange.getChildren().addAll(priceLabel, change);
+
+            item.getChildren().addAll(nameAndSymbol, spacer, priceAndChange);
+            setText(null);
         }
-        selectedSidebarItem = item;
-        selectedSidebarItem.getStyleClass().add("sidebar-item-selected");
 
-        // Notify controller about selection (only if requested)
-        if (notifyCallback && onCryptoSelected != null) {
-            onCryptoSelected.accept(crypto);
+        @Override
+        protected void updateItem(Crypto crypto, boolean empty) {
+            super.updateItem(crypto, empty);
+            if (shown != null && visibleCells.get(shown.getId()) == this) {
+                visibleCells.remove(shown.getId());
+            }
+            shown = empty ? null : crypto;
+            if (shown == null) {
+                setGraphic(null);
+                setDisable(false);
+                return;
+            }
+            visibleCells.put(shown.getId(), this);
+            name.setText(shown.getName());
+            symbol.setText(shown.getSymbol());
+            render();
+            setGraphic(item);
         }
-    }
 
-    /**
-     * Programmatically select a crypto by ID (shows visual selection state)
-     * Does not trigger the onCryptoSelected callback to avoid duplicate handling
-     */
-    public void selectCryptoById(String cryptoId) {
-        HBox item = cryptoItems.get(cryptoId);
-        if (item != null) {
-            // Find the crypto object - we need it for the selection
-            // Create a minimal Crypto just for selection purposes
-            if (selectedSidebarItem != null) {
-                selectedSidebarItem.getStyleClass().remove("sidebar-item-selected");
+        /**
+         * Apply the coin's live price and enabled state
+         */
+        void render() {
+            if (shown == null) {
+                return;
+            }
+            double[] live = livePrices.get(shown.getId());
+            double changePercent;
+            if (live != null) {
+                priceLabel.setText(String.format("$%,.2f", live[0]));
+                changePercent = live[1];
+                change.setText(String.format("%s%.2f%%", changePercent >= 0 ? "▲" : "▼", Math.abs(changePercent)));
+            } else {
+                priceLabel.setText(shown.getPriceFormatted());
+                changePercent = shown.getChangePercent();
+                change.setText(shown.getChangeFormatted());
+            }
+            change.getStyleClass().setAll("label", changePercent >= 0 ? "positive-change" : "negative-change");
+
+            boolean disabled = disabledIds.contains(shown.getId());
+            setDisable(disabled);
+            // Grayed out until the data is loaded
+            item.setOpacity(disabled ? 0.5 : 1.0);
+            if (disabled) {
+                if (!item.getStyleClass().contains("sidebar-item-disabled")) {
+                    item.getStyleClass().add("sidebar-item-disabled");
+                }
+            } else {
+                item.getStyleClass().remove("sidebar-item-disabled");
             }
-            selectedSidebarItem = item;
-            selectedSidebarItem.getStyleClass().add("sidebar-item-selected");
         }
     }
 }
@@ -3,28 +3,49 @@ package com.mycompany.app.views;
 import com.mycompany.app.models.News;
 import javafx.application.HostServices;
 import javafx.geometry.Insets;
+import javafx.scene.Node;
 import javafx.scene.control.Hyperlink;
 import javafx.scene.control.Label;
-import javafx.scene.control.ScrollPane;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
 import javafx.scene.control.ToggleButton;
 import javafx.scene.control.ToggleGroup;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.Region;
+import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
 import javafx.animation.KeyFrame;
 import javafx.animation.KeyValue;
 import javafx.animation.Timeline;
 import javafx.util.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Consumer;
 
+/**
+ * News feed: a {@link ListView} of article cards whose nodes are reused while
+ * scrolling. When the list is scrolled near its end, the load-more callback
+ * asks for the next page, which is appended with {@link #appendNews}.
+ *
+ * While the first page loads, skeleton cards with a shimmer animation are
+ * shown instead. Their timelines are stopped and the skeleton nodes dropped
+ * as soon as articles (or an empty result) replace them.
+ */
 public class NewsView extends VBox {
-    private final VBox newsList = new VBox(12);
+    private static final int SKELETON_COUNT = 4;
+    // Ask for the next page when a card this close to the end is shown
+    private static final int LOAD_MORE_THRESHOLD = 3;
+
+    private final ListView<News> newsList = new ListView<>();
+    private final VBox skeletonBox = new VBox(12);
+    private final Label loadingMoreLabel = new Label("Loading more...");
     private final ToggleButton allToggle;
     private final ToggleButton selectedToggle;
+    // Shimmer animations of the skeleton cards on screen
+    private final List<Timeline> skeletonTimelines = new ArrayList<>();
     private HostServices hostServices;
-    private static final int SKELETON_COUNT = 4;
+    private Runnable onLoadMore;
 
     public NewsView(Consumer<Boolean> onToggleChanged) {
         super(15);
@@ -54,18 +75,35 @@ public class NewsView extends VBox {
             }
         });
 
-        ScrollPane scrollPane = new ScrollPane(newsList);
-        scrollPane.setFitToWidth(true);
-        scrollPane.getStyleClass().add("news-scroll-pane");
+        Label emptyLabel = new Label("No news found");
+        emptyLabel.getStyleClass().add("news-subtitle");
+        newsList.setPlaceholder(emptyLabel);
+        newsList.getStyleClass().add("news-list");
+        newsList.setCellFactory(list -> new NewsCell());
+
+        skeletonBox.setVisible(false);
+        skeletonBox.getStyleClass().add("news-skeletons");
 
-        getChildren().addAll(header, toggleBox, scrollPane);
-        VBox.setVgrow(scrollPane, Priority.ALWAYS);
+        loadingMoreLabel.getStyleClass().add("news-subtitle");
+        loadingMoreLabel.setVisible(false);
+        loadingMoreLabel.setManaged(false);
+
+        StackPane feed = new StackPane(newsList, skeletonBox);
+        getChildren().addAll(header, toggleBox, feed, loadingMoreLabel);
+        VBox.setVgrow(feed, Priority.ALWAYS);
     }
 
     public void setHostServices(HostServices hostServices) {
         this.hostServices = hostServices;
     }
 
+    /**
+     * Set callback run when the feed is scrolled near its last article
+     */
+    public void setOnLoadMore(Runnable onLoadMore) {
+        this.onLoadMore = onLoadMore;
+    }
+
     public boolean isShowAllSelected() {
         return allToggle.isSelected();
     }
@@ -74,17 +112,73 @@ public class NewsView extends VBox {
      * Show skeleton loading cards while news is being fetched
      */
     public void showLoading() {
-        newsList.getChildren().clear();
+        stopSkeletons();
+        newsList.getItems().clear();
+        setLoadingMore(false);
         for (int i = 0; i < SKELETON_COUNT; i++) {
-            newsList.getChildren().add(createSkeletonCard());
+            skeletonBox.getChildren().add(createSkeletonCard());
         }
+        skeletonBox.setVisible(true);
     }
 
+    /**
+     * Replace the feed with {@code news}
+     */
     public void updateNews(List<News> news) {
-        newsList.getChildren().clear();
-        if (news == null) return;
-        for (News n : news) {
-            newsList.getChildren().add(createNewsCard(n));
+        stopSkeletons();
+        setLoadingMore(false);
+        if (news == null) {
+            newsList.getItems().clear();
+            return;
+        }
+        newsList.getItems().setAll(news);
+        newsList.scrollTo(0);
+    }
+
+    /**
+     * Add the next page of articles to the end of the feed
+     */
+    public void appendNews(List<News> news) {
+        setLoadingMore(false);
+        if (news != null && !news.isEmpty()) {
+            newsList.getItems().addAll(news);
+        }
+    }
+
+    /**
+     * Show or hide the "Loading more" hint below the feed
+     */
+    public void setLoadingMore(boolean loading) {
+        loadingMoreLabel.setVisible(loading);
+        loadingMoreLabel.setManaged(loading);
+    }
+
+    /**
+     * Stop the shimmer animations and drop the skeleton cards, so nothing
+     * keeps running or holding on to them once they are off screen
+     */
+    private void stopSkeletons() {
+        for (Timeline timeline : skeletonTimelines) {
+            timeline.stop();
+        }
+        skeletonTimelines.clear();
+        // The lines' width bindings would otherwise keep them registered
+        // with the (long-lived) skeleton box
+        for (Node card : skeletonBox.getChildren()) {
+            unbindWidths(card);
+        }
+        skeletonBox.getChildren().clear();
+        skeletonBox.setVisible(false);
+    }
+
+    private static void unbindWidths(Node node) {
+        if (node instanceof Region) {
+            ((Region) node).maxWidthProperty().unbind();
+        }
+        if (node instanceof VBox) {
+            for (Node child : ((VBox) node).getChildren()) {
+                unbindWidths(child);
+            }
         }
     }
 
@@ -128,11 +222,11 @@ public class NewsView extends VBox {
         line.setMaxWidth(Double.MAX_VALUE);
         line.setMinHeight(16);
         line.setMaxHeight(16);
-        
+
         // Set width as percentage of parent
-        line.maxWidthProperty().bind(newsList.widthProperty().multiply(widthPercentage).subtract(20));
-        
-        // Add shimmer animation
+        line.maxWidthProperty().bind(skeletonBox.widthProperty().multiply(widthPercentage).subtract(20));
+
+        // Add shimmer animation; stopped in stopSkeletons
         Timeline timeline = new Timeline(
             new KeyFrame(Duration.ZERO, new KeyValue(line.opacityProperty(), 0.3)),
             new KeyFrame(Duration.millis(800), new KeyValue(line.opacityProperty(), 0.6)),
@@ -140,57 +234,77 @@ public class NewsView extends VBox {
         );
         timeline.setCycleCount(Timeline.INDEFINITE);
         timeline.play();
-        
+        skeletonTimelines.add(timeline);
+
         return line;
     }
 
-    private VBox createNewsCard(News news) {
-        VBox card = new VBox(5);
-        card.getStyleClass().add("news-card");
-        
-        // Title (Headline)
-        Label title = new Label(news.getTitle());
-        title.getStyleClass().add("news-title");
-        title.setWrapText(true);
-
-        // Source and Date
-        Label metadata = new Label(news.getSource() + " · " + news.getDate());
-        metadata.getStyleClass().add("news-subtitle");
-        metadata.setWrapText(false);
-
-        // Summary/Snippet
-        VBox summaryContainer = new VBox();
-        if (news.getSummary() != null && !news.getSummary().isEmpty()) {
-            Label summary = new Label(news.getSummary());
+    /**
+     * One article card; its nodes are created once and reused for whichever
+     * article the list assigns to it
+     */
+    private final class NewsCell extends ListCell<News> {
+        private final VBox card = new VBox(5);
+        private final Label title = new Label();
+        private final Label metadata = new Label();
+        private final Label summary = new Label();
+        private final Hyperlink readMore = new Hyperlink("Read full article");
+        private News shown;
+
+        NewsCell() {
+            card.getStyleClass().add("news-card");
+
+            // Title (Headline)
+            title.getStyleClass().add("news-title");
+            title.setWrapText(true);
+
+            // Source and Date
+            metadata.getStyleClass().add("news-subtitle");
+            metadata.setWrapText(false);
+
+            // Summary/Snippet
             summary.getStyleClass().add("news-summary");
             summary.setWrapText(true);
             summary.setStyle("-fx-text-fill: #b0b0b0; -fx-font-size: 11;");
-            summaryContainer.getChildren().add(summary);
-            summaryContainer.setPadding(new Insets(5, 0, 5, 0));
-        }
+            summary.setPadding(new Insets(5, 0, 5, 0));
 
-        // Read More Link
-        VBox linkContainer = new VBox();
-        if (news.getLink() != null && !news.getLink().isEmpty()) {
-            Hyperlink readMore = new Hyperlink("Read full article");
+            // Read More Link
             readMore.getStyleClass().add("news-link");
             readMore.setStyle("-fx-font-size: 11; -fx-text-fill: #4a9eff;");
             readMore.setOnAction(event -> {
-                if (hostServices != null) {
-                    hostServices.showDocument(news.getLink());
+                if (hostServices != null && shown != null) {
+                    hostServices.showDocument(shown.getLink());
                 }
             });
-            linkContainer.getChildren().add(readMore);
-        }
 
-        card.getChildren().addAll(title, metadata);
-        if (!summaryContainer.getChildren().isEmpty()) {
-            card.getChildren().add(summaryContainer);
-        }
-        if (!linkContainer.getChildren().isEmpty()) {
-            card.getChildren().add(linkContainer);
+            // Wrap to the list width rather than the text's preferred width
+            setPrefWidth(0);
+            setText(null);
         }
 
-        return card;
+        @Override
+        protected void updateItem(News news, boolean empty) {
+            super.updateItem(news, empty);
+            shown = empty ? null : news;
+            if (shown == null) {
+                setGraphic(null);
+                return;
+            }
+            title.setText(news.getTitle());
+            metadata.setText(news.getSource() + " · " + news.getDate());
+            card.getChildren().setAll(title, metadata);
+            if (news.getSummary() != null && !news.getSummary().isEmpty()) {
+                summary.setText(news.getSummary());
+                card.getChildren().add(summary);
+            }
+            if (news.getLink() != null && !news.getLink().isEmpty()) {
+                card.getChildren().add(readMore);
+            }
+            setGraphic(card);
+
+            if (onLoadMore != null && getIndex() >= getListView().getItems().size() - LOAD_MORE_THRESHOLD) {
+                onLoadMore.run();
+            }
+        }
     }
 }
@@ -0,0 +1,130 @@
+package com.mycompany.app.views;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+
+/**
+ * Hands UI updates from any thread to the JavaFX thread, at most once per
+ * frame.
+ *
+ * Each update is posted under a key (e.g. "price:bitcoin"). Until the next
+ * pulse only the latest update per key is kept; the ones it replaces are
+ * dropped without running. An {@link AnimationTimer} runs the pending
+ * updates at the start of a pulse, before CSS and layout, so a burst of
+ * events costs one layout pass instead of one per event. Updates run in the
+ * order their keys were first posted since the last drain.
+ *
+ * The timer only runs while there is something to drain: it is started when
+ * an update arrives and stops itself after a pulse with nothing pending.
+ */
+public final class UiDispatcher {
+    private static volatile UiDispatcher fx;
+
+    private final Runnable requestFrames;
+    private final Object lock = new Object();
+    // Latest update per key, in first-posted order; guarded by lock
+    private LinkedHashMap<Object, Runnable> pending = new LinkedHashMap<>();
+    // Whether frames are running or have been requested; guarded by lock
+    private boolean armed;
+    private final AtomicLong superseded = new AtomicLong();
+
+    // Created and used on the JavaFX thread only
+    private AnimationTimer timer;
+
+    /**
+     * @param requestFrames called, from the posting thread, when updates are
+     *                      pending and no frames are running; must arrange
+     *                      for {@link #drain} to be called on each following
+     *                      frame until it returns false
+     */
+    UiDispatcher(Runnable requestFrames) {
+        this.requestFrames = requestFrames;
+    }
+
+    /**
+     * The dispatcher driven by JavaFX pulses
+     */
+    public static UiDispatcher fx() {
+        UiDispatcher instance = fx;
+        if (instance == null) {
+            synchronized (UiDispatcher.class) {
+                instance = fx;
+                if (instance == null) {
+                    UiDispatcher[] self = new UiDispatcher[1];
+                    instance = new UiDispatcher(() -> Platform.runLater(() -> self[0].startTimer()));
+                    self[0] = instance;
+                    fx = instance;
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Run {@code update} on the JavaFX thread at the next pulse, replacing
+     * any update still pending under {@code key}
+     */
+    public void post(Object key, Runnable update) {
+        boolean request;
+        synchronized (lock) {
+            if (pending.put(key, update) != null) {
+                superseded.incrementAndGet();
+            }
+            request = !armed;
+            armed = true;
+        }
+        if (request) {
+            requestFrames.run();
+        }
+    }
+
+    /**
+     * Run the pending updates. Returns false, and disarms, when there were
+     * none, so the frame source can stop until the next post.
+     */
+    boolean drain() {
+        Map<Object, Runnable> batch;
+        synchronized (lock) {
+            if (pending.isEmpty()) {
+                armed = false;
+                return false;
+            }
+            batch = pending;
+            pending = new LinkedHashMap<>();
+        }
+        for (Runnable update : batch.values()) {
+            try {
+                update.run();
+            } catch (RuntimeException e) {
+                System.err.println("UI update failed: " + e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Number of updates dropped because a newer one replaced them before
+     * they ran. For tests and monitoring.
+     */
+    public long getSupersededCount() {
+        return superseded.get();
+    }
+
+    private void startTimer() {
+        if (timer == null) {
+            timer = new AnimationTimer() {
+                @Override
+                public void handle(long now) {
+                    if (!drain()) {
+                        stop();
+                    }
+                }
+            };
+        }
+        timer.start();
+    }
+}
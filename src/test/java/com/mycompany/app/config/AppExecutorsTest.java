@@ -0,0 +1,50 @@
+package com.mycompany.app.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the AppExecutors thread pools
+ */
+public class AppExecutorsTest {
+
+    private final AppExecutors executors = new AppExecutors(4, 2);
+
+    @AfterEach
+    public void tearDown() {
+        executors.shutdown();
+    }
+
+    @Test
+    public void testPoolsUseNamedDaemonThreads() throws Exception {
+        Thread io = CompletableFuture.supplyAsync(Thread::currentThread, executors.io()).get(5, TimeUnit.SECONDS);
+        Thread compute = CompletableFuture.supplyAsync(Thread::currentThread, executors.compute()).get(5, TimeUnit.SECONDS);
+        Thread timer = executors.scheduler().schedule(Thread::currentThread, 1, TimeUnit.MILLISECONDS).get(5, TimeUnit.SECONDS);
+
+        assertTrue(io.getName().startsWith("io-"), io.getName());
+        assertTrue(compute.getName().startsWith("compute-"), compute.getName());
+        assertTrue(timer.getName().startsWith("scheduler-"), timer.getName());
+        assertTrue(io.isDaemon() && compute.isDaemon() && timer.isDaemon());
+    }
+
+    @Test
+    public void testPoolsAreSeparate() {
+        assertNotSame(executors.io(), executors.compute());
+    }
+
+    @Test
+    public void testSharedInstanceIsReused() {
+        assertSame(AppExecutors.shared(), AppExecutors.shared());
+    }
+
+    @Test
+    public void testInvalidSizesRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new AppExecutors(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new AppExecutors(1, 0));
+    }
+}
@@ -0,0 +1,90 @@
+package com.mycompany.app.controllers;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import com.mycompany.app.models.HistoricalData;
+import com.mycompany.app.services.ICryptoService;
+import com.mycompany.app.views.ChartRenderModel;
+
+/**
+ * Unit tests for ChartModelCache
+ */
+public class ChartModelCacheTest {
+
+    private ICryptoService service;
+    private ChartModelCache cache;
+    private ICryptoService.HistoricalDataListener listener;
+
+    @BeforeEach
+    public void setUp() {
+        service = Mockito.mock(ICryptoService.class);
+        // Run rebuilds inline
+        cache = new ChartModelCache(service, Runnable::run, "1", "7", "30", "90", "365");
+        ArgumentCaptor<ICryptoService.HistoricalDataListener> captor =
+                ArgumentCaptor.forClass(ICryptoService.HistoricalDataListener.class);
+        Mockito.verify(service).addHistoricalDataListener(captor.capture());
+        listener = captor.getValue();
+    }
+
+    private static HistoricalData series(int n, double lastPrice) {
+        HistoricalData.Builder builder = new HistoricalData.Builder(n);
+        for (int i = 0; i < n; i++) {
+            builder.add(i * 60_000L, i == n - 1 ? lastPrice : 100.0 + i, 1.0 + i);
+        }
+        return builder.build();
+    }
+
+    @Test
+    public void testModelIsReusedForSameSeries() {
+        HistoricalData data = series(10, 50.0);
+
+        ChartRenderModel first = cache.get("bitcoin", "1", false, 800, data);
+        ChartRenderModel second = cache.get("bitcoin", "1", false, 800, series(10, 50.0));
+
+        assertSame(first, second);
+        assertNotSame(first, cache.get("bitcoin", "1", true, 800, data));
+        assertNotSame(first, cache.get("bitcoin", "1", false, 400, data));
+    }
+
+    @Test
+    public void testChangedSeriesIsRebuilt() {
+        ChartRenderModel first = cache.get("bitcoin", "1", false, 800, series(10, 50.0));
+
+        ChartRenderModel second = cache.get("bitcoin", "1", false, 800, series(10, 51.0));
+
+        assertNotSame(first, second);
+    }
+
+    @Test
+    public void testStoredSeriesRebuildsDerivedIntervals() {
+        HistoricalData data = series(10, 50.0);
+        when(service.peekHistoricalData(any(), any())).thenReturn(data);
+
+        // The 90-day series also backs the 7- and 30-day charts
+        listener.onHistoricalDataStored("bitcoin", "90");
+
+        assertEquals(6, cache.size());
+        ChartRenderModel week = cache.get("bitcoin", "7", true, 800, data);
+        assertSame(week, cache.get("bitcoin", "7", true, 800, data));
+        Mockito.verify(service, Mockito.never()).peekHistoricalData("bitcoin", "1");
+        // Rebuilds never go through the fetching lookup
+        Mockito.verify(service, Mockito.never()).getHistoricalDataForCrypto(any(), any());
+    }
+
+    @Test
+    public void testCacheIsBounded() {
+        HistoricalData data = series(3, 1.0);
+        for (int i = 0; i < ChartModelCache.MAX_ENTRIES + 10; i++) {
+            cache.get("coin" + i, "1", false, 800, data);
+        }
+
+        assertEquals(ChartModelCache.MAX_ENTRIES, cache.size());
+    }
+}
@@ -0,0 +1,89 @@
+package com.mycompany.app.models;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the chart Downsampler
+ */
+public class DownsamplerTest {
+
+    /**
+     * Flat series of {@code n} samples one second apart with a single spike
+     * in both columns at {@code spikeAt}
+     */
+    private static HistoricalData flatWithSpike(int n, int spikeAt) {
+        HistoricalData.Builder builder = new HistoricalData.Builder(n);
+        for (int i = 0; i < n; i++) {
+            double value = i == spikeAt ? 1000.0 : 10.0 + (i % 3);
+            builder.add(i * 1000L, value, value);
+        }
+        return builder.build();
+    }
+
+    private static boolean containsTime(HistoricalData data, long time) {
+        for (int i = 0; i < data.size(); i++) {
+            if (data.getTime(i) == time) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Test
+    public void testLttbReducesToThresholdAndKeepsEnds() {
+        HistoricalData data = flatWithSpike(5000, 1234);
+
+        HistoricalData reduced = Downsampler.lttb(data, 100);
+
+        assertEquals(100, reduced.size());
+        assertEquals(data.getTime(0), reduced.getTime(0));
+        assertEquals(data.getTime(4999), reduced.getTime(99));
+        assertTrue(containsTime(reduced, 1234 * 1000L), "spike should be kept");
+        for (int i = 1; i < reduced.size(); i++) {
+            assertTrue(reduced.getTime(i) > reduced.getTime(i - 1));
+        }
+    }
+
+    @Test
+    public void testMinMaxKeepsVolumeSpike() {
+        HistoricalData data = flatWithSpike(5000, 1237);
+
+        HistoricalData reduced = Downsampler.minMax(data, 50);
+
+        assertTrue(reduced.size() <= 100);
+        assertTrue(containsTime(reduced, 1237 * 1000L), "spike should be kept");
+        double max = 0;
+        for (int i = 0; i < reduced.size(); i++) {
+            max = Math.max(max, reduced.getVolume(i));
+        }
+        assertEquals(1000.0, max, 0.001);
+    }
+
+    @Test
+    public void testSmallSeriesIsReturnedUnchanged() {
+        HistoricalData data = flatWithSpike(50, 10);
+
+        assertSame(data, Downsampler.lttb(data, 100));
+        assertSame(data, Downsampler.minMax(data, 25));
+    }
+
+    @Test
+    public void testMissingValuesAreSkipped() {
+        HistoricalData data = new HistoricalData(
+            new long[] { 1, 2, 3, 4 },
+            new double[] { 1.0, Double.NaN, 3.0, 4.0 },
+            new double[] { Double.NaN, 2.0, 3.0, 4.0 });
+
+        assertArrayEquals(new long[] { 1, 3, 4 }, Downsampler.lttb(data, 10).getTimes());
+        assertArrayEquals(new long[] { 2, 3, 4 }, Downsampler.minMax(data, 10).getTimes());
+    }
+
+    @Test
+    public void testEmptySeries() {
+        HistoricalData empty = new HistoricalData(null);
+        assertSame(empty, Downsampler.lttb(empty, 10));
+        assertSame(empty, Downsampler.minMax(empty, 10));
+    }
+}
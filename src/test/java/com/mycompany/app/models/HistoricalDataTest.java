@@ -0,0 +1,153 @@
+package com.mycompany.app.models;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the columnar HistoricalData model
+ */
+public class HistoricalDataTest {
+
+    @Test
+    public void testNullPointsProducesEmptySeries() {
+        HistoricalData data = new HistoricalData(null);
+        assertTrue(data.isEmpty());
+        assertEquals(0, data.size());
+        assertTrue(data.getPoints().isEmpty());
+    }
+
+    @Test
+    public void testPointListIsStoredColumnWise() {
+        HistoricalData data = new HistoricalData(Arrays.asList(
+            new ChartPoint(Instant.ofEpochMilli(1000), 50000.0, 1.5e9),
+            new ChartPoint(Instant.ofEpochMilli(2000), null, null)
+        ));
+
+        assertEquals(2, data.size());
+        assertEquals(1000, data.getTime(0));
+        assertEquals(50000.0, data.getPrice(0), 0.001);
+        assertEquals(1.5e9, data.getVolume(0), 0.001);
+        assertTrue(Double.isNaN(data.getPrice(1)));
+        assertTrue(Double.isNaN(data.getVolume(1)));
+    }
+
+    @Test
+    public void testPointsViewMapsNaNToNull() {
+        HistoricalData data = new HistoricalData(
+            new long[] { 1000, 2000 },
+            new double[] { 1.0, Double.NaN },
+            new double[] { Double.NaN, 4.0 });
+
+        List<ChartPoint> points = data.getPoints();
+        assertEquals(2, points.size());
+        assertEquals(Instant.ofEpochMilli(1000), points.get(0).getTime());
+        assertEquals(1.0, points.get(0).getPrice(), 0.001);
+        assertNull(points.get(0).getVolume());
+        assertNull(points.get(1).getPrice());
+        assertEquals(4.0, points.get(1).getVolume(), 0.001);
+    }
+
+    @Test
+    public void testPointsViewIsReadOnly() {
+        HistoricalData data = new HistoricalData(new long[] { 1 }, new double[] { 1 }, new double[] { 1 });
+        assertThrows(UnsupportedOperationException.class, () -> data.getPoints().clear());
+    }
+
+    @Test
+    public void testColumnGettersReturnCopies() {
+        HistoricalData data = new HistoricalData(new long[] { 1 }, new double[] { 2 }, new double[] { 3 });
+        data.getTimes()[0] = 99;
+        data.getPrices()[0] = 99;
+        assertEquals(1, data.getTime(0));
+        assertEquals(2.0, data.getPrice(0), 0.001);
+    }
+
+    @Test
+    public void testMismatchedColumnsRejected() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new HistoricalData(new long[2], new double[1], new double[2]));
+        assertThrows(IllegalArgumentException.class,
+            () -> new HistoricalData(null, new double[0], new double[0]));
+    }
+
+    @Test
+    public void testBuilderGrowsAndTrims() {
+        HistoricalData.Builder builder = new HistoricalData.Builder(2);
+        for (int i = 0; i < 5; i++) {
+            builder.add(i * 1000L, i, i * 10.0);
+        }
+        HistoricalData data = builder.build();
+
+        assertEquals(5, data.size());
+        assertEquals(4000, data.getTime(4));
+        assertEquals(40.0, data.getVolume(4), 0.001);
+    }
+
+    @Test
+    public void testEmptyBuilderBuildsEmptySeries() {
+        assertTrue(new HistoricalData.Builder().build().isEmpty());
+    }
+
+    private static HistoricalData series(long... times) {
+        HistoricalData.Builder builder = new HistoricalData.Builder(times.length);
+        for (long t : times) {
+            builder.add(t, t, t);
+        }
+        return builder.build();
+    }
+
+    @Test
+    public void testAppendTailSkipsOverlapAndTrimsHead() {
+        HistoricalData existing = series(100, 200, 300, 400);
+        HistoricalData tail = series(300, 400, 500, 600);
+
+        HistoricalData merged = existing.appendTail(tail, 0, 200);
+
+        assertArrayEquals(new long[] { 200, 300, 400, 500, 600 }, merged.getTimes());
+        assertEquals(4, existing.size());
+    }
+
+    @Test
+    public void testAppendTailThinsFinerTail() {
+        HistoricalData existing = series(0, 60, 120);
+        HistoricalData tail = series(125, 150, 180, 185, 200, 240, 250);
+
+        HistoricalData merged = existing.appendTail(tail, 60, Long.MIN_VALUE);
+
+        assertArrayEquals(new long[] { 0, 60, 120, 180, 240 }, merged.getTimes());
+    }
+
+    @Test
+    public void testAppendTailOnEmptySeries() {
+        HistoricalData merged = new HistoricalData(null).appendTail(series(1, 2, 3), 0, Long.MIN_VALUE);
+        assertArrayEquals(new long[] { 1, 2, 3 }, merged.getTimes());
+
+        assertArrayEquals(new long[] { 5 }, series(5).appendTail(null, 0, 0).getTimes());
+    }
+
+    @Test
+    public void testIndexAtOrAfterFindsLowerBound() {
+        HistoricalData data = series(100, 200, 300, 400);
+
+        assertEquals(0, data.indexAtOrAfter(50));
+        assertEquals(1, data.indexAtOrAfter(200));
+        assertEquals(2, data.indexAtOrAfter(201));
+        assertEquals(4, data.indexAtOrAfter(401));
+        assertEquals(0, new HistoricalData(null).indexAtOrAfter(0));
+    }
+
+    @Test
+    public void testSliceCopiesTimeRange() {
+        HistoricalData data = series(100, 200, 300, 400);
+
+        assertArrayEquals(new long[] { 200, 300 }, data.slice(150, 400).getTimes());
+        assertArrayEquals(new long[] { 300, 400 }, data.slice(300, Long.MAX_VALUE).getTimes());
+        assertSame(data, data.slice(0, Long.MAX_VALUE));
+        assertTrue(data.slice(500, Long.MAX_VALUE).isEmpty());
+    }
+}
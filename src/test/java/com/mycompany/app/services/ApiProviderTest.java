@@ -0,0 +1,60 @@
+package com.mycompany.app.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.Properties;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for ApiProvider request building
+ */
+public class ApiProviderTest {
+
+    @Test
+    public void testCoinGeckoKeyGoesInHeader() {
+        Properties props = new Properties();
+        props.setProperty("coingecko.api.url", "https://example.com/api/v3");
+        props.setProperty("coingecko.api.key", "demo-key");
+        props.setProperty("http.coingecko.timeoutMs", "1500");
+
+        HttpRequest request = ApiProvider.coinGecko(props)
+                .get("/coins/bitcoin/market_chart", "vs_currency", "usd", "days", 7);
+
+        assertEquals("https://example.com/api/v3/coins/bitcoin/market_chart?vs_currency=usd&days=7",
+                request.uri().toString());
+        assertEquals("demo-key", request.headers().firstValue("x-cg-demo-api-key").orElse(null));
+        assertEquals(Duration.ofMillis(1500), request.timeout().orElse(null));
+    }
+
+    @Test
+    public void testKeyHeaderIsConfigurableAndBlankKeyIsLeftOut() {
+        Properties props = new Properties();
+        props.setProperty("coingecko.api.keyHeader", "x-cg-pro-api-key");
+        props.setProperty("coingecko.api.key", "pro-key");
+        assertTrue(ApiProvider.coinGecko(props).get("/ping").headers().firstValue("x-cg-pro-api-key").isPresent());
+
+        HttpRequest anonymous = ApiProvider.coinGecko(new Properties()).get("/ping");
+        assertEquals("https://api.coingecko.com/api/v3/ping", anonymous.uri().toString());
+        assertFalse(anonymous.headers().firstValue("x-cg-demo-api-key").isPresent());
+        assertEquals("gzip, deflate", anonymous.headers().firstValue("Accept-Encoding").orElse(null));
+    }
+
+    @Test
+    public void testSerpApiKeyGoesInQueryAndValuesAreEncoded() {
+        HttpRequest request = ApiProvider.serpApi(new Properties(), "secret")
+                .get("", "q", "Bitcoin recent news", "num", 10);
+
+        assertEquals("https://serpapi.com/search?q=Bitcoin+recent+news&num=10&api_key=secret",
+                request.uri().toString());
+        assertFalse(request.headers().firstValue("api_key").isPresent());
+    }
+
+    @Test
+    public void testUnpairedParametersAreRejected() {
+        ApiProvider provider = ApiProvider.serpApi(new Properties(), "");
+        assertThrows(IllegalArgumentException.class, () -> provider.get("", "q"));
+    }
+}
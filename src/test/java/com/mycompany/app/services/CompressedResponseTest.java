@@ -0,0 +1,159 @@
+package com.mycompany.app.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletionException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.mycompany.app.config.AppExecutors;
+import com.mycompany.app.models.Crypto;
+import com.mycompany.app.models.HistoricalData;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Compressed responses end to end, against a local HTTP server that serves
+ * gzip and deflate bodies
+ */
+public class CompressedResponseTest {
+
+    private static final String MARKETS = "[{\"id\": \"bitcoin\", \"name\": \"Bitcoin\", \"symbol\": \"btc\","
+            + " \"current_price\": 65000.5, \"price_change_percentage_24h\": 2.5}]";
+
+    private HttpServer server;
+    // Accept-Encoding of the last request per path
+    private final Map<String, String> acceptEncoding = new ConcurrentHashMap<>();
+    private Properties props;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/coins/markets", exchange -> respond(exchange, 200, "gzip", gzip(MARKETS)));
+        server.createContext("/coins/bitcoin/market_chart",
+                exchange -> respond(exchange, 200, "deflate", deflate(marketChart(365 * 24), false)));
+        server.createContext("/error",
+                exchange -> respond(exchange, 503, "gzip", gzip("{\"error\": \"maintenance\"}")));
+        server.start();
+        props = new Properties();
+        props.setProperty("coingecko.api.url", "http://127.0.0.1:" + server.getAddress().getPort());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    private void respond(HttpExchange exchange, int status, String encoding, byte[] body) throws IOException {
+        acceptEncoding.put(exchange.getRequestURI().getPath(),
+                String.valueOf(exchange.getRequestHeaders().getFirst("Accept-Encoding")));
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.getResponseHeaders().add("Content-Encoding", encoding);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static String marketChart(int points) {
+        StringBuilder prices = new StringBuilder();
+        // Hourly points up to about now, so none fall outside the window
+        long start = System.currentTimeMillis() - points * 3_600_000L;
+        for (int i = 0; i < points; i++) {
+            if (i > 0) {
+                prices.append(',');
+            }
+            prices.append('[').append(start + i * 3_600_000L).append(',').append(60000 + i % 500).append(".25]");
+        }
+        return "{\"prices\": [" + prices + "], \"market_caps\": [], \"total_volumes\": []}";
+    }
+
+    private static byte[] gzip(String text) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] deflate(String text, boolean raw) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, raw);
+        try (DeflaterOutputStream out = new DeflaterOutputStream(bytes, deflater)) {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+        } finally {
+            deflater.end();
+        }
+        return bytes.toByteArray();
+    }
+
+    private CryptoService service() {
+        CryptoService service = new CryptoService(HttpClient.newHttpClient(), new CryptoCache(), props);
+        service.setRateLimiter(RateLimiter.unlimited());
+        service.setRetryPolicy(new RetryPolicy(1, Duration.ofMillis(10), Duration.ofMillis(10), Duration.ofSeconds(5)));
+        return service;
+    }
+
+    @Test
+    public void testGzipMarketsAreDecoded() {
+        List<Crypto> cryptos = service().getTopCryptos();
+
+        assertEquals(1, cryptos.size());
+        assertEquals("bitcoin", cryptos.get(0).getId());
+        assertEquals(65000.5, cryptos.get(0).getPrice(), 1e-9);
+        assertEquals("gzip, deflate", acceptEncoding.get("/coins/markets"));
+    }
+
+    @Test
+    public void testDeflateMarketChartIsDecoded() {
+        HistoricalData data = service().getHistoricalDataForCrypto("bitcoin", "365");
+
+        assertTrue(data.size() > 364 * 24, "got " + data.size() + " points");
+        assertEquals(60000.25 + (365 * 24 - 1) % 500, data.getPrice(data.size() - 1), 1e-9);
+        assertEquals("gzip, deflate", acceptEncoding.get("/coins/bitcoin/market_chart"));
+    }
+
+    @Test
+    public void testCompressedErrorBodyIsReadable() {
+        ApiProvider provider = ApiProvider.coinGecko(props);
+        HttpFetcher fetcher = new HttpFetcher(new HttpTransport(HttpClient.newHttpClient()), provider,
+                RateLimiter.unlimited(), AppExecutors.shared());
+
+        CompletionException failure = assertThrows(CompletionException.class,
+                () -> fetcher.fetch(provider.get("/error"), RateLimiter.Priority.INTERACTIVE, body -> body.readAllBytes())
+                        .join());
+
+        HttpStatusException status = (HttpStatusException) HttpFetcher.unwrap(failure);
+        assertEquals(503, status.getStatusCode());
+        assertTrue(status.getBodySnippet().contains("maintenance"));
+    }
+
+    @Test
+    public void testRawDeflateAndIdentityBodies() throws IOException {
+        String json = "{\"ok\": true}";
+        try (InputStream raw = ResponseBodies.decompressed(new ByteArrayInputStream(deflate(json, true)), "deflate");
+             InputStream plain = ResponseBodies.decompressed(
+                     new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), "")) {
+            assertEquals(json, new String(raw.readAllBytes(), StandardCharsets.UTF_8));
+            assertEquals(json, new String(plain.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -2,12 +2,16 @@ package com.mycompany.app.services;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import com.mycompany.app.models.ChartPoint;
 import com.mycompany.app.models.Crypto;
@@ -148,4 +152,215 @@ public class CryptoCacheTest {
         cache.putHistoricalData("ethereum", "1", new HistoricalData(null));
         assertEquals(3, cache.getHistoricalDataCount());
     }
+
+    // --- Disk Store Tests ---
+
+    @Test
+    public void testStoreBackedCacheReloadsHistoryFromDisk(@TempDir Path dir) {
+        HistoricalDataStore store = new HistoricalDataStore(dir);
+        CryptoCache first = new CryptoCache(store);
+        first.putHistoricalData("bitcoin", "1", new HistoricalData(
+            new long[] { 1000L, 2000L }, new double[] { 1.0, 2.0 }, new double[] { 10.0, Double.NaN }));
+        store.flush();
+
+        // A new cache over the same store starts with nothing in memory
+        CryptoCache second = new CryptoCache(store);
+        assertEquals(0, second.getHistoricalDataCount());
+
+        assertTrue(second.hasHistoricalData("bitcoin", "1"));
+        HistoricalData data = second.getHistoricalData("bitcoin", "1");
+        assertArrayEquals(new long[] { 1000L, 2000L }, data.getTimes());
+        assertTrue(Double.isNaN(data.getVolume(1)));
+        assertEquals(1, second.getHistoricalDataCount());
+        assertFalse(second.hasHistoricalData("bitcoin", "7"));
+        store.close();
+    }
+
+    @Test
+    public void testClearAlsoClearsStore(@TempDir Path dir) {
+        HistoricalDataStore store = new HistoricalDataStore(dir);
+        CryptoCache storeCache = new CryptoCache(store);
+        storeCache.putHistoricalData("bitcoin", "1", new HistoricalData(
+            new long[] { 1000L }, new double[] { 1.0 }, new double[] { 10.0 }));
+
+        storeCache.clear();
+        store.flush();
+
+        assertFalse(storeCache.hasHistoricalData("bitcoin", "1"));
+        assertNull(store.read("bitcoin", "1"));
+        store.close();
+    }
+
+    @Test
+    public void testAppendWritesOnlyTheTailToStore(@TempDir Path dir) {
+        HistoricalDataStore store = new HistoricalDataStore(dir);
+        CryptoCache storeCache = new CryptoCache(store);
+        HistoricalData head = new HistoricalData(
+            new long[] { 1000L, 2000L }, new double[] { 1.0, 2.0 }, new double[] { 10.0, 20.0 });
+        HistoricalData tail = new HistoricalData(
+            new long[] { 3000L }, new double[] { 3.0 }, new double[] { 30.0 });
+        storeCache.putHistoricalData("bitcoin", "1", head);
+
+        storeCache.appendHistoricalData("bitcoin", "1", head.appendTail(tail, 0L, Long.MIN_VALUE), tail);
+        store.flush();
+
+        assertEquals(3, storeCache.getHistoricalData("bitcoin", "1").size());
+        // The snapshot plus one appended segment, read back as one series
+        assertEquals(2, store.getSegmentCount("bitcoin", "1"));
+        assertArrayEquals(new long[] { 1000L, 2000L, 3000L }, store.read("bitcoin", "1").getData().getTimes());
+        store.close();
+    }
+
+    // --- Expiry and Eviction Tests ---
+
+    private static HistoricalData seriesOfSize(int n) {
+        HistoricalData.Builder builder = new HistoricalData.Builder(n);
+        for (int i = 0; i < n; i++) {
+            builder.add(i, i, i);
+        }
+        return builder.build();
+    }
+
+    @Test
+    public void testEntriesExpireAfterIntervalTtl() {
+        AtomicLong now = new AtomicLong(1_000_000L);
+        CryptoCache ttlCache = new CryptoCache(null, CryptoCache.DEFAULT_MAX_BYTES, now::get);
+        ttlCache.putHistoricalData("bitcoin", "1", seriesOfSize(3));
+        ttlCache.putHistoricalData("bitcoin", "365", seriesOfSize(3));
+
+        now.addAndGet(ttlCache.getTimeToLive("1").toMillis());
+
+        // 1-day data is stale, 1-year data is still fresh
+        assertFalse(ttlCache.hasHistoricalData("bitcoin", "1"));
+        assertNull(ttlCache.getHistoricalData("bitcoin", "1"));
+        assertNotNull(ttlCache.getHistoricalData("bitcoin", "365"));
+
+        // Stale data is still available for an incremental refresh
+        assertEquals(3, ttlCache.peekHistoricalData("bitcoin", "1").size());
+        assertEquals(2, ttlCache.getHistoricalDataCount());
+    }
+
+    @Test
+    public void testSetTimeToLive() {
+        AtomicLong now = new AtomicLong(0L);
+        CryptoCache ttlCache = new CryptoCache(null, CryptoCache.DEFAULT_MAX_BYTES, now::get);
+        ttlCache.setTimeToLive("7", Duration.ofSeconds(10));
+        ttlCache.putHistoricalData("bitcoin", "7", seriesOfSize(1));
+
+        now.set(9_999L);
+        assertTrue(ttlCache.hasHistoricalData("bitcoin", "7"));
+        now.set(10_000L);
+        assertFalse(ttlCache.hasHistoricalData("bitcoin", "7"));
+
+        assertThrows(IllegalArgumentException.class, () -> ttlCache.setTimeToLive("7", Duration.ofSeconds(-1)));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntriesAreEvictedOverBudget() {
+        HistoricalData series = seriesOfSize(100);
+        long entryBytes = CryptoCache.estimateBytes(series);
+        CryptoCache bounded = new CryptoCache(null, entryBytes * 2);
+
+        bounded.putHistoricalData("bitcoin", "1", series);
+        bounded.putHistoricalData("ethereum", "1", series);
+        // Touch bitcoin so ethereum becomes the least recently used entry
+        assertNotNull(bounded.getHistoricalData("bitcoin", "1"));
+        bounded.putHistoricalData("solana", "1", series);
+
+        assertEquals(2, bounded.getHistoricalDataCount());
+        assertTrue(bounded.hasHistoricalData("bitcoin", "1"));
+        assertFalse(bounded.hasHistoricalData("ethereum", "1"));
+        assertTrue(bounded.hasHistoricalData("solana", "1"));
+        assertEquals(1, bounded.getEvictionCount());
+        assertEquals(entryBytes * 2, bounded.getHistoricalDataBytes());
+    }
+
+    @Test
+    public void testOversizedEntryIsKeptAlone() {
+        CryptoCache bounded = new CryptoCache(null, 100);
+        bounded.putHistoricalData("bitcoin", "1", seriesOfSize(10));
+        bounded.putHistoricalData("bitcoin", "7", seriesOfSize(10));
+
+        assertEquals(1, bounded.getHistoricalDataCount());
+        assertTrue(bounded.hasHistoricalData("bitcoin", "7"));
+    }
+
+    @Test
+    public void testReplacingEntryUpdatesByteTotal() {
+        cache.putHistoricalData("bitcoin", "1", seriesOfSize(10));
+        cache.putHistoricalData("bitcoin", "1", seriesOfSize(20));
+
+        assertEquals(1, cache.getHistoricalDataCount());
+        assertEquals(CryptoCache.estimateBytes(seriesOfSize(20)), cache.getHistoricalDataBytes());
+
+        cache.clear();
+        assertEquals(0, cache.getHistoricalDataBytes());
+    }
+
+    @Test
+    public void testHitAndMissCounters() {
+        cache.putHistoricalData("bitcoin", "1", seriesOfSize(1));
+
+        cache.getHistoricalData("bitcoin", "1");
+        cache.getHistoricalData("bitcoin", "1");
+        cache.getHistoricalData("bitcoin", "7");
+        cache.hasHistoricalData("bitcoin", "1"); // not counted
+
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(0, cache.getEvictionCount());
+    }
+
+    // --- Derived Interval Tests ---
+
+    private static HistoricalData hourlySeries(int hours) {
+        long hour = 3_600_000L;
+        long last = System.currentTimeMillis();
+        HistoricalData.Builder builder = new HistoricalData.Builder(hours + 1);
+        for (int i = hours; i >= 0; i--) {
+            builder.add(last - i * hour, i, 1.0);
+        }
+        return builder.build();
+    }
+
+    @Test
+    public void testSourceIntervalMapping() {
+        assertEquals("1", CryptoCache.sourceInterval("1"));
+        assertEquals("90", CryptoCache.sourceInterval("7"));
+        assertEquals("90", CryptoCache.sourceInterval("14"));
+        assertEquals("90", CryptoCache.sourceInterval("90"));
+        assertEquals("365", CryptoCache.sourceInterval("180"));
+        assertEquals("max", CryptoCache.sourceInterval("max"));
+    }
+
+    @Test
+    public void testShortIntervalsAreSlicedFromNinetyDaySeries() {
+        cache.putHistoricalData("bitcoin", "90", hourlySeries(90 * 24));
+
+        assertTrue(cache.hasHistoricalData("bitcoin", "7"));
+        assertTrue(cache.hasHistoricalData("bitcoin", "14"));
+        assertFalse(cache.hasHistoricalData("bitcoin", "180"));
+
+        // Window ends at the last sample and includes both end points
+        HistoricalData week = cache.getHistoricalData("bitcoin", "7");
+        assertEquals(7 * 24 + 1, week.size());
+        assertEquals(7 * 24, week.getPrice(0), 0.001);
+        assertEquals(14 * 24 + 1, cache.getHistoricalData("bitcoin", "14").size());
+        assertEquals(1, cache.getHistoricalDataCount());
+    }
+
+    @Test
+    public void testDerivedIntervalFollowsSourceFreshness() {
+        AtomicLong now = new AtomicLong(System.currentTimeMillis());
+        CryptoCache ttlCache = new CryptoCache(null, CryptoCache.DEFAULT_MAX_BYTES, now::get);
+        ttlCache.putHistoricalData("bitcoin", "90", hourlySeries(48));
+        // An entry stored under "7" is only used without a source series
+        ttlCache.putHistoricalData("bitcoin", "7", seriesOfSize(2));
+
+        assertEquals(49, ttlCache.getHistoricalData("bitcoin", "7").size());
+
+        now.addAndGet(ttlCache.getTimeToLive("90").toMillis());
+        assertFalse(ttlCache.hasHistoricalData("bitcoin", "30"));
+        assertEquals(49, ttlCache.peekHistoricalData("bitcoin", "30").size());
+    }
 }
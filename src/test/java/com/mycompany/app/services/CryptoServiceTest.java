@@ -2,14 +2,27 @@ package com.mycompany.app.services;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
@@ -38,8 +51,15 @@ public class CryptoServiceTest {
         
         service = new CryptoService(mockHttpClient, cache, testProps);
         // Use short retry delays for faster tests
-        service.setRetryDelays(new int[]{10, 10});
-        service.setDelayBetweenCalls(0);
+        service.setRetryPolicy(new RetryPolicy(3, Duration.ofMillis(10), Duration.ofMillis(10), Duration.ofSeconds(5)));
+        service.setRateLimiter(RateLimiter.unlimited());
+    }
+
+    /**
+     * Response bodies are consumed as streams; each call gets a fresh one
+     */
+    private static InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
     }
 
     // --- getTopCryptos Tests ---
@@ -72,11 +92,11 @@ public class CryptoServiceTest {
             ]
             """;
 
-        HttpResponse<String> mockResponse = Mockito.mock(HttpResponse.class);
+        HttpResponse<InputStream> mockResponse = Mockito.mock(HttpResponse.class);
         when(mockResponse.statusCode()).thenReturn(200);
-        when(mockResponse.body()).thenReturn(jsonResponse);
-        when(mockHttpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
-            .thenReturn(mockResponse);
+        when(mockResponse.body()).thenAnswer(invocation -> body(jsonResponse));
+        when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+            .thenReturn(CompletableFuture.completedFuture(mockResponse));
 
         List<Crypto> cryptos = service.getTopCryptos();
 
@@ -100,11 +120,11 @@ public class CryptoServiceTest {
               "total_volume": 50000000000, "circulating_supply": 19000000}]
             """;
 
-        HttpResponse<String> mockResponse = Mockito.mock(HttpResponse.class);
+        HttpResponse<InputStream> mockResponse = Mockito.mock(HttpResponse.class);
         when(mockResponse.statusCode()).thenReturn(200);
-        when(mockResponse.body()).thenReturn(jsonResponse);
-        when(mockHttpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
-            .thenReturn(mockResponse);
+        when(mockResponse.body()).thenAnswer(invocation -> body(jsonResponse));
+        when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+            .thenReturn(CompletableFuture.completedFuture(mockResponse));
 
         // First call - fetches from API
         List<Crypto> cryptos1 = service.getTopCryptos();
@@ -115,17 +135,17 @@ public class CryptoServiceTest {
         assertEquals(cryptos1.size(), cryptos2.size());
         // Verify API was only called once (cache was used for second call)
         Mockito.verify(mockHttpClient, Mockito.times(1))
-            .send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+            .sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
     }
 
     @Test
     @SuppressWarnings("unchecked")
     public void testGetTopCryptosHandlesApiError() throws Exception {
-        HttpResponse<String> mockResponse = Mockito.mock(HttpResponse.class);
+        HttpResponse<InputStream> mockResponse = Mockito.mock(HttpResponse.class);
         when(mockResponse.statusCode()).thenReturn(500);
-        when(mockResponse.body()).thenReturn("Internal Server Error");
-        when(mockHttpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
-            .thenReturn(mockResponse);
+        when(mockResponse.body()).thenAnswer(invocation -> body("Internal Server Error"));
+        when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+            .thenReturn(CompletableFuture.completedFuture(mockResponse));
 
         List<Crypto> cryptos = service.getTopCryptos();
 
@@ -133,6 +153,143 @@ public class CryptoServiceTest {
         assertTrue(cryptos.isEmpty());
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testGetTopCryptosAsyncRetriesAfterRateLimit() throws Exception {
+        String jsonResponse = """
+            [{"id": "bitcoin", "name": "Bitcoin", "symbol": "btc", "current_price": 50000}]
+            """;
+        HttpResponse<InputStream> limited = Mockito.mock(HttpResponse.class);
+        when(limited.statusCode()).thenReturn(429);
+        when(limited.body()).thenAnswer(invocation -> body(""));
+        HttpResponse<InputStream> ok = Mockito.mock(HttpResponse.class);
+        when(ok.statusCode()).thenReturn(200);
+        when(ok.body()).thenAnswer(invocation -> body(jsonResponse));
+        when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+            .thenReturn(CompletableFuture.completedFuture(limited))
+            .thenReturn(CompletableFuture.completedFuture(ok));
+
+        CompletableFuture<List<Crypto>> future = service.getTopCryptosAsync();
+        List<Crypto> cryptos = future.get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, cryptos.size());
+        assertEquals("bitcoin", cryptos.get(0).getId());
+        Mockito.verify(mockHttpClient, Mockito.times(2))
+            .sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+        Mockito.verify(mockHttpClient, Mockito.never())
+            .send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+    }
+
+    /**
+     * `/coins/markets` page of {@code count} coins named coin{first}...
+     */
+    private static String marketsPage(int first, int count) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = first; i < first + count; i++) {
+            if (i > first) {
+                json.append(',');
+            }
+            json.append(String.format("{\"id\": \"coin%d\", \"name\": \"Coin %d\", \"symbol\": \"c%d\", \"current_price\": 1.0}", i, i, i));
+        }
+        return json.append(']').toString();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testTopCryptosAreFetchedInPages() throws Exception {
+        testProps.setProperty("market.topN", "600");
+        service = new CryptoService(mockHttpClient, cache, testProps);
+        service.setRateLimiter(RateLimiter.unlimited());
+        when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+            .thenAnswer(invocation -> {
+                String uri = invocation.getArgument(0, HttpRequest.class).uri().toString();
+                int page = Integer.parseInt(uri.replaceAll(".*[?&]page=(\\d+).*", "$1"));
+                // Page 2 repeats the last coin of page 1, as if it moved down meanwhile
+                String json = page == 2 ? marketsPage(249, 250) : marketsPage((page - 1) * 250, 250);
+                HttpResponse<InputStream> response = Mockito.mock(HttpResponse.class);
+                when(response.statusCode()).thenReturn(200);
+                when(response.body()).thenAnswer(ignored -> body(json));
+                return CompletableFuture.completedFuture(response);
+            });
+
+        List<Crypto> cryptos = service.getTopCryptos();
+
+        assertEquals(600, cryptos.size());
+        assertEquals("coin0", cryptos.get(0).getId());
+        assertEquals("coin250", cryptos.get(250).getId());
+        assertEquals(600, cryptos.stream().map(Crypto::getId).distinct().count());
+        ArgumentCaptor<HttpRequest> requests = ArgumentCaptor.forClass(HttpRequest.class);
+        Mockito.verify(mockHttpClient, Mockito.times(3)).sendAsync(requests.capture(), any(HttpResponse.BodyHandler.class));
+        assertTrue(requests.getAllValues().stream().allMatch(r -> r.uri().toString().contains("per_page=250")));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testPreloadCoversOnlyPreloadCountAndFocusLoadsTheRest() throws Exception {
+        testProps.setProperty("preload.count", "1");
+        service = new CryptoService(mockHttpClient, cache, testProps);
+        service.setRateLimiter(RateLimiter.unlimited());
+        cache.setTopCryptos(List.of(
+            new Crypto("bitcoin", "Bitcoin", "BTC", 50000, 2.5, "", "", ""),
+            new Crypto("ethereum", "Ethereum", "ETH", 3000, 1.0, "", "", "")));
+        long now = System.currentTimeMillis();
+        String chart = String.format("{\"prices\": [[%d, 1.0]], \"total_volumes\": [[%d, 1]]}", now, now);
+        HttpResponse<InputStream> mockResponse = Mockito.mock(HttpResponse.class);
+        when(mockResponse.statusCode()).thenReturn(200);
+        when(mockResponse.body()).thenAnswer(invocation -> body(chart));
+        when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+            .thenReturn(CompletableFuture.completedFuture(mockResponse));
+        List<String> loaded = java.util.Collections.synchronizedList(new ArrayList<>());
+        service.setDataLoadedCallback(new ICryptoService.DataLoadedCallback() {
+            @Override
+            public void onDataLoaded(String cryptoId, boolean success) {
+                loaded.add(cryptoId);
+            }
+
+            @Override
+            public void onIntervalDataLoaded(String cryptoId, String interval, boolean success) {
+            }
+        });
+
+        service.preloadAllData();
+
+        assertTrue(service.hasHistoricalData("bitcoin", "365"));
+        assertFalse(service.hasHistoricalData("ethereum", "1"));
+        Mockito.verify(mockHttpClient, Mockito.times(3))
+            .sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+
+        service.setFocus("ethereum", "30");
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!(service.hasHistoricalData("ethereum", "1") && service.hasHistoricalData("ethereum", "90"))
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(service.hasHistoricalData("ethereum", "30"));
+        assertFalse(service.hasHistoricalData("ethereum", "365"));
+        deadline = System.currentTimeMillis() + 5000;
+        while (!loaded.contains("ethereum") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(loaded.contains("ethereum"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testClientErrorIsNotRetried() throws Exception {
+        HttpResponse<InputStream> mockResponse = Mockito.mock(HttpResponse.class);
+        when(mockResponse.statusCode()).thenReturn(404);
+        when(mockResponse.body()).thenAnswer(invocation -> body("Not Found"));
+        when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+            .thenReturn(CompletableFuture.completedFuture(mockResponse));
+
+        HistoricalData data = service.getHistoricalDataForCrypto("not-a-coin", "1");
+
+        assertTrue(data.isEmpty());
+        Mockito.verify(mockHttpClient, Mockito.times(1))
+            .sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+    }
+
     // --- getHistoricalDataForCrypto Tests ---
 
     @Test
@@ -153,11 +310,11 @@ public class CryptoServiceTest {
             }
             """;
 
-        HttpResponse<String> mockResponse = Mockito.mock(HttpResponse.class);
+        HttpResponse<InputStream> mockResponse = Mockito.mock(HttpResponse.class);
         when(mockResponse.statusCode()).thenReturn(200);
-        when(mockResponse.body()).thenReturn(jsonResponse);
-        when(mockHttpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
-            .thenReturn(mockResponse);
+        when(mockResponse.body()).thenAnswer(invocation -> body(jsonResponse));
+        when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+            .thenReturn(CompletableFuture.completedFuture(mockResponse));
 
         HistoricalData data = service.getHistoricalDataForCrypto("bitcoin", "1");
 
@@ -188,11 +345,11 @@ public class CryptoServiceTest {
             {"prices": [[1700000000000, 50000.0]], "total_volumes": [[1700000000000, 1000000000]]}
             """;
 
-        HttpResponse<String> mockResponse = Mockito.mock(HttpResponse.class);
+        HttpResponse<InputStream> mockResponse = Mockito.mock(HttpResponse.class);
         when(mockResponse.statusCode()).thenReturn(200);
-        when(mockResponse.body()).thenReturn(jsonResponse);
-        when(mockHttpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
-            .thenReturn(mockResponse);
+        when(mockResponse.body()).thenAnswer(invocation -> body(jsonResponse));
+        when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+            .thenReturn(CompletableFuture.completedFuture(mockResponse));
 
         // First call
         service.getHistoricalDataForCrypto("bitcoin", "1");
@@ -202,7 +359,174 @@ public class CryptoServiceTest {
 
         // API should only be called once
         Mockito.verify(mockHttpClient, Mockito.times(1))
-            .send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+            .sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testConcurrentMissesShareOneRequest() throws Exception {
+        String jsonResponse = """
+            {"prices": [[1700000000000, 50000.0]], "total_volumes": [[1700000000000, 1000000000]]}
+            """;
+
+        HttpResponse<InputStream> mockResponse = Mockito.mock(HttpResponse.class);
+        when(mockResponse.statusCode()).thenReturn(200);
+        when(mockResponse.body()).thenAnswer(invocation -> body(jsonResponse));
+        // Hold the first request open so the other callers pile up behind it
+        CompletableFuture<HttpResponse<InputStream>> pending = new CompletableFuture<>();
+        when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+            .thenReturn(pending);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<HistoricalData>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(executor.submit(() -> service.getHistoricalDataForCrypto("bitcoin", "1")));
+            }
+            Thread.sleep(200);
+            pending.complete(mockResponse);
+
+            for (Future<HistoricalData> result : results) {
+                assertEquals(1, result.get(5, TimeUnit.SECONDS).size());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Mockito.verify(mockHttpClient, Mockito.times(1))
+            .sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testShortIntervalsAreSlicedFromOneFetch() throws Exception {
+        long day = 86_400_000L;
+        long last = System.currentTimeMillis();
+        String jsonResponse = String.format(
+            "{\"prices\": [[%d, 1.0], [%d, 2.0], [%d, 3.0]], \"total_volumes\": [[%d, 1], [%d, 2], [%d, 3]]}",
+            last - 60 * day, last - 10 * day, last, last - 60 * day, last - 10 * day, last);
+        HttpResponse<InputStream> mockResponse = Mockito.mock(HttpResponse.class);
+        when(mockResponse.statusCode()).thenReturn(200);
+        when(mockResponse.body()).thenAnswer(invocation -> body(jsonResponse));
+        when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+            .thenReturn(CompletableFuture.completedFuture(mockResponse));
+
+        HistoricalData week = service.getHistoricalDataForCrypto("bitcoin", "7");
+        HistoricalData custom = service.getHistoricalDataForCrypto("bitcoin", "14");
+        HistoricalData month = service.getHistoricalDataForCrypto("bitcoin", "30");
+
+        assertEquals(1, week.size());
+        assertEquals(2, custom.size());
+        assertEquals(2, month.size());
+        ArgumentCaptor<HttpRequest> requests = ArgumentCaptor.forClass(HttpRequest.class);
+        Mockito.verify(mockHttpClient, Mockito.times(1)).sendAsync(requests.capture(), any(HttpResponse.BodyHandler.class));
+        assertTrue(requests.getValue().uri().toString().contains("days=90"));
+    }
+
+    // --- refreshAllData Tests ---
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRefreshFetchesOnlyTheMissingTail() throws Exception {
+        long hour = 3_600_000L;
+        long last = System.currentTimeMillis() - 2 * hour;
+        HistoricalData.Builder builder = new HistoricalData.Builder();
+        for (int i = 8; i >= 0; i--) {
+            builder.add(last - i * hour, 100.0 + i, 1.0);
+        }
+        HistoricalData existing = builder.build();
+
+        cache.setTopCryptos(List.of(new Crypto("bitcoin", "Bitcoin", "BTC", 50000, 2.5, "", "", "")));
+        for (String days : new String[] { "1", "90", "365" }) {
+            cache.putHistoricalData("bitcoin", days, existing);
+        }
+
+        // Finer-grained tail: the half-hour sample is thinned to keep hourly spacing
+        String tailJson = String.format(
+            "{\"prices\": [[%d, 1.0], [%d, 2.0], [%d, 3.0]], \"total_volumes\": [[%d, 1], [%d, 2], [%d, 3]]}",
+            last + hour / 2, last + hour, last + 2 * hour, last + hour / 2, last + hour, last + 2 * hour);
+        HttpResponse<InputStream> mockResponse = Mockito.mock(HttpResponse.class);
+        when(mockResponse.statusCode()).thenReturn(200);
+        when(mockResponse.body()).thenAnswer(invocation -> body(tailJson));
+        when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+            .thenReturn(CompletableFuture.completedFuture(mockResponse));
+
+        service.refreshAllData();
+
+        ArgumentCaptor<HttpRequest> requests = ArgumentCaptor.forClass(HttpRequest.class);
+        // One request per fetched series; 1W and 1M are sliced from 3M
+        Mockito.verify(mockHttpClient, Mockito.times(3)).sendAsync(requests.capture(), any(HttpResponse.BodyHandler.class));
+        for (HttpRequest request : requests.getAllValues()) {
+            String uri = request.uri().toString();
+            assertTrue(uri.contains("/coins/bitcoin/market_chart/range?"), uri);
+            assertTrue(uri.contains("from=" + (last / 1000 + 1)), uri);
+        }
+
+        HistoricalData refreshed = cache.getHistoricalData("bitcoin", "7");
+        assertEquals(existing.size() + 2, refreshed.size());
+        assertEquals(last + 2 * hour, refreshed.getTime(refreshed.size() - 1));
+        assertEquals(3.0, refreshed.getPrice(refreshed.size() - 1), 0.001);
+        assertEquals(0, service.getFailedLoadsCount());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRefreshAppendsOnlyTheTailToStore(@TempDir Path dir) throws Exception {
+        HistoricalDataStore store = new HistoricalDataStore(dir);
+        cache = new CryptoCache(store);
+        service = new CryptoService(mockHttpClient, cache, testProps);
+        service.setRateLimiter(RateLimiter.unlimited());
+        long last = System.currentTimeMillis() - 10 * 60_000L;
+        cache.setTopCryptos(List.of(new Crypto("bitcoin", "Bitcoin", "BTC", 50000, 2.5, "", "", "")));
+        for (String days : new String[] { "1", "90", "365" }) {
+            cache.putHistoricalData("bitcoin", days, new HistoricalData(
+                new long[] { last - 300_000L, last }, new double[] { 1.0, 2.0 }, new double[] { 1.0, 1.0 }));
+        }
+        String tailJson = String.format("{\"prices\": [[%d, 3.0]], \"total_volumes\": [[%d, 1]]}",
+            last + 300_000L, last + 300_000L);
+        HttpResponse<InputStream> mockResponse = Mockito.mock(HttpResponse.class);
+        when(mockResponse.statusCode()).thenReturn(200);
+        when(mockResponse.body()).thenAnswer(invocation -> body(tailJson));
+        when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+            .thenReturn(CompletableFuture.completedFuture(mockResponse));
+
+        service.refreshAllData();
+        store.flush();
+
+        // The snapshot stays and the new sample lands in an appended segment
+        assertEquals(2, store.getSegmentCount("bitcoin", "1"));
+        assertEquals(3, store.read("bitcoin", "1").getData().size());
+        assertEquals(3, cache.getHistoricalData("bitcoin", "1").size());
+        store.close();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRefreshAfterLongGapRefetchesDayInFull() throws Exception {
+        long now = System.currentTimeMillis();
+        long last = now - 2 * 24 * 3_600_000L;
+        cache.setTopCryptos(List.of(new Crypto("bitcoin", "Bitcoin", "BTC", 50000, 2.5, "", "", "")));
+        for (String days : new String[] { "1", "90", "365" }) {
+            cache.putHistoricalData("bitcoin", days, new HistoricalData(
+                new long[] { last - 300_000L, last }, new double[] { 1.0, 2.0 }, new double[] { 1.0, 1.0 }));
+        }
+        String chart = String.format("{\"prices\": [[%d, 3.0]], \"total_volumes\": [[%d, 1]]}", now, now);
+        HttpResponse<InputStream> mockResponse = Mockito.mock(HttpResponse.class);
+        when(mockResponse.statusCode()).thenReturn(200);
+        when(mockResponse.body()).thenAnswer(invocation -> body(chart));
+        when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+            .thenReturn(CompletableFuture.completedFuture(mockResponse));
+
+        service.refreshAllData();
+
+        ArgumentCaptor<HttpRequest> requests = ArgumentCaptor.forClass(HttpRequest.class);
+        Mockito.verify(mockHttpClient, Mockito.times(3)).sendAsync(requests.capture(), any(HttpResponse.BodyHandler.class));
+        // A two-day gap would come back hourly, so the 5-minute series is
+        // replaced; the hourly and daily series are still topped up
+        List<String> uris = requests.getAllValues().stream().map(r -> r.uri().toString()).toList();
+        assertTrue(uris.stream().anyMatch(u -> u.contains("/market_chart?") && u.contains("days=1")), uris.toString());
+        assertEquals(2, uris.stream().filter(u -> u.contains("/market_chart/range?")).count(), uris.toString());
+        assertEquals(1, cache.getHistoricalData("bitcoin", "1").size());
     }
 
     // --- hasHistoricalData Tests ---
@@ -215,6 +539,49 @@ public class CryptoServiceTest {
         assertFalse(service.hasHistoricalData("bitcoin", ""));
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testFocusRefreshesStaleSeriesOfPreloadedCoin() throws Exception {
+        java.util.concurrent.atomic.AtomicLong offset = new java.util.concurrent.atomic.AtomicLong();
+        cache = new CryptoCache(null, CryptoCache.DEFAULT_MAX_BYTES, () -> System.currentTimeMillis() + offset.get());
+        service = new CryptoService(mockHttpClient, cache, testProps);
+        service.setRateLimiter(RateLimiter.unlimited());
+        long last = System.currentTimeMillis() - 10 * 60_000L;
+        HistoricalData existing = new HistoricalData(
+            new long[] { last - 300_000L, last }, new double[] { 1.0, 2.0 }, new double[] { 1.0, 1.0 });
+        cache.setTopCryptos(List.of(new Crypto("bitcoin", "Bitcoin", "BTC", 50000, 2.5, "", "", "")));
+        for (String days : new String[] { "1", "90", "365" }) {
+            cache.putHistoricalData("bitcoin", days, existing);
+        }
+        // Everything is cached, so the preload sends nothing
+        service.preloadAllData();
+        offset.set(cache.getTimeToLive("1").toMillis());
+
+        // Stale 1-day data is still shown while it is refreshed
+        assertFalse(service.hasHistoricalData("bitcoin", "1"));
+        assertTrue(service.containsHistoricalData("bitcoin", "1"));
+        assertSame(existing, service.peekHistoricalData("bitcoin", "1"));
+
+        String tailJson = String.format("{\"prices\": [[%d, 3.0]], \"total_volumes\": [[%d, 1]]}",
+            last + 300_000L, last + 300_000L);
+        HttpResponse<InputStream> mockResponse = Mockito.mock(HttpResponse.class);
+        when(mockResponse.statusCode()).thenReturn(200);
+        when(mockResponse.body()).thenAnswer(invocation -> body(tailJson));
+        when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+            .thenReturn(CompletableFuture.completedFuture(mockResponse));
+
+        service.setFocus("bitcoin", "1");
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!service.hasHistoricalData("bitcoin", "1") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(3, service.peekHistoricalData("bitcoin", "1").size());
+        ArgumentCaptor<HttpRequest> requests = ArgumentCaptor.forClass(HttpRequest.class);
+        Mockito.verify(mockHttpClient, Mockito.times(1)).sendAsync(requests.capture(), any(HttpResponse.BodyHandler.class));
+        assertTrue(requests.getValue().uri().toString().contains("/coins/bitcoin/market_chart/range?"));
+    }
+
     // --- clearCache Tests ---
 
     @Test
@@ -226,11 +593,11 @@ public class CryptoServiceTest {
               "total_volume": 50000000000, "circulating_supply": 19000000}]
             """;
 
-        HttpResponse<String> mockResponse = Mockito.mock(HttpResponse.class);
+        HttpResponse<InputStream> mockResponse = Mockito.mock(HttpResponse.class);
         when(mockResponse.statusCode()).thenReturn(200);
-        when(mockResponse.body()).thenReturn(jsonResponse);
-        when(mockHttpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
-            .thenReturn(mockResponse);
+        when(mockResponse.body()).thenAnswer(invocation -> body(jsonResponse));
+        when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+            .thenReturn(CompletableFuture.completedFuture(mockResponse));
 
         // Populate cache
         service.getTopCryptos();
@@ -243,7 +610,7 @@ public class CryptoServiceTest {
 
         // API should be called twice now
         Mockito.verify(mockHttpClient, Mockito.times(2))
-            .send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+            .sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
     }
 
     // --- Constructor Tests ---
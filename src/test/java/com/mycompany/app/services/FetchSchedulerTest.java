@@ -0,0 +1,128 @@
+package com.mycompany.app.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for FetchScheduler
+ */
+public class FetchSchedulerTest {
+
+    /**
+     * Records the order in which jobs start and lets the test finish them
+     */
+    private static class Recorder {
+        final List<String> started = new ArrayList<>();
+        final List<RateLimiter.Priority> priorities = new ArrayList<>();
+        final List<CompletableFuture<String>> running = new ArrayList<>();
+
+        CompletableFuture<String> submit(FetchScheduler scheduler, String id, String days) {
+            return scheduler.submit(id, days, priority -> {
+                started.add(id + "/" + days);
+                priorities.add(priority);
+                CompletableFuture<String> work = new CompletableFuture<>();
+                running.add(work);
+                return work;
+            });
+        }
+
+        void finishNext() {
+            CompletableFuture<String> work = running.remove(0);
+            work.complete("done");
+        }
+    }
+
+    @Test
+    public void testRunsAtMostMaxInFlight() {
+        FetchScheduler scheduler = new FetchScheduler(2);
+        Recorder recorder = new Recorder();
+        for (int i = 0; i < 5; i++) {
+            recorder.submit(scheduler, "coin" + i, "1");
+        }
+
+        assertEquals(2, recorder.started.size());
+        assertEquals(3, scheduler.queuedCount());
+
+        recorder.finishNext();
+        assertEquals(3, recorder.started.size());
+        assertEquals(2, scheduler.queuedCount());
+    }
+
+    @Test
+    public void testFocusedCoinAndIntervalRunFirst() {
+        FetchScheduler scheduler = new FetchScheduler(1);
+        Recorder recorder = new Recorder();
+        // Occupy the only slot so the rest queue up
+        recorder.submit(scheduler, "bitcoin", "1");
+        scheduler.setFocus("solana", "30");
+        recorder.submit(scheduler, "ethereum", "7");
+        recorder.submit(scheduler, "ethereum", "30");
+        recorder.submit(scheduler, "solana", "7");
+        recorder.submit(scheduler, "solana", "30");
+
+        for (int i = 0; i < 4; i++) {
+            recorder.finishNext();
+        }
+
+        assertEquals(List.of("bitcoin/1", "solana/30", "solana/7", "ethereum/30", "ethereum/7"),
+                recorder.started);
+    }
+
+    @Test
+    public void testChangingFocusReordersQueuedJobs() {
+        FetchScheduler scheduler = new FetchScheduler(1);
+        Recorder recorder = new Recorder();
+        recorder.submit(scheduler, "bitcoin", "1");
+        recorder.submit(scheduler, "ethereum", "1");
+        recorder.submit(scheduler, "solana", "1");
+        recorder.submit(scheduler, "cardano", "1");
+
+        // The user opens cardano while bitcoin is still loading
+        scheduler.setFocus("cardano", "1");
+        recorder.finishNext();
+        assertEquals("cardano/1", recorder.started.get(1));
+        assertEquals(RateLimiter.Priority.INTERACTIVE, recorder.priorities.get(1));
+
+        // Without focus the remaining jobs keep submission order
+        scheduler.setFocus(null, null);
+        recorder.finishNext();
+        recorder.finishNext();
+        assertEquals(List.of("bitcoin/1", "cardano/1", "ethereum/1", "solana/1"), recorder.started);
+        assertEquals(RateLimiter.Priority.BACKGROUND, recorder.priorities.get(3));
+    }
+
+    @Test
+    public void testResultsAndFailuresArePassedThrough() {
+        FetchScheduler scheduler = new FetchScheduler(1);
+        CompletableFuture<String> ok = scheduler.submit("bitcoin", "1",
+                priority -> CompletableFuture.completedFuture("data"));
+        CompletableFuture<String> failed = scheduler.submit("ethereum", "1",
+                priority -> CompletableFuture.failedFuture(new java.io.IOException("boom")));
+        CompletableFuture<String> after = scheduler.submit("solana", "1",
+                priority -> CompletableFuture.completedFuture("more"));
+
+        assertEquals("data", ok.join());
+        assertTrue(failed.isCompletedExceptionally());
+        // A failed job frees its slot
+        assertEquals("more", after.join());
+    }
+
+    @Test
+    public void testCancelledJobIsSkipped() {
+        FetchScheduler scheduler = new FetchScheduler(1);
+        Recorder recorder = new Recorder();
+        recorder.submit(scheduler, "bitcoin", "1");
+        CompletableFuture<String> cancelled = recorder.submit(scheduler, "ethereum", "1");
+        recorder.submit(scheduler, "solana", "1");
+
+        cancelled.cancel(false);
+        recorder.finishNext();
+
+        assertEquals(List.of("bitcoin/1", "solana/1"), recorder.started);
+    }
+}
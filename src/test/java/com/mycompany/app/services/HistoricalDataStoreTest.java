@@ -0,0 +1,217 @@
+package com.mycompany.app.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.mycompany.app.models.HistoricalData;
+
+/**
+ * Unit tests for the on-disk HistoricalDataStore
+ */
+public class HistoricalDataStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private HistoricalDataStore store;
+
+    @BeforeEach
+    public void setUp() {
+        store = new HistoricalDataStore(tempDir);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        store.close();
+    }
+
+    private static HistoricalData series(long... times) {
+        HistoricalData.Builder builder = new HistoricalData.Builder(times.length);
+        for (long t : times) {
+            builder.add(t, t * 10.0, t * 100.0);
+        }
+        return builder.build();
+    }
+
+    private List<Path> segmentFiles(String id, String days) throws IOException {
+        try (Stream<Path> files = Files.list(tempDir.resolve(id).resolve(days))) {
+            return files.sorted().collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    public void testWriteAndReadRoundTrip() {
+        HistoricalData data = new HistoricalData(
+                new long[] { 1000L, 2000L, 3000L },
+                new double[] { 1.5, Double.NaN, 3.5 },
+                new double[] { 10.0, 20.0, Double.NaN });
+
+        store.write("bitcoin", "1", data);
+        store.flush();
+
+        HistoricalDataStore.StoredSeries stored = store.read("bitcoin", "1");
+        assertNotNull(stored);
+        assertArrayEquals(data.getTimes(), stored.getData().getTimes());
+        assertArrayEquals(data.getPrices(), stored.getData().getPrices());
+        assertArrayEquals(data.getVolumes(), stored.getData().getVolumes());
+        assertTrue(stored.getWrittenAt() > 0);
+    }
+
+    @Test
+    public void testReadMissingSeriesReturnsNull() {
+        assertNull(store.read("bitcoin", "1"));
+        assertNull(store.read(null, "1"));
+    }
+
+    @Test
+    public void testEmptySeriesIsNotWritten() {
+        store.write("bitcoin", "1", new HistoricalData(null));
+        store.flush();
+
+        assertNull(store.read("bitcoin", "1"));
+        assertEquals(0, store.getSegmentCount("bitcoin", "1"));
+    }
+
+    @Test
+    public void testSnapshotSupersedesEarlierSegments() {
+        store.write("bitcoin", "7", series(1, 2, 3));
+        store.write("bitcoin", "7", series(5, 6));
+        store.flush();
+
+        assertEquals(1, store.getSegmentCount("bitcoin", "7"));
+        assertArrayEquals(new long[] { 5, 6 }, store.read("bitcoin", "7").getData().getTimes());
+    }
+
+    @Test
+    public void testAppendExtendsSeriesPastLastTimestamp() {
+        store.write("bitcoin", "1", series(1, 2, 3));
+        // 2 and 3 overlap the snapshot and are dropped on read
+        store.append("bitcoin", "1", series(2, 3, 4, 5));
+        store.flush();
+
+        HistoricalData data = store.read("bitcoin", "1").getData();
+        assertArrayEquals(new long[] { 1, 2, 3, 4, 5 }, data.getTimes());
+        assertEquals(50.0, data.getPrice(4), 0.0);
+    }
+
+    @Test
+    public void testAppendsAreCompactedIntoOneSnapshot() {
+        store.write("bitcoin", "1", series(1));
+        for (int i = 2; i <= HistoricalDataStore.COMPACTION_THRESHOLD; i++) {
+            store.append("bitcoin", "1", series(i));
+        }
+        store.flush();
+
+        assertEquals(1, store.getSegmentCount("bitcoin", "1"));
+        assertEquals(HistoricalDataStore.COMPACTION_THRESHOLD, store.read("bitcoin", "1").getData().size());
+    }
+
+    @Test
+    public void testSegmentWithBadChecksumIsIgnored() throws IOException {
+        store.write("bitcoin", "1", series(1, 2, 3));
+        store.append("bitcoin", "1", series(4, 5));
+        store.flush();
+
+        // Flip a byte inside the appended segment's records
+        List<Path> segments = segmentFiles("bitcoin", "1");
+        assertEquals(2, segments.size());
+        try (RandomAccessFile file = new RandomAccessFile(segments.get(1).toFile(), "rw")) {
+            file.seek(HistoricalDataStore.HEADER_BYTES + 9);
+            int b = file.read();
+            file.seek(HistoricalDataStore.HEADER_BYTES + 9);
+            file.write(b ^ 0xFF);
+        }
+
+        assertArrayEquals(new long[] { 1, 2, 3 }, store.read("bitcoin", "1").getData().getTimes());
+    }
+
+    @Test
+    public void testTruncatedSegmentIsIgnored() throws IOException {
+        store.write("bitcoin", "1", series(1, 2, 3));
+        store.flush();
+
+        Path segment = segmentFiles("bitcoin", "1").get(0);
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.setLength(file.length() - 5);
+        }
+
+        assertNull(store.read("bitcoin", "1"));
+    }
+
+    @Test
+    public void testClearDeletesEverySeries() {
+        store.write("bitcoin", "1", series(1));
+        store.write("ethereum", "30", series(1));
+        store.clear();
+        store.flush();
+
+        assertNull(store.read("bitcoin", "1"));
+        assertNull(store.read("ethereum", "30"));
+    }
+
+    @Test
+    public void testSeriesAreIsolatedByIdAndInterval() {
+        store.write("bitcoin", "1", series(1));
+        store.write("bitcoin", "7", series(1, 2));
+        store.write("ethereum", "1", series(1, 2, 3));
+        store.flush();
+
+        assertEquals(1, store.read("bitcoin", "1").getData().size());
+        assertEquals(2, store.read("bitcoin", "7").getData().size());
+        assertEquals(3, store.read("ethereum", "1").getData().size());
+    }
+
+    @Test
+    public void testCompactionDropsRecordsOutsideTheWindow() {
+        long day = 24L * 60 * 60 * 1000;
+        store.write("bitcoin", "1", series(0, day / 2));
+        for (int i = 2; i <= HistoricalDataStore.COMPACTION_THRESHOLD; i++) {
+            store.append("bitcoin", "1", series(i * day / 2));
+        }
+        store.flush();
+
+        long last = HistoricalDataStore.COMPACTION_THRESHOLD * day / 2;
+        assertEquals(1, store.getSegmentCount("bitcoin", "1"));
+        assertArrayEquals(new long[] { last - day, last - day / 2, last },
+                store.read("bitcoin", "1").getData().getTimes());
+    }
+
+    @Test
+    public void testCloseFlushesQueuedWrites() {
+        store.write("bitcoin", "1", series(1, 2, 3));
+        store.close();
+
+        HistoricalDataStore reopened = new HistoricalDataStore(tempDir);
+        assertEquals(3, reopened.read("bitcoin", "1").getData().size());
+        // Writes after close are dropped rather than failing
+        store.write("bitcoin", "1", series(4));
+        reopened.close();
+    }
+
+    @Test
+    public void testSanitizeKeepsIdsInsideRoot() {
+        assertEquals("bitcoin-cash", HistoricalDataStore.sanitize("bitcoin-cash"));
+        assertEquals("_002e_002e_002fetc", HistoricalDataStore.sanitize("../etc"));
+        assertEquals("_", HistoricalDataStore.sanitize(""));
+    }
+
+    @Test
+    public void testSanitizeNeverMapsDifferentIdsToOneDirectory() {
+        assertNotEquals(HistoricalDataStore.sanitize("a.b"), HistoricalDataStore.sanitize("a_b"));
+        assertNotEquals(HistoricalDataStore.sanitize("a_b"), HistoricalDataStore.sanitize("a/b"));
+        assertNotEquals(HistoricalDataStore.sanitize("Coin"), HistoricalDataStore.sanitize("coin"));
+        assertNotEquals(HistoricalDataStore.sanitize("_"), HistoricalDataStore.sanitize(""));
+    }
+}
@@ -0,0 +1,66 @@
+package com.mycompany.app.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+/**
+ * Unit tests for HttpTransport
+ */
+public class HttpTransportTest {
+
+    @Test
+    public void testSharedTransportIsOneClient() {
+        assertSame(HttpTransport.shared(), HttpTransport.shared());
+        assertSame(HttpTransport.shared().client(), HttpTransport.shared().client());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testListenersSeeResponsesAndFailures() {
+        HttpClient client = Mockito.mock(HttpClient.class);
+        HttpResponse<InputStream> response = Mockito.mock(HttpResponse.class);
+        when(response.statusCode()).thenReturn(429);
+        when(client.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+            .thenReturn(CompletableFuture.completedFuture(response))
+            .thenReturn(CompletableFuture.failedFuture(new IOException("connection reset")));
+
+        List<String> events = new ArrayList<>();
+        HttpTransport transport = new HttpTransport(client);
+        transport.addListener(new HttpTransport.ExchangeListener() {
+            @Override
+            public void onResponse(String provider, HttpRequest request, int status, long elapsedNanos) {
+                events.add(provider + " " + status);
+            }
+
+            @Override
+            public void onFailure(String provider, HttpRequest request, Throwable error, long elapsedNanos) {
+                events.add(provider + " " + error.getMessage());
+            }
+        });
+        ApiProvider coinGecko = ApiProvider.coinGecko(new Properties());
+
+        transport.send(coinGecko, coinGecko.get("/ping")).join();
+        assertThrows(Exception.class, () -> transport.send(coinGecko, coinGecko.get("/ping")).join());
+
+        assertEquals(List.of("coingecko 429", "coingecko connection reset"), events);
+    }
+
+    @Test
+    public void testNullClientIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new HttpTransport(null));
+    }
+}
@@ -0,0 +1,151 @@
+package com.mycompany.app.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mycompany.app.models.HistoricalData;
+
+/**
+ * Parity tests for the streaming market_chart decoder against the original
+ * JsonNode tree parser
+ */
+public class MarketChartParserTest {
+
+    private final MarketChartParser parser = new MarketChartParser(new ObjectMapper());
+
+    private void assertParity(String json) throws Exception {
+        HistoricalData expected = parser.parseTree(json);
+        HistoricalData actual = parser.parse(json);
+
+        assertEquals(expected.size(), actual.size(), "series length");
+        assertArrayEquals(expected.getTimes(), actual.getTimes(), "timestamps");
+        assertArrayEquals(expected.getPrices(), actual.getPrices(), "prices");
+        assertArrayEquals(expected.getVolumes(), actual.getVolumes(), "volumes");
+    }
+
+    @Test
+    public void testWellFormedResponse() throws Exception {
+        String json = """
+            {
+                "prices": [[1700000000000, 50000.0], [1700003600000, 50100.5], [1700007200000, 49900]],
+                "market_caps": [[1700000000000, 9.8e11], [1700003600000, 9.9e11], [1700007200000, 9.7e11]],
+                "total_volumes": [[1700000000000, 1000000000], [1700003600000, 1.1e9], [1700007200000, 9e8]]
+            }
+            """;
+        assertParity(json);
+
+        HistoricalData data = parser.parse(json);
+        assertEquals(3, data.size());
+        assertEquals(1700003600000L, data.getTime(1));
+        assertEquals(50100.5, data.getPrice(1), 0.0);
+        assertEquals(9e8, data.getVolume(2), 0.0);
+    }
+
+    @Test
+    public void testLargeGeneratedSeries() throws Exception {
+        Random random = new Random(42);
+        StringBuilder prices = new StringBuilder();
+        StringBuilder volumes = new StringBuilder();
+        long ts = 1_670_000_000_000L;
+        for (int i = 0; i < 8760; i++) {
+            if (i > 0) {
+                prices.append(',');
+                volumes.append(',');
+            }
+            ts += 3_600_000L + random.nextInt(5000);
+            prices.append('[').append(ts).append(',').append(20000 + random.nextDouble() * 50000).append(']');
+            volumes.append('[').append(ts).append(',').append(random.nextDouble() * 4e10).append(']');
+        }
+        String json = "{\"prices\":[" + prices + "],\"total_volumes\":[" + volumes + "]}";
+
+        assertParity(json);
+        assertEquals(8760, parser.parse(json).size());
+    }
+
+    @Test
+    public void testMalformedEntriesAreSkippedButKeepVolumeAlignment() throws Exception {
+        String json = """
+            {
+                "prices": [[1, 10.0], [2], "junk", [3, null], [4, 40.0, "extra", [1, 2]], {}, [[5], 50.0], [6, "60.5"]],
+                "total_volumes": [[1, 100.0], [2, 200.0], [3, 300.0], [4, null], [5], [6, 600.0], [7, 700.0], [8, "abc"]]
+            }
+            """;
+        assertParity(json);
+
+        HistoricalData data = parser.parse(json);
+        assertEquals(5, data.size());
+        assertTrue(Double.isNaN(data.getPrice(1)));
+        assertTrue(Double.isNaN(data.getVolume(2)));
+        assertEquals(0L, data.getTime(3));
+        assertEquals(60.5, data.getPrice(4), 0.0);
+    }
+
+    @Test
+    public void testDecodesFromResponseStream() throws Exception {
+        String json = """
+            {"prices": [[1, 1.0], [2, 2.0]], "total_volumes": [[1, 10.0], [2, 20.0]]}
+            """;
+        HistoricalData fromStream = parser.parse(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+        HistoricalData fromString = parser.parse(json);
+
+        assertArrayEquals(fromString.getTimes(), fromStream.getTimes());
+        assertArrayEquals(fromString.getPrices(), fromStream.getPrices());
+        assertArrayEquals(fromString.getVolumes(), fromStream.getVolumes());
+    }
+
+    @Test
+    public void testVolumesBeforePricesAndShorterThanPrices() throws Exception {
+        assertParity("""
+            {"total_volumes": [[1, 5.0]], "prices": [[1, 1.0], [2, 2.0], [3, 3.0]]}
+            """);
+    }
+
+    @Test
+    public void testMissingVolumes() throws Exception {
+        assertParity("""
+            {"prices": [[1, 1.0], [2, 2.0]]}
+            """);
+    }
+
+    @Test
+    public void testNumericEdgeCases() throws Exception {
+        assertParity("""
+            {
+                "prices": [[1.7e12, 1], [true, false], ["1700000000000", "1.5e3"], [99999999999999999999, 1e308]],
+                "total_volumes": [[0, true], [0, "bad"], [0, 1], [0, -0.0]]
+            }
+            """);
+    }
+
+    @Test
+    public void testDuplicateFieldsUseLastValue() throws Exception {
+        assertParity("""
+            {"prices": [[1, 1.0]], "prices": [[2, 2.0], [3, 3.0]], "total_volumes": [[2, 20.0]]}
+            """);
+        assertParity("""
+            {"prices": [[1, 1.0]], "prices": null}
+            """);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "{}",
+        "[]",
+        "{\"prices\": {}}",
+        "{\"prices\": null, \"total_volumes\": [[1, 2]]}",
+        "{\"prices\": []}",
+        "{\"error\": {\"status\": {\"error_code\": 429}}}"
+    })
+    public void testEmptyOrNonSeriesDocuments(String json) throws Exception {
+        assertParity(json);
+        assertTrue(parser.parse(json).isEmpty());
+    }
+}
@@ -0,0 +1,125 @@
+package com.mycompany.app.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+import com.mycompany.app.models.News;
+
+/**
+ * Unit tests for NewsCache, with a fake clock
+ */
+public class NewsCacheTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    // TTL 100ms, stale results served for 1000ms more
+    private final NewsCache cache = new NewsCache(100, 1000, 2, now::get);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private static List<News> articles(String title) {
+        return List.of(new News(title, "Source", "1h ago", "", "https://example.com/" + title, "1h ago"));
+    }
+
+    private Supplier<CompletableFuture<List<News>>> loader(String title) {
+        return () -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture(articles(title));
+        };
+    }
+
+    @Test
+    public void testFreshEntryIsServedFromMemory() {
+        cache.get("bitcoin", loader("first")).join();
+        now.addAndGet(50);
+
+        List<News> news = cache.get("bitcoin", loader("second")).join();
+
+        assertEquals("first", news.get(0).getTitle());
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void testStaleEntryIsServedWhileRevalidating() {
+        cache.get("bitcoin", loader("first")).join();
+        now.addAndGet(500);
+
+        List<News> stale = cache.get("bitcoin", loader("second")).join();
+        List<News> refreshed = cache.get("bitcoin", loader("third")).join();
+
+        assertEquals("first", stale.get(0).getTitle());
+        assertEquals("second", refreshed.get(0).getTitle());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testExpiredEntryIsLoaded() {
+        cache.get("bitcoin", loader("first")).join();
+        now.addAndGet(2000);
+
+        List<News> news = cache.get("bitcoin", loader("second")).join();
+
+        assertEquals("second", news.get(0).getTitle());
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    public void testConcurrentMissesShareOneLoad() {
+        CompletableFuture<List<News>> pending = new CompletableFuture<>();
+        Supplier<CompletableFuture<List<News>>> slow = () -> {
+            loads.incrementAndGet();
+            return pending;
+        };
+
+        CompletableFuture<List<News>> first = cache.get("bitcoin", slow);
+        CompletableFuture<List<News>> second = cache.get("bitcoin", slow);
+        pending.complete(articles("shared"));
+
+        assertEquals(1, loads.get());
+        assertEquals("shared", first.join().get(0).getTitle());
+        assertEquals("shared", second.join().get(0).getTitle());
+    }
+
+    @Test
+    public void testFailedRefreshKeepsStaleEntry() {
+        cache.get("bitcoin", loader("first")).join();
+        now.addAndGet(500);
+
+        List<News> stale = cache.get("bitcoin",
+                () -> CompletableFuture.failedFuture(new IOException("quota exceeded"))).join();
+        List<News> again = cache.get("bitcoin", loader("second")).join();
+
+        assertEquals("first", stale.get(0).getTitle());
+        assertEquals("first", again.get(0).getTitle(), "still stale, served while refreshing");
+    }
+
+    @Test
+    public void testFailedLoadIsNotCached() {
+        CompletableFuture<List<News>> failed = cache.get("bitcoin",
+                () -> CompletableFuture.failedFuture(new IOException("down")));
+
+        assertThrows(CompletionException.class, failed::join);
+        assertEquals(0, cache.size());
+        assertEquals("first", cache.get("bitcoin", loader("first")).join().get(0).getTitle());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedQueryIsEvicted() {
+        cache.get("a", loader("a")).join();
+        cache.get("b", loader("b")).join();
+        cache.get("a", loader("a")).join();
+        cache.get("c", loader("c")).join();
+
+        assertEquals(2, cache.size());
+        cache.get("b", loader("b2")).join();
+        assertEquals(4, loads.get(), "b was evicted and loaded again");
+    }
+}
@@ -0,0 +1,62 @@
+package com.mycompany.app.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.mycompany.app.models.News;
+
+/**
+ * Unit tests for NewsMerge
+ */
+public class NewsMergeTest {
+
+    private static final long NOW = ZonedDateTime.parse("2025-10-15T12:00:00Z").toInstant().toEpochMilli();
+
+    private static News article(String title, String link, String date) {
+        return new News(title, "Source", date, "", link, date);
+    }
+
+    @Test
+    public void testDuplicatesAcrossSearchesAreDropped() {
+        NewsMerge merge = new NewsMerge(NOW);
+        merge.add(List.of(article("Bitcoin rallies", "https://a.com/1", "1 hour ago")));
+        merge.add(List.of(
+                article("Bitcoin rallies", "https://a.com/1", "1 hour ago"),
+                article("BITCOIN RALLIES ", "https://b.com/1", "1 hour ago"),
+                article("Ether slips", "https://a.com/2", "2 hours ago")));
+
+        List<News> news = merge.result();
+
+        assertEquals(2, news.size());
+        assertEquals("https://a.com/1", news.get(0).getLink());
+    }
+
+    @Test
+    public void testResultIsNewestFirstWithUndatedLast() {
+        NewsMerge merge = new NewsMerge(NOW);
+        merge.add(List.of(article("undated", "https://a.com/1", "Recently")));
+        merge.add(List.of(
+                article("two days", "https://a.com/2", "2 days ago"),
+                article("absolute", "https://a.com/3", "10/15/2025, 11:30 AM, +0000 UTC"),
+                article("minutes", "https://a.com/4", "5 minutes ago")));
+
+        List<String> titles = merge.result().stream().map(News::getTitle).toList();
+
+        assertEquals(List.of("minutes", "absolute", "two days", "undated"), titles);
+    }
+
+    @Test
+    public void testPublishedAtReadsSerpApiDates() {
+        assertEquals(NOW - TimeUnit.HOURS.toMillis(3), NewsMerge.publishedAt("3 hours ago", NOW));
+        assertEquals(NOW - TimeUnit.DAYS.toMillis(14), NewsMerge.publishedAt("2 weeks ago", NOW));
+        assertEquals(NOW - TimeUnit.DAYS.toMillis(1), NewsMerge.publishedAt("1 day ago", NOW));
+        assertEquals(NOW - TimeUnit.MINUTES.toMillis(30), NewsMerge.publishedAt("10/15/2025, 11:30 AM, +0000 UTC", NOW));
+        assertEquals(Long.MIN_VALUE, NewsMerge.publishedAt("Recently", NOW));
+        assertEquals(Long.MIN_VALUE, NewsMerge.publishedAt("", NOW));
+    }
+}
@@ -0,0 +1,85 @@
+package com.mycompany.app.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for PriceBoard and parsing price polls into it
+ */
+public class PriceBoardTest {
+
+    private static List<String> changedSince(PriceBoard board, long version) {
+        List<String> ids = new ArrayList<>();
+        board.forEachChangedSince(version, (slot, id, price, change) -> ids.add(id));
+        return ids;
+    }
+
+    @Test
+    public void testSlotsFollowListOrder() {
+        PriceBoard board = new PriceBoard(List.of("bitcoin", "ethereum", "solana"));
+
+        assertEquals(3, board.size());
+        assertEquals(1, board.slotOf("ethereum"));
+        assertEquals("solana", board.idAt(2));
+        assertEquals(-1, board.slotOf("dogecoin"));
+        assertTrue(Double.isNaN(board.price(0)));
+        assertEquals(0, board.version());
+    }
+
+    @Test
+    public void testOnlyChangedSlotsAreVisited() {
+        PriceBoard board = new PriceBoard(List.of("bitcoin", "ethereum", "solana"));
+        board.update(0, 100.0, 1.0);
+        board.update(1, 10.0, 2.0);
+        board.update(2, 1.0, 3.0);
+        long seen = board.forEachChangedSince(0, (slot, id, price, change) -> { });
+        assertEquals(3, seen);
+
+        assertFalse(board.update(0, 100.0, 1.0), "same values are not a change");
+        assertTrue(board.update(2, 1.5, 3.0));
+
+        List<Double> prices = new ArrayList<>();
+        long next = board.forEachChangedSince(seen, (slot, id, price, change) -> prices.add(price));
+        assertEquals(List.of(1.5), prices);
+        assertEquals(4, next);
+        assertEquals(4, board.sequence(2));
+        assertTrue(changedSince(board, next).isEmpty());
+    }
+
+    @Test
+    public void testConsumerBehindSeveralUpdatesSeesLatestValueOnce() {
+        PriceBoard board = new PriceBoard(List.of("bitcoin", "ethereum"));
+        board.update(0, 100.0, 1.0);
+        board.update(0, 101.0, 1.1);
+        board.update(0, 102.0, 1.2);
+
+        List<Double> prices = new ArrayList<>();
+        board.forEachChangedSince(0, (slot, id, price, change) -> prices.add(price));
+
+        assertEquals(List.of(102.0), prices);
+    }
+
+    @Test
+    public void testParsePriceResponseUpdatesBoard() throws Exception {
+        PriceBoard board = new PriceBoard(List.of("bitcoin", "ethereum", "missing"));
+        board.update(1, 3000.0, -1.0);
+        long seen = board.version();
+        String json = "{\"bitcoin\":{\"usd\":65000.5,\"usd_24h_change\":2.5},"
+                + "\"ethereum\":{\"usd\":3000.0,\"usd_24h_change\":-1.0}}";
+
+        int changed = new PricePollingService().parsePriceResponse(
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), board);
+
+        assertEquals(1, changed);
+        assertEquals(65000.5, board.price(0), 1e-9);
+        assertEquals(2.5, board.change(0), 1e-9);
+        assertEquals(List.of("bitcoin"), changedSince(board, seen));
+        assertTrue(Double.isNaN(board.price(2)));
+    }
+}
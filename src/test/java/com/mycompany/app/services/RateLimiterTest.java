@@ -0,0 +1,124 @@
+package com.mycompany.app.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the token-bucket RateLimiter
+ */
+public class RateLimiterTest {
+
+    @Test
+    public void testBurstIsAvailableImmediately() {
+        RateLimiter limiter = new RateLimiter("test", 1, 3);
+
+        assertTrue(limiter.acquireAsync(RateLimiter.Priority.INTERACTIVE).isDone());
+        assertTrue(limiter.acquireAsync(RateLimiter.Priority.INTERACTIVE).isDone());
+        assertTrue(limiter.acquireAsync(RateLimiter.Priority.INTERACTIVE).isDone());
+        CompletableFuture<Void> fourth = limiter.acquireAsync(RateLimiter.Priority.INTERACTIVE);
+        assertFalse(fourth.isDone());
+        fourth.cancel(false);
+    }
+
+    @Test
+    public void testAcquireWaitsForRefill() throws Exception {
+        // 600/min = one permit every 100ms
+        RateLimiter limiter = new RateLimiter("test", 600, 1);
+        limiter.acquireAsync(RateLimiter.Priority.INTERACTIVE).get(5, TimeUnit.SECONDS);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 3; i++) {
+            limiter.acquireAsync(RateLimiter.Priority.INTERACTIVE).get(5, TimeUnit.SECONDS);
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(elapsedMs >= 250, "three permits should take about 300ms, took " + elapsedMs);
+    }
+
+    @Test
+    public void testHigherPriorityWaiterIsServedFirst() throws Exception {
+        // 120/min = one permit every 500ms; the bucket starts drained
+        RateLimiter limiter = new RateLimiter("test", 120, 1);
+        assertTrue(limiter.acquireAsync(RateLimiter.Priority.INTERACTIVE).isDone());
+
+        List<String> order = new CopyOnWriteArrayList<>();
+        CompletableFuture<Void> first = limiter.acquireAsync(RateLimiter.Priority.BACKGROUND)
+            .thenRun(() -> order.add("background-1"));
+        CompletableFuture<Void> second = limiter.acquireAsync(RateLimiter.Priority.BACKGROUND)
+            .thenRun(() -> order.add("background-2"));
+        CompletableFuture<Void> interactive = limiter.acquireAsync(RateLimiter.Priority.INTERACTIVE)
+            .thenRun(() -> order.add("interactive"));
+
+        CompletableFuture.allOf(first, second, interactive).get(5, TimeUnit.SECONDS);
+        assertEquals(List.of("interactive", "background-1", "background-2"), order);
+    }
+
+    @Test
+    public void testAcquireAsyncCompletesWhenPermitRefills() throws Exception {
+        // 600/min = one permit every 100ms; the bucket starts drained
+        RateLimiter limiter = new RateLimiter("test", 600, 1);
+        assertTrue(limiter.acquireAsync(RateLimiter.Priority.INTERACTIVE).isDone());
+
+        CompletableFuture<Void> grant = limiter.acquireAsync(RateLimiter.Priority.INTERACTIVE);
+        assertFalse(grant.isDone());
+
+        grant.get(5, TimeUnit.SECONDS);
+        assertTrue(limiter.availablePermits() < 1);
+    }
+
+    @Test
+    public void testCancelledAsyncWaiterLeavesQueue() throws Exception {
+        // 120/min = one permit every 500ms; the bucket starts drained
+        RateLimiter limiter = new RateLimiter("test", 120, 1);
+        assertTrue(limiter.acquireAsync(RateLimiter.Priority.INTERACTIVE).isDone());
+
+        CompletableFuture<Void> cancelled = limiter.acquireAsync(RateLimiter.Priority.INTERACTIVE);
+        CompletableFuture<Void> next = limiter.acquireAsync(RateLimiter.Priority.BACKGROUND);
+        assertTrue(cancelled.cancel(false));
+
+        // The refilled permit goes to the remaining waiter
+        next.get(5, TimeUnit.SECONDS);
+        assertTrue(limiter.availablePermits() < 1);
+    }
+
+    @Test
+    public void testRateLimitedResponseHoldsPermitsBack() {
+        RateLimiter limiter = new RateLimiter("test", 60, 5);
+        limiter.onRateLimited(Duration.ofSeconds(10));
+
+        CompletableFuture<Void> grant = limiter.acquireAsync(RateLimiter.Priority.INTERACTIVE);
+        assertFalse(grant.isDone());
+        grant.cancel(false);
+        // 10s at one permit per second
+        assertTrue(limiter.availablePermits() <= -9.0);
+    }
+
+    @Test
+    public void testUnlimitedNeverBlocks() {
+        RateLimiter limiter = RateLimiter.unlimited();
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(limiter.acquireAsync(RateLimiter.Priority.BACKGROUND).isDone());
+        }
+        limiter.onRateLimited(Duration.ofMinutes(1));
+        assertTrue(limiter.acquireAsync(RateLimiter.Priority.INTERACTIVE).isDone());
+    }
+
+    @Test
+    public void testForProviderIsSharedPerProvider() {
+        assertSame(RateLimiter.forProvider(RateLimiter.COINGECKO), RateLimiter.forProvider(RateLimiter.COINGECKO));
+        assertNotSame(RateLimiter.forProvider(RateLimiter.COINGECKO), RateLimiter.forProvider(RateLimiter.SERPAPI));
+    }
+
+    @Test
+    public void testInvalidConfigurationRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter("test", 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter("test", 10, 0));
+    }
+}
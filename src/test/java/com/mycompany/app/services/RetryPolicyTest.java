@@ -0,0 +1,128 @@
+package com.mycompany.app.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for RetryPolicy
+ */
+public class RetryPolicyTest {
+
+    private ScheduledExecutorService scheduler;
+
+    @BeforeEach
+    public void setUp() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    private static RetryPolicy policy(int attempts, long baseMs, long maxMs, long deadlineMs) {
+        return new RetryPolicy(attempts, Duration.ofMillis(baseMs), Duration.ofMillis(maxMs),
+                Duration.ofMillis(deadlineMs), new Random(42));
+    }
+
+    @Test
+    public void testDelaysAreJitteredWithinBounds() {
+        RetryPolicy policy = policy(10, 100, 1000, 60000);
+
+        assertEquals(100, policy.nextDelayMillis(0));
+        long previous = 100;
+        for (int i = 0; i < 50; i++) {
+            long delay = policy.nextDelayMillis(previous);
+            assertTrue(delay >= 100, "delay below base: " + delay);
+            assertTrue(delay <= Math.min(1000, previous * 3), "delay above bound: " + delay);
+            previous = delay;
+        }
+    }
+
+    @Test
+    public void testRetriesUntilSuccess() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<String> result = policy(5, 10, 10, 5000).execute(() -> calls.incrementAndGet() < 3
+                ? CompletableFuture.failedFuture(new IOException("connection reset"))
+                : CompletableFuture.completedFuture("ok"), scheduler, "test");
+
+        assertEquals("ok", result.get(5, TimeUnit.SECONDS));
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    public void testStopsAfterAttemptBudget() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<String> result = policy(3, 10, 10, 5000).execute(() -> {
+            calls.incrementAndGet();
+            return CompletableFuture.failedFuture(new HttpStatusException(503, null, ""));
+        }, scheduler, "test");
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(HttpStatusException.class, e.getCause());
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    public void testClientErrorIsNotRetried() {
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<String> result = policy(5, 10, 10, 5000).execute(() -> {
+            calls.incrementAndGet();
+            return CompletableFuture.failedFuture(new HttpStatusException(404, null, ""));
+        }, scheduler, "test");
+
+        assertTrue(result.isCompletedExceptionally());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testRetryAfterIsHonoured() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        long start = System.nanoTime();
+        CompletableFuture<String> result = policy(2, 10, 10, 5000).execute(() -> calls.incrementAndGet() == 1
+                ? CompletableFuture.failedFuture(new HttpStatusException(429, Duration.ofMillis(300), ""))
+                : CompletableFuture.completedFuture("ok"), scheduler, "test");
+
+        assertEquals("ok", result.get(5, TimeUnit.SECONDS));
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(elapsedMs >= 300, "retry should wait for Retry-After, waited " + elapsedMs);
+    }
+
+    @Test
+    public void testGivesUpWhenRetryWouldPassDeadline() {
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<String> result = policy(5, 200, 200, 100).execute(() -> {
+            calls.incrementAndGet();
+            return CompletableFuture.failedFuture(new IOException("timeout"));
+        }, scheduler, "test");
+
+        assertTrue(result.isCompletedExceptionally());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testRetryContinuesAfterFailedFirstAttempt() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<String> result = policy(2, 10, 10, 5000).retry(new IOException("first attempt"), () -> {
+            calls.incrementAndGet();
+            return CompletableFuture.failedFuture(new IOException("second attempt"));
+        }, scheduler, "test");
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertEquals("second attempt", e.getCause().getMessage());
+        assertEquals(1, calls.get());
+    }
+}
@@ -2,17 +2,25 @@ package com.mycompany.app.services;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 
+import com.mycompany.app.models.Crypto;
 import com.mycompany.app.models.News;
 
 /**
@@ -29,6 +37,15 @@ public class SerpAPINewsServiceTest {
     public void setUp() throws Exception {
         mockHttpClient = Mockito.mock(HttpClient.class);
         service = new NewsService(mockHttpClient, "test-api-key");
+        service.setRateLimiter(RateLimiter.unlimited());
+        service.setRetryPolicy(new RetryPolicy(2, Duration.ofMillis(10), Duration.ofMillis(10), Duration.ofSeconds(5)));
+    }
+
+    /**
+     * Response bodies are consumed as streams; each call gets a fresh one
+     */
+    private static InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
     }
 
     @Test
@@ -55,11 +72,11 @@ public class SerpAPINewsServiceTest {
             }
             """;
 
-        HttpResponse<String> mockResponse = Mockito.mock(HttpResponse.class);
+        HttpResponse<InputStream> mockResponse = Mockito.mock(HttpResponse.class);
         when(mockResponse.statusCode()).thenReturn(200);
-        when(mockResponse.body()).thenReturn(jsonResponse);
-        when(mockHttpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
-            .thenReturn(mockResponse);
+        when(mockResponse.body()).thenAnswer(invocation -> body(jsonResponse));
+        when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+            .thenReturn(CompletableFuture.completedFuture(mockResponse));
 
         List<News> news = service.getNewsForCrypto("bitcoin");
 
@@ -83,11 +100,11 @@ public class SerpAPINewsServiceTest {
             }
             """;
 
-        HttpResponse<String> mockResponse = Mockito.mock(HttpResponse.class);
+        HttpResponse<InputStream> mockResponse = Mockito.mock(HttpResponse.class);
         when(mockResponse.statusCode()).thenReturn(200);
-        when(mockResponse.body()).thenReturn(jsonResponse);
-        when(mockHttpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
-            .thenReturn(mockResponse);
+        when(mockResponse.body()).thenAnswer(invocation -> body(jsonResponse));
+        when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+            .thenReturn(CompletableFuture.completedFuture(mockResponse));
 
         List<News> news = service.getNewsForCrypto("unknowncoin");
 
@@ -98,11 +115,11 @@ public class SerpAPINewsServiceTest {
     @Test
     @SuppressWarnings("unchecked")
     public void testGetNewsHandlesApiError() throws Exception {
-        HttpResponse<String> mockResponse = Mockito.mock(HttpResponse.class);
+        HttpResponse<InputStream> mockResponse = Mockito.mock(HttpResponse.class);
         when(mockResponse.statusCode()).thenReturn(401);
-        when(mockResponse.body()).thenReturn("Unauthorized");
-        when(mockHttpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
-            .thenReturn(mockResponse);
+        when(mockResponse.body()).thenAnswer(invocation -> body("Unauthorized"));
+        when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+            .thenReturn(CompletableFuture.completedFuture(mockResponse));
 
         List<News> news = service.getNewsForCrypto("bitcoin");
 
@@ -113,8 +130,8 @@ public class SerpAPINewsServiceTest {
     @Test
     @SuppressWarnings("unchecked")
     public void testGetNewsHandlesNetworkError() throws Exception {
-        when(mockHttpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
-            .thenThrow(new java.io.IOException("Network error"));
+        when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+            .thenReturn(CompletableFuture.failedFuture(new java.io.IOException("Network error")));
 
         List<News> news = service.getNewsForCrypto("bitcoin");
 
@@ -142,11 +159,11 @@ public class SerpAPINewsServiceTest {
             }
             """;
 
-        HttpResponse<String> mockResponse = Mockito.mock(HttpResponse.class);
+        HttpResponse<InputStream> mockResponse = Mockito.mock(HttpResponse.class);
         when(mockResponse.statusCode()).thenReturn(200);
-        when(mockResponse.body()).thenReturn(jsonResponse);
-        when(mockHttpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
-            .thenReturn(mockResponse);
+        when(mockResponse.body()).thenAnswer(invocation -> body(jsonResponse));
+        when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+            .thenReturn(CompletableFuture.completedFuture(mockResponse));
 
         List<News> news = service.getNewsForCrypto("bitcoin");
 
@@ -174,11 +191,11 @@ public class SerpAPINewsServiceTest {
             }
             """;
 
-        HttpResponse<String> mockResponse = Mockito.mock(HttpResponse.class);
+        HttpResponse<InputStream> mockResponse = Mockito.mock(HttpResponse.class);
         when(mockResponse.statusCode()).thenReturn(200);
-        when(mockResponse.body()).thenReturn(jsonResponse);
-        when(mockHttpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
-            .thenReturn(mockResponse);
+        when(mockResponse.body()).thenAnswer(invocation -> body(jsonResponse));
+        when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+            .thenReturn(CompletableFuture.completedFuture(mockResponse));
 
         List<News> news = service.getNewsForCrypto("bitcoin");
 
@@ -203,11 +220,11 @@ public class SerpAPINewsServiceTest {
             }
             """;
 
-        HttpResponse<String> mockResponse = Mockito.mock(HttpResponse.class);
+        HttpResponse<InputStream> mockResponse = Mockito.mock(HttpResponse.class);
         when(mockResponse.statusCode()).thenReturn(200);
-        when(mockResponse.body()).thenReturn(jsonResponse);
-        when(mockHttpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
-            .thenReturn(mockResponse);
+        when(mockResponse.body()).thenAnswer(invocation -> body(jsonResponse));
+        when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+            .thenReturn(CompletableFuture.completedFuture(mockResponse));
 
         List<News> news = service.getGeneralNews();
 
@@ -216,6 +233,70 @@ public class SerpAPINewsServiceTest {
         assertEquals("Crypto Market Update", news.get(0).getTitle());
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testNewsPagesRequestOffsets() throws Exception {
+        HttpResponse<InputStream> mockResponse = Mockito.mock(HttpResponse.class);
+        when(mockResponse.statusCode()).thenReturn(200);
+        when(mockResponse.body()).thenAnswer(invocation -> body("{\"news_results\": []}"));
+        when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+            .thenReturn(CompletableFuture.completedFuture(mockResponse));
+
+        service.getNewsPageAsync(null, 0).get(5, TimeUnit.SECONDS);
+        service.getNewsPageAsync("Bitcoin", 20).get(5, TimeUnit.SECONDS);
+
+        ArgumentCaptor<HttpRequest> requests = ArgumentCaptor.forClass(HttpRequest.class);
+        Mockito.verify(mockHttpClient, Mockito.times(2)).sendAsync(requests.capture(), any(HttpResponse.BodyHandler.class));
+        String first = requests.getAllValues().get(0).uri().toString();
+        String second = requests.getAllValues().get(1).uri().toString();
+        assertTrue(first.contains("num=" + INewsService.PAGE_SIZE));
+        assertFalse(first.contains("start="));
+        assertTrue(second.contains("q=Bitcoin+recent+news"));
+        assertTrue(second.contains("start=20"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testAllNewsMergesSearchesAndLeavesOutSlowOnes() throws Exception {
+        IAsyncCryptoService cryptoService = Mockito.mock(IAsyncCryptoService.class);
+        when(cryptoService.getTopCryptosAsync()).thenReturn(CompletableFuture.completedFuture(List.of(
+                new Crypto("bitcoin", "Bitcoin", "BTC", 1, 0, "", "", ""),
+                new Crypto("ethereum", "Ethereum", "ETH", 1, 0, "", "", ""))));
+        service = new NewsService(mockHttpClient, "test-api-key", cryptoService);
+        service.setRateLimiter(RateLimiter.unlimited());
+        service.setQueryTimeout(Duration.ofMillis(200));
+
+        String bitcoinNews = """
+            {"news_results": [
+                {"title": "Older", "source": "A", "link": "https://example.com/older", "date": "5 hours ago"},
+                {"title": "Shared", "source": "A", "link": "https://example.com/shared", "date": "3 hours ago"}
+            ]}
+            """;
+        String generalNews = """
+            {"news_results": [
+                {"title": "Shared", "source": "B", "link": "https://example.com/shared", "date": "3 hours ago"},
+                {"title": "Newest", "source": "B", "link": "https://example.com/newest", "date": "10 minutes ago"}
+            ]}
+            """;
+        when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+            .thenAnswer(invocation -> {
+                String uri = invocation.getArgument(0, HttpRequest.class).uri().toString();
+                if (uri.contains("Ethereum")) {
+                    return new CompletableFuture<>(); // never answers
+                }
+                HttpResponse<InputStream> response = Mockito.mock(HttpResponse.class);
+                when(response.statusCode()).thenReturn(200);
+                String json = uri.contains("Bitcoin") ? bitcoinNews : generalNews;
+                when(response.body()).thenAnswer(i -> body(json));
+                return CompletableFuture.completedFuture(response);
+            });
+
+        List<News> news = service.getAllNewsAsync().get(5, TimeUnit.SECONDS);
+
+        Mockito.verify(mockHttpClient, Mockito.times(3)).sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+        assertEquals(List.of("Newest", "Shared", "Older"), news.stream().map(News::getTitle).toList());
+    }
+
     @Test
     @SuppressWarnings("unchecked") 
     public void testGetNewsFallsBackToRecentlyForMissingDate() throws Exception {
@@ -231,11 +312,11 @@ public class SerpAPINewsServiceTest {
             }
             """;
 
-        HttpResponse<String> mockResponse = Mockito.mock(HttpResponse.class);
+        HttpResponse<InputStream> mockResponse = Mockito.mock(HttpResponse.class);
         when(mockResponse.statusCode()).thenReturn(200);
-        when(mockResponse.body()).thenReturn(jsonResponse);
-        when(mockHttpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
-            .thenReturn(mockResponse);
+        when(mockResponse.body()).thenAnswer(invocation -> body(jsonResponse));
+        when(mockHttpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+            .thenReturn(CompletableFuture.completedFuture(mockResponse));
 
         List<News> news = service.getNewsForCrypto("bitcoin");
 
@@ -0,0 +1,100 @@
+package com.mycompany.app.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for SingleFlight request coalescing
+ */
+public class SingleFlightTest {
+
+    private final SingleFlight<String, String> flight = new SingleFlight<>();
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testConcurrentCallersShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CompletableFuture<String> load = new CompletableFuture<>();
+
+        List<Future<CompletableFuture<String>>> joined = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            joined.add(executor.submit(() -> flight.executeAsync("bitcoin", () -> {
+                loads.incrementAndGet();
+                return load;
+            })));
+        }
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        for (Future<CompletableFuture<String>> future : joined) {
+            results.add(future.get(5, TimeUnit.SECONDS));
+        }
+        // Every caller has joined while the load is still pending
+        assertEquals(1, flight.inFlightCount());
+        load.complete("value");
+
+        for (CompletableFuture<String> result : results) {
+            assertEquals("value", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(0, flight.inFlightCount());
+    }
+
+    @Test
+    public void testDifferentKeysLoadInParallel() {
+        CompletableFuture<String> btc = new CompletableFuture<>();
+        CompletableFuture<String> eth = new CompletableFuture<>();
+
+        CompletableFuture<String> first = flight.executeAsync("bitcoin", () -> btc);
+        // Starts although the first load is still pending
+        CompletableFuture<String> second = flight.executeAsync("ethereum", () -> eth);
+        assertEquals(2, flight.inFlightCount());
+
+        eth.complete("eth");
+        assertEquals("eth", second.join());
+        assertFalse(first.isDone());
+        btc.complete("btc");
+        assertEquals("btc", first.join());
+    }
+
+    @Test
+    public void testKeyIsReleasedAfterCompletion() {
+        AtomicInteger loads = new AtomicInteger();
+        flight.executeAsync("bitcoin", () -> CompletableFuture.completedFuture("v" + loads.incrementAndGet())).join();
+        String second = flight.executeAsync("bitcoin",
+                () -> CompletableFuture.completedFuture("v" + loads.incrementAndGet())).join();
+
+        assertEquals("v2", second);
+        assertEquals(0, flight.inFlightCount());
+    }
+
+    @Test
+    public void testFailureIsPropagatedAndKeyReleased() {
+        CompletableFuture<String> thrown = flight.executeAsync("bitcoin", () -> {
+            throw new IllegalStateException("boom");
+        });
+        assertTrue(thrown.isCompletedExceptionally());
+
+        CompletableFuture<String> failed = flight.executeAsync("bitcoin",
+                () -> CompletableFuture.failedFuture(new IllegalStateException("again")));
+        CompletionException e = assertThrows(CompletionException.class, failed::join);
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+        assertEquals("again", e.getCause().getMessage());
+        assertEquals("ok", flight.executeAsync("bitcoin", () -> CompletableFuture.completedFuture("ok")).join());
+    }
+}
@@ -0,0 +1,109 @@
+package com.mycompany.app.views;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for UiDispatcher, with frames driven by the test
+ */
+public class UiDispatcherTest {
+
+    private AtomicInteger frameRequests;
+    private UiDispatcher dispatcher;
+
+    @BeforeEach
+    public void setUp() {
+        frameRequests = new AtomicInteger();
+        dispatcher = new UiDispatcher(frameRequests::incrementAndGet);
+    }
+
+    @Test
+    public void testLatestUpdatePerKeyWins() {
+        List<String> shown = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            String price = "btc " + i;
+            dispatcher.post("price:bitcoin", () -> shown.add(price));
+        }
+        dispatcher.post("price:ethereum", () -> shown.add("eth"));
+
+        assertTrue(dispatcher.drain());
+
+        assertEquals(List.of("btc 49", "eth"), shown);
+        assertEquals(49, dispatcher.getSupersededCount());
+    }
+
+    @Test
+    public void testKeysRunInFirstPostedOrder() {
+        List<String> shown = new ArrayList<>();
+        dispatcher.post("a", () -> shown.add("a1"));
+        dispatcher.post("b", () -> shown.add("b"));
+        dispatcher.post("a", () -> shown.add("a2"));
+
+        dispatcher.drain();
+
+        assertEquals(List.of("a2", "b"), shown);
+    }
+
+    @Test
+    public void testFramesAreRequestedOnceUntilIdle() {
+        dispatcher.post("a", () -> { });
+        dispatcher.post("b", () -> { });
+        assertEquals(1, frameRequests.get());
+
+        assertTrue(dispatcher.drain());
+        // Still armed: the next post rides on the running frames
+        dispatcher.post("a", () -> { });
+        assertEquals(1, frameRequests.get());
+
+        assertTrue(dispatcher.drain());
+        assertFalse(dispatcher.drain(), "idle frame disarms");
+
+        dispatcher.post("a", () -> { });
+        assertEquals(2, frameRequests.get());
+    }
+
+    @Test
+    public void testFailingUpdateDoesNotBlockOthers() {
+        List<String> shown = new ArrayList<>();
+        dispatcher.post("bad", () -> { throw new IllegalStateException("boom"); });
+        dispatcher.post("good", () -> shown.add("good"));
+
+        dispatcher.drain();
+
+        assertEquals(List.of("good"), shown);
+    }
+
+    @Test
+    public void testConcurrentPostsKeepOneUpdatePerKey() throws Exception {
+        int threads = 8;
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    dispatcher.post("coin" + (i % 10), () -> { });
+                }
+                done.countDown();
+            }, "poster-" + id).start();
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+
+        AtomicInteger ran = new AtomicInteger();
+        for (int i = 0; i < 10; i++) {
+            dispatcher.post("coin" + i, ran::incrementAndGet);
+        }
+        dispatcher.drain();
+
+        assertEquals(10, ran.get());
+        assertEquals(threads * 1000L, dispatcher.getSupersededCount());
+        assertEquals(1, frameRequests.get());
+    }
+}